@@ -0,0 +1,455 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// This class is a "snapshot" of a running simulation.
+// It holds everything we need to carry on from the exact same tick later:
+// the clock, the ready queue, the running process (and its current_quantum),
+// the arrival cursor and the partial statistics (finished processes + Gantt log).
+//
+// Taking a snapshot only copies the processes that can still change: the ones in
+// the ready queue and the one on the CPU. Everything else is either finished (and
+// a finished process's times never change again) or hasn't arrived yet, and the
+// finished list and the Gantt log only ever grow, so we just remember how long
+// they were. That keeps a snapshot cheap even late in a long run.
+//
+// The same goes for the file (see Writer): the parts that only grow are appended
+// to 'file.log' a piece at a time, and only the live state is rewritten on every
+// save, so saving doesn't get slower as the run gets longer.
+//
+// Only Round Robin takes checkpoints. The other schedulers (SRTF and the
+// Multi-Level Queue keep per-process state too) always run from t=0.
+public class Checkpoint {
+
+    // Every snapshot file starts with these numbers so we can recognise it
+    private static final int MAGIC = 0x43505543; // "CPUC"
+    private static final int FORMAT_VERSION = 3;
+
+    // The part of a snapshot that only grows lives in a second file with this ending
+    static final String LOG_SUFFIX = ".log";
+
+    // Which algorithm wrote this snapshot (e.g. "RR") and its time quantum
+    String algorithm;
+    int time_quantum;
+
+    // The clock and counters at the moment the snapshot was taken
+    int current_time;
+    int processes_completed;
+
+    // How many processes (in arrival order) had already arrived.
+    // Everything after this index hadn't arrived yet.
+    int arrival_cursor;
+    // The last of them, to check the snapshot still fits the workload we resume with
+    Process last_arrived;
+
+    // The ready queue (front to back) and the running process (null = none),
+    // with the remaining burst time and current_quantum each of them had
+    Process[] ready_queue;
+    int[] ready_remaining;
+    int[] ready_quantum;
+    Process running;
+    int running_remaining;
+    int running_quantum;
+
+    // The finished processes are the first 'processes_completed' entries of this
+    // list, and the Gantt log up to now is the first 'gantt_length' ticks of this log.
+    // (Both belong to the run that took the snapshot, which only adds to their ends.)
+    List<Process> completed_processes;
+    GanttLog gantt_chart_log;
+    int gantt_length;
+
+    // A snapshot read from a file only knows its processes by PID and by their
+    // position in arrival order, until restore() matches them up with the workload.
+    // These are null once that's done (or if the snapshot never came from a file).
+    private int[] loaded_arrived_pids;
+    private int[] loaded_ready;
+    private int loaded_running;
+    private int[] loaded_completed;
+    private int[] loaded_completion_time;
+    private int[] loaded_waiting_time;
+    private int[] loaded_turnaround_time;
+
+    // For a snapshot read from a file: the file, and how much of its log belongs to it
+    // (anything after that was written by a save that didn't finish)
+    private String loaded_from;
+    private long log_bytes = -1;
+
+
+    /**
+     * Takes a snapshot of a running simulation.
+     * 'arrival_order' is the full list of processes sorted by arrival time, and
+     * the first 'arrival_cursor' of them are the ones that have already arrived.
+     */
+    public static Checkpoint capture(String algorithm, int time_quantum, int current_time,
+                                     int processes_completed, List<Process> arrival_order,
+                                     int arrival_cursor, Collection<Process> ready_queue,
+                                     Process currently_running_process,
+                                     List<Process> completed_processes, GanttLog gantt_chart_log) {
+
+        Checkpoint c = new Checkpoint();
+        c.algorithm = algorithm;
+        c.time_quantum = time_quantum;
+        c.current_time = current_time;
+        c.processes_completed = processes_completed;
+        c.arrival_cursor = arrival_cursor;
+        c.last_arrived = arrival_cursor == 0 ? null : arrival_order.get(arrival_cursor - 1);
+
+        // copy the state of the processes that are still in play
+        c.ready_queue = ready_queue.toArray(new Process[0]);
+        c.ready_remaining = new int[c.ready_queue.length];
+        c.ready_quantum = new int[c.ready_queue.length];
+        for (int i = 0; i < c.ready_queue.length; i++) {
+            c.ready_remaining[i] = c.ready_queue[i].remaining_burst_time;
+            c.ready_quantum[i] = c.ready_queue[i].current_quantum;
+        }
+        c.running = currently_running_process;
+        if (c.running != null) {
+            c.running_remaining = c.running.remaining_burst_time;
+            c.running_quantum = c.running.current_quantum;
+        }
+
+        // the rest we only need to know the length of
+        c.completed_processes = completed_processes;
+        c.gantt_chart_log = gantt_chart_log;
+        c.gantt_length = gantt_chart_log.size();
+        return c;
+    }
+
+    /**
+     * Puts the processes back into the state they had when the snapshot was taken.
+     * 'arrival_order' must be the workload sorted by arrival time. Returns false
+     * (and changes nothing) if the snapshot doesn't belong to this workload.
+     *
+     * Only the processes that were waiting or running, and the ones that hadn't
+     * arrived yet, are touched. The finished ones are left as they are, so for a
+     * snapshot taken in this program the workload must still be the one it was
+     * taken from, at least up to the arrival cursor (WhatIf only ever changes
+     * processes that arrive later than the snapshot it resumes from).
+     */
+    public boolean restore(List<Process> arrival_order) {
+        if (arrival_order.size() < arrival_cursor) {
+            return false;
+        }
+        if (loaded_arrived_pids != null) {
+            if (!matchUp(arrival_order)) {
+                return false;
+            }
+        } else if (arrival_cursor > 0 && arrival_order.get(arrival_cursor - 1) != last_arrived) {
+            return false;
+        }
+
+        // the processes that were still in play get their saved state back
+        for (int i = 0; i < ready_queue.length; i++) {
+            ready_queue[i].remaining_burst_time = ready_remaining[i];
+            ready_queue[i].current_quantum = ready_quantum[i];
+        }
+        if (running != null) {
+            running.remaining_burst_time = running_remaining;
+            running.current_quantum = running_quantum;
+        }
+
+        // everyone who hasn't arrived yet starts fresh
+        for (int i = arrival_cursor; i < arrival_order.size(); i++) {
+            Process p = arrival_order.get(i);
+            p.remaining_burst_time = p.burst_time;
+            p.completion_time = 0;
+            p.waiting_time = 0;
+            p.turnaround_time = 0;
+            p.current_quantum = 0;
+        }
+        return true;
+    }
+
+    // For a snapshot read from a file: checks the arrived processes have the same
+    // PIDs, turns the saved positions into the processes themselves, and gives
+    // the finished ones back their times
+    private boolean matchUp(List<Process> arrival_order) {
+        for (int i = 0; i < arrival_cursor; i++) {
+            if (arrival_order.get(i).id != loaded_arrived_pids[i]) {
+                return false;
+            }
+        }
+
+        ready_queue = new Process[loaded_ready.length];
+        for (int i = 0; i < ready_queue.length; i++) {
+            ready_queue[i] = arrival_order.get(loaded_ready[i]);
+        }
+        running = loaded_running < 0 ? null : arrival_order.get(loaded_running);
+        completed_processes = new ArrayList<>();
+        for (int i = 0; i < loaded_completed.length; i++) {
+            Process p = arrival_order.get(loaded_completed[i]);
+            p.remaining_burst_time = 0;
+            p.current_quantum = 0;
+            p.completion_time = loaded_completion_time[i];
+            p.waiting_time = loaded_waiting_time[i];
+            p.turnaround_time = loaded_turnaround_time[i];
+            completed_processes.add(p);
+        }
+        last_arrived = arrival_cursor == 0 ? null : arrival_order.get(arrival_cursor - 1);
+
+        loaded_arrived_pids = null;
+        loaded_ready = null;
+        loaded_completed = null;
+        loaded_completion_time = null;
+        loaded_waiting_time = null;
+        loaded_turnaround_time = null;
+        return true;
+    }
+
+
+    /**
+     * Writes the snapshot to a file (and 'filename.log'), as the first snapshot of
+     * a run. 'arrival_order' must be the workload the snapshot was taken from,
+     * sorted by arrival time. A run that saves again and again should use a Writer,
+     * which only adds what changed since its last save.
+     */
+    public void save(String filename, List<Process> arrival_order) throws IOException {
+        new Writer(filename, null).save(this, arrival_order);
+    }
+
+
+    /**
+     * Saves the snapshots of one run to a file.
+     *
+     * The arrived PIDs, the finished processes and the Gantt log only ever grow, so
+     * each save appends just the new ones to 'filename.log'. Everything else (the
+     * clock, the ready queue and the running process) is small; it goes into a
+     * gzipped 'filename', together with how long the log was at that moment.
+     * 'filename' is written to 'filename.tmp' first and then moved over the old
+     * one, so if the program dies halfway through a save, the last good snapshot is
+     * still there. Whatever the unfinished save added to the log is cut off again
+     * by the next save, because the last good snapshot says where its log ends.
+     */
+    public static class Writer {
+        private final String filename;
+        // arrival positions of the processes saved so far (processes are stored by position)
+        private final Map<Process, Integer> position = new IdentityHashMap<>();
+        private int arrived_written = 0;
+        private int completed_written = 0;
+        private int gantt_written = 0;
+        private long log_bytes = 0;
+
+        /**
+         * 'resumed_from' is the snapshot the run was resumed from (or null). If it
+         * was read from this same file, the writer carries on that file's log
+         * instead of starting it again.
+         */
+        public Writer(String filename, Checkpoint resumed_from) {
+            this.filename = filename;
+            if (resumed_from != null && resumed_from.log_bytes >= 0 && filename.equals(resumed_from.loaded_from)) {
+                arrived_written = resumed_from.arrival_cursor;
+                completed_written = resumed_from.processes_completed;
+                gantt_written = resumed_from.gantt_length;
+                log_bytes = resumed_from.log_bytes;
+            }
+        }
+
+        public void save(Checkpoint c, List<Process> arrival_order) throws IOException {
+            for (int i = position.size(); i < c.arrival_cursor; i++) {
+                position.put(arrival_order.get(i), i);
+            }
+
+            // 1. What's new since the last save, added to the end of the log
+            ByteArrayOutputStream chunk_bytes = new ByteArrayOutputStream();
+            try (DataOutputStream chunk = new DataOutputStream(chunk_bytes)) {
+                // the PIDs of the new arrivals, so load() can check the workload
+                chunk.writeInt(c.arrival_cursor - arrived_written);
+                for (int i = arrived_written; i < c.arrival_cursor; i++) {
+                    chunk.writeUTF(arrival_order.get(i).pid());
+                }
+
+                // the newly finished processes and their (final) times
+                chunk.writeInt(c.processes_completed - completed_written);
+                for (int i = completed_written; i < c.processes_completed; i++) {
+                    Process p = c.completed_processes.get(i);
+                    chunk.writeInt(position.get(p));
+                    chunk.writeInt(p.completion_time);
+                    chunk.writeInt(p.waiting_time);
+                    chunk.writeInt(p.turnaround_time);
+                }
+
+                // The new Gantt ticks, "run-length encoded":
+                // [P1, P1, P1, P2] becomes (P1, 3), (P2, 1)
+                // (ids only mean something inside one run, so the file gets the PID strings)
+                int segments = 0;
+                for (int t = gantt_written; t < c.gantt_length; t = segmentEnd(c.gantt_chart_log, t, c.gantt_length)) {
+                    segments++;
+                }
+                chunk.writeInt(segments);
+                for (int t = gantt_written; t < c.gantt_length; ) {
+                    int end = segmentEnd(c.gantt_chart_log, t, c.gantt_length);
+                    chunk.writeUTF(PidTable.name(c.gantt_chart_log.get(t)));
+                    chunk.writeInt(end - t);
+                    t = end;
+                }
+            }
+            Path log = Paths.get(filename + LOG_SUFFIX);
+            try (FileChannel channel = FileChannel.open(log, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                // anything past log_bytes is from a save that didn't finish
+                channel.truncate(log_bytes);
+                channel.position(log_bytes);
+                ByteBuffer buffer = ByteBuffer.wrap(chunk_bytes.toByteArray());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                // on the disk before the new head file points at it
+                channel.force(false);
+            }
+            long new_log_bytes = log_bytes + chunk_bytes.size();
+
+            // 2. The live state, in a file of its own that replaces the old one
+            Path target = Paths.get(filename);
+            Path temp = Paths.get(filename + ".tmp");
+            try {
+                writeHead(c, temp, new_log_bytes);
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    // some file systems can't swap files in one step; replacing is the next best thing
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+
+            arrived_written = c.arrival_cursor;
+            completed_written = c.processes_completed;
+            gantt_written = c.gantt_length;
+            log_bytes = new_log_bytes;
+        }
+
+        private void writeHead(Checkpoint c, Path file, long log_length) throws IOException {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(file))))) {
+
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(c.algorithm);
+                out.writeInt(c.time_quantum);
+                out.writeInt(c.current_time);
+                out.writeInt(c.processes_completed);
+                out.writeInt(c.arrival_cursor);
+                out.writeInt(c.gantt_length);
+                out.writeLong(log_length);
+
+                // the ready queue and the running process
+                out.writeInt(c.ready_queue.length);
+                for (int i = 0; i < c.ready_queue.length; i++) {
+                    out.writeInt(position.get(c.ready_queue[i]));
+                    out.writeInt(c.ready_remaining[i]);
+                    out.writeInt(c.ready_quantum[i]);
+                }
+                out.writeInt(c.running == null ? -1 : position.get(c.running));
+                out.writeInt(c.running_remaining);
+                out.writeInt(c.running_quantum);
+            }
+        }
+
+        // Where the run of equal Gantt entries starting at tick 't' ends
+        private static int segmentEnd(GanttLog log, int t, int length) {
+            int id = log.get(t);
+            int end = t + 1;
+            while (end < length && log.get(end) == id) {
+                end++;
+            }
+            return end;
+        }
+    }
+
+
+    /**
+     * Reads a snapshot back from a file written by save() or a Writer.
+     */
+    public static Checkpoint load(String filename) throws IOException {
+        Checkpoint c = new Checkpoint();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(filename))))) {
+
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Not a checkpoint file (or written by another version): " + filename);
+            }
+
+            c.algorithm = in.readUTF();
+            c.time_quantum = in.readInt();
+            c.current_time = in.readInt();
+            c.processes_completed = in.readInt();
+            c.arrival_cursor = in.readInt();
+            c.gantt_length = in.readInt();
+            c.log_bytes = in.readLong();
+
+            int waiting = in.readInt();
+            c.loaded_ready = new int[waiting];
+            c.ready_remaining = new int[waiting];
+            c.ready_quantum = new int[waiting];
+            for (int i = 0; i < waiting; i++) {
+                c.loaded_ready[i] = in.readInt();
+                c.ready_remaining[i] = in.readInt();
+                c.ready_quantum[i] = in.readInt();
+            }
+            c.loaded_running = in.readInt();
+            c.running_remaining = in.readInt();
+            c.running_quantum = in.readInt();
+        }
+        c.loaded_from = filename;
+
+        // The log, piece by piece, until it has everything this snapshot counted
+        // (a save that didn't finish may have left more after that; it's ignored)
+        c.loaded_arrived_pids = new int[c.arrival_cursor];
+        c.loaded_completed = new int[c.processes_completed];
+        c.loaded_completion_time = new int[c.processes_completed];
+        c.loaded_waiting_time = new int[c.processes_completed];
+        c.loaded_turnaround_time = new int[c.processes_completed];
+        c.gantt_chart_log = new GanttLog(Math.max(1, c.gantt_length));
+        int arrived = 0;
+        int completed = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new FileInputStream(filename + LOG_SUFFIX)))) {
+            while (arrived < c.arrival_cursor || completed < c.processes_completed
+                   || c.gantt_chart_log.size() < c.gantt_length) {
+                int new_arrivals = in.readInt();
+                for (int i = 0; i < new_arrivals; i++) {
+                    c.loaded_arrived_pids[arrived++] = PidTable.intern(in.readUTF());
+                }
+                int new_completed = in.readInt();
+                for (int i = 0; i < new_completed; i++) {
+                    c.loaded_completed[completed] = in.readInt();
+                    c.loaded_completion_time[completed] = in.readInt();
+                    c.loaded_waiting_time[completed] = in.readInt();
+                    c.loaded_turnaround_time[completed] = in.readInt();
+                    completed++;
+                }
+                int segments = in.readInt();
+                for (int i = 0; i < segments; i++) {
+                    int entry = PidTable.intern(in.readUTF());
+                    c.gantt_chart_log.add(entry, in.readInt());
+                }
+            }
+        } catch (EOFException | ArrayIndexOutOfBoundsException e) {
+            throw new IOException("The checkpoint's log is shorter than the checkpoint says: " + filename + LOG_SUFFIX);
+        }
+        if (c.gantt_chart_log.size() != c.gantt_length) {
+            throw new IOException("The checkpoint's log doesn't match the checkpoint: " + filename + LOG_SUFFIX);
+        }
+        return c;
+    }
+}
@@ -0,0 +1,105 @@
+import java.util.Arrays;
+
+// The Gantt log: which process (by its PidTable id) was on the CPU at each tick.
+//
+// It's just a growing int array, so one tick costs 4 bytes and logging a tick
+// never creates an object. PidTable.IDLE (0) means the CPU was free.
+//
+// A log can also start with the first ticks of another log instead of its own copy
+// of them (see sharing()). That's safe because a log only ever grows: once a tick is
+// logged it never changes. A run resumed from a checkpoint uses this, so it doesn't
+// have to copy the whole schedule up to the checkpoint first.
+public class GanttLog {
+
+    // Past this many logs sharing each other, we copy instead, so get() stays fast
+    private static final int MAX_DEPTH = 8;
+
+    // The ticks [0, base_length) are read from 'base' (none if base is null)
+    private final GanttLog base;
+    private final int base_length;
+    private final int depth;
+
+    // The ticks from base_length on
+    private int[] ticks;
+    private int size = 0;   // all the ticks, including the shared ones
+
+    public GanttLog() {
+        this(16);
+    }
+
+    public GanttLog(int capacity) {
+        base = null;
+        base_length = 0;
+        depth = 0;
+        ticks = new int[Math.max(capacity, 1)];
+    }
+
+    private GanttLog(GanttLog base, int base_length) {
+        this.base = base;
+        this.base_length = base_length;
+        this.depth = base.depth + 1;
+        ticks = new int[16];
+        size = base_length;
+    }
+
+    /**
+     * A new log that starts with the first 'length' ticks of 'log', without copying
+     * them. 'log' may keep growing afterwards; those ticks aren't part of the new log.
+     */
+    public static GanttLog sharing(GanttLog log, int length) {
+        // skip logs whose own ticks we don't need
+        while (log.base != null && length <= log.base_length) {
+            log = log.base;
+        }
+        if (log.depth >= MAX_DEPTH) {
+            GanttLog copy = log.prefix(length);
+            copy.ticks = Arrays.copyOf(copy.ticks, Math.max(length * 2, 16));
+            return copy;
+        }
+        return new GanttLog(log, length);
+    }
+
+    // Logs one more tick
+    public void add(int id) {
+        int index = size - base_length;
+        if (index == ticks.length) {
+            ticks = Arrays.copyOf(ticks, index * 2);
+        }
+        ticks[index] = id;
+        size++;
+    }
+
+    // Logs 'count' ticks of the same process
+    public void add(int id, int count) {
+        for (int i = 0; i < count; i++) {
+            add(id);
+        }
+    }
+
+    // The process that was on the CPU during tick 'tick'
+    public int get(int tick) {
+        return tick < base_length ? base.get(tick) : ticks[tick - base_length];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // A copy of the first 'length' ticks
+    public GanttLog prefix(int length) {
+        GanttLog copy = new GanttLog(length);
+        if (base == null) {
+            System.arraycopy(ticks, 0, copy.ticks, 0, length);
+        } else {
+            for (int t = 0; t < length; t++) {
+                copy.ticks[t] = get(t);
+            }
+        }
+        copy.size = length;
+        return copy;
+    }
+}
@@ -0,0 +1,206 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+// This class draws a Gantt chart as an SVG picture inside an HTML page.
+//
+// A text Gantt chart stops being readable after a few hundred blocks, and a
+// picture with one rectangle per block would be huge for a long simulation.
+// So instead we build a "pyramid" of summaries: at the most detailed level every
+// pixel column stands for a small range of ticks, and we only remember which
+// process used most of that range and how busy the CPU was. Each level above it
+// merges pairs of columns, so it is half as wide. The page lets you switch levels,
+// and its size depends on MAX_WIDTH, not on how long the simulation ran.
+//
+// Even the most detailed level of a long run squeezes many ticks into a column.
+// To see part of it tick by tick, draw just that window of time (exportHtml with
+// 'from' and 'to', or "chart" in the timeline menu): the pyramid is then built
+// over the window only, so a window of up to MAX_WIDTH ticks gets one column per tick.
+public class GanttRenderer {
+
+    // The most detailed level has at most this many pixel columns
+    static final int MAX_WIDTH = 2048;
+    // We stop making smaller levels once they get this narrow
+    static final int MIN_WIDTH = 64;
+
+    // One pixel column of one level
+    private static class Column {
+        long start;          // first tick in this column
+        long end;            // one past the last tick in this column
+        int dominant;        // the process (PidTable id) that ran the most in it (IDLE if nothing ran)
+        long dominant_ticks; // how many ticks that process ran
+        long busy_ticks;     // how many ticks anything ran
+    }
+
+
+    /**
+     * Writes 'gantt_chart_log' to 'filename' as a self-contained HTML page.
+     */
+    public static void exportHtml(GanttLog gantt_chart_log, String filename) throws IOException {
+        exportHtml(gantt_chart_log, filename, 0, gantt_chart_log.size());
+    }
+
+    /**
+     * Writes only the ticks [from, to) of 'gantt_chart_log' to 'filename', so a
+     * short window of a long run can be seen at full resolution.
+     */
+    public static void exportHtml(GanttLog gantt_chart_log, String filename, int from, int to) throws IOException {
+        if (from < 0 || to > gantt_chart_log.size() || from >= to) {
+            throw new IllegalArgumentException("The window " + from + "-" + to
+                + " is not inside the " + gantt_chart_log.size() + " ticks of the chart");
+        }
+        List<Column[]> levels = buildPyramid(gantt_chart_log, from, to);
+
+        // UTF-8, like the page says it is (PIDs can have any characters in them)
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(filename), StandardCharsets.UTF_8))) {
+            out.println("<!DOCTYPE html>");
+            out.println("<html><head><meta charset=\"utf-8\"><title>Gantt Chart</title>");
+            out.println("<style>body{font-family:sans-serif} svg{width:100%;height:90px;display:none}"
+                + " svg.shown{display:block}</style></head><body>");
+            if (from == 0 && to == gantt_chart_log.size()) {
+                out.println("<h2>Gantt Chart (" + gantt_chart_log.size() + " ticks)</h2>");
+            } else {
+                out.println("<h2>Gantt Chart, ticks " + from + "-" + to + " of " + gantt_chart_log.size() + "</h2>");
+            }
+
+            // A drop-down to pick the level of detail
+            out.println("<label>Detail: <select onchange=\"show(this.value)\">");
+            for (int level = 0; level < levels.size(); level++) {
+                out.println("<option value=\"" + level + "\">" + levels.get(level).length + " columns</option>");
+            }
+            out.println("</select></label>");
+
+            for (int level = 0; level < levels.size(); level++) {
+                writeLevel(out, levels.get(level), level);
+            }
+
+            out.println("<p>Top bar: the process that ran the most in each column (grey = idle)."
+                + " Bottom bar: CPU utilization. Hover over a column for details.</p>");
+            out.println("<script>function show(l){document.querySelectorAll('svg').forEach("
+                + "function(s){s.classList.toggle('shown',s.id=='level'+l)})}</script>");
+            out.println("</body></html>");
+        }
+    }
+
+
+    // Builds every level for the ticks [from, to), most detailed first
+    private static List<Column[]> buildPyramid(GanttLog gantt_chart_log, int from, int to) {
+        List<Column[]> levels = new ArrayList<>();
+        long total_ticks = to - from;
+        int width = (int) Math.max(1, Math.min(MAX_WIDTH, total_ticks));
+
+        // --- The most detailed level: read the log once, column by column ---
+        Column[] base = new Column[width];
+        // counts[id] = how long process 'id' ran in the current column
+        long[] counts = new long[PidTable.size()];
+        int tick = from;
+        for (int c = 0; c < width; c++) {
+            Column column = new Column();
+            column.start = from + total_ticks * c / width;
+            column.end = from + total_ticks * (c + 1) / width;
+            column.dominant = PidTable.IDLE;
+
+            // count how long each process ran inside this column
+            int first_tick = tick;
+            for (; tick < column.end; tick++) {
+                int id = gantt_chart_log.get(tick);
+                if (id != PidTable.IDLE) {
+                    column.busy_ticks++;
+                    counts[id]++;
+                    if (counts[id] > column.dominant_ticks) {
+                        column.dominant = id;
+                        column.dominant_ticks = counts[id];
+                    }
+                }
+            }
+            // reset only the counts we touched, ready for the next column
+            for (int t = first_tick; t < column.end; t++) {
+                counts[gantt_chart_log.get(t)] = 0;
+            }
+            base[c] = column;
+        }
+        levels.add(base);
+
+        // --- Every other level: merge pairs of columns from the level below ---
+        // (The winner of a merged column is whichever half's winner ran longer.
+        // That's a close guess rather than an exact count, but it's cheap.)
+        Column[] below = base;
+        while (below.length > MIN_WIDTH) {
+            Column[] level = new Column[(below.length + 1) / 2];
+            for (int c = 0; c < level.length; c++) {
+                Column left = below[2 * c];
+                Column right = 2 * c + 1 < below.length ? below[2 * c + 1] : null;
+                Column column = new Column();
+                column.start = left.start;
+                column.end = right == null ? left.end : right.end;
+                column.busy_ticks = left.busy_ticks + (right == null ? 0 : right.busy_ticks);
+                Column winner = right != null && right.dominant_ticks > left.dominant_ticks ? right : left;
+                column.dominant = winner.dominant;
+                column.dominant_ticks = winner.dominant_ticks;
+                level[c] = column;
+            }
+            levels.add(level);
+            below = level;
+        }
+        return levels;
+    }
+
+
+    // Writes one level as an SVG. Neighbouring columns with the same process
+    // are drawn as one rectangle to keep the file small.
+    private static void writeLevel(PrintWriter out, Column[] columns, int level) {
+        out.println("<svg id=\"level" + level + "\"" + (level == 0 ? " class=\"shown\"" : "")
+            + " viewBox=\"0 0 " + columns.length + " 90\" preserveAspectRatio=\"none\">");
+
+        int c = 0;
+        while (c < columns.length) {
+            int first = c;
+            while (c + 1 < columns.length && columns[c + 1].dominant == columns[first].dominant) {
+                c++;
+            }
+            out.printf("<rect x=\"%d\" y=\"0\" width=\"%d\" height=\"50\" fill=\"%s\"><title>%s (%d-%d)</title></rect>\n",
+                first, c - first + 1, color(columns[first].dominant),
+                escape(PidTable.name(columns[first].dominant)), columns[first].start, columns[c].end);
+            c++;
+        }
+
+        // the utilization bar: a taller bar means a busier CPU
+        // (neighbouring columns with the same percentage are drawn as one rectangle too)
+        int i = 0;
+        while (i < columns.length) {
+            int first = i;
+            long percent = utilizationPercent(columns[first]);
+            while (i + 1 < columns.length && utilizationPercent(columns[i + 1]) == percent) {
+                i++;
+            }
+            double height = 35 * percent / 100.0;
+            out.printf("<rect x=\"%d\" y=\"%.1f\" width=\"%d\" height=\"%.1f\" fill=\"#4a4\">"
+                + "<title>%d-%d: %d%% busy</title></rect>\n",
+                first, 90 - height, i - first + 1, height, columns[first].start, columns[i].end, percent);
+            i++;
+        }
+        out.println("</svg>");
+    }
+
+    private static long utilizationPercent(Column column) {
+        long ticks = column.end - column.start;
+        return ticks == 0 ? 0 : Math.round(100.0 * column.busy_ticks / ticks);
+    }
+
+    // Every process gets its own colour (picked from a hash of its PID)
+    private static String color(int id) {
+        if (id == PidTable.IDLE) {
+            return "#ccc";
+        }
+        int hue = Math.floorMod(PidTable.name(id).hashCode() * 137, 360);
+        return "hsl(" + hue + ",65%,55%)";
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
@@ -12,6 +12,11 @@ public class InputParser {
      * PID, ArrivalTime, BurstTime, Priority
      * P1, 0, 5, 2
      * P2, 1, 3, 1
+     * * Two more columns are optional, for the real-time schedulers:
+     * PID, ArrivalTime, BurstTime, Priority, Deadline, Period
+     * T1, 0, 1, 1, 4, 4
+     * (Deadline is relative to the arrival time. 0 or missing means "not set".)
+     * Lines with a negative deadline or period are skipped.
      */
     public static List<Process> loadProcesses(String filename) {
 
@@ -19,7 +24,9 @@ public class InputParser {
         List<Process> processes = new ArrayList<>();
 
         // use a Scanner to read the file, line by line.
-        try (Scanner scanner = new Scanner(new File(filename))) {
+        // (always as UTF-8, so PIDs with non-ASCII characters, like the ones
+        // TraceImporter writes, don't depend on the platform's default charset)
+        try (Scanner scanner = new Scanner(new File(filename), "UTF-8")) {
             
             // keep reading the file as long as there's another line
             while (scanner.hasNextLine()) {
@@ -45,9 +52,19 @@ public class InputParser {
                     int at = Integer.parseInt(parts[1].trim()); // part 1 is Arrival Time
                     int bt = Integer.parseInt(parts[2].trim()); // part 2 is Burst Time
                     int pri = Integer.parseInt(parts[3].trim()); // part 3 is Priority
+                    // parts 4 and 5 (Deadline and Period) are optional
+                    int dl = parts.length > 4 ? Integer.parseInt(parts[4].trim()) : 0;
+                    int per = parts.length > 5 ? Integer.parseInt(parts[5].trim()) : 0;
+
+                    // a negative deadline or period makes no sense (and a negative
+                    // period would make the real-time schedulers release jobs forever)
+                    if (dl < 0 || per < 0) {
+                        System.err.println("Skipping line with a negative deadline or period: " + line);
+                        continue;
+                    }
                     
                     // create the new Process object and add it to our main list
-                    processes.add(new Process(pid, at, bt, pri));
+                    processes.add(new Process(pid, at, bt, pri, dl, per));
                     
                 } catch (NumberFormatException e) {
                     // this "catches" an error if 'parseInt' fails (e.g., if burst time was "abc")
@@ -1,11 +1,32 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Scanner;
 
 public class Main {
     public static void main(String[] args) {
         
+        // "java Main --offheap workload.txt [store.bin] [--sjf | --priority]" runs FCFS
+        // (or non-preemptive SJF / Priority) on a huge workload kept off the Java heap
+        // (in memory, or mapped from store.bin if given)
+        if (args.length > 0 && args[0].equals("--offheap")) {
+            runOffHeap(args);
+            return;
+        }
+
+        // "java Main --cache [workload.txt]" saves every result in .sim-cache/ and
+        // reads it back when the same run is asked for again (see ResultCache).
+        // Without it, nothing is cached and no files are written.
+        int first_arg = 0;
+        if (args.length > 0 && args[0].equals("--cache")) {
+            ResultCache.enabled = true;
+            first_arg = 1;
+        }
+
         // 1. Load processes from the text file first
-        List<Process> processes = InputParser.loadProcesses("input.txt");
+        // (input.txt, unless another file was given, e.g. "java Main workload.txt")
+        String input_file = args.length > first_arg ? args[first_arg] : "input.txt";
+        List<Process> processes = InputParser.loadProcesses(input_file);
         
         // If the file wasn't found or was empty, we can't do anything.
         if (processes == null || processes.isEmpty()) {
@@ -18,7 +39,7 @@ public class Main {
         int choice;   // This variable will hold the user's menu choice
 
         // Use a "do-while" loop to show the menu at least once
-        // and keep showing it until the user presses 8 (Exit)
+        // and keep showing it until the user presses 19 (Exit)
         do {
             System.out.println("\n--- CPU Scheduling Simulator ---");
             System.out.println("1. First-Come, First-Served (FCFS)");
@@ -28,7 +49,18 @@ public class Main {
             System.out.println("5. Priority (Preemptive)");
             System.out.println("6. Round Robin (RR)");
             System.out.println("7. Multi-Level Queue");
-            System.out.println("8. Exit");
+            System.out.println("8. Earliest-Deadline-First (EDF)");
+            System.out.println("9. Rate-Monotonic (RM)");
+            System.out.println("10. Resume Round Robin from checkpoint");
+            System.out.println("11. What-if analysis (Round Robin)");
+            System.out.println("12. Run on real threads (SchedulingExecutor)");
+            System.out.println("13. Compare all algorithms");
+            System.out.println("14. Query the last run's timeline");
+            System.out.println("15. Predictive SJF / SRTF (guessed bursts)");
+            System.out.println("16. Adaptive Round Robin");
+            System.out.println("17. Multi-CPU simulation on several host threads");
+            System.out.println("18. Multi-Level Queue with your own levels");
+            System.out.println("19. Exit");
             System.out.print("Enter your choice: ");
             
             choice = scanner.nextInt();
@@ -61,14 +93,92 @@ public class Main {
                     Schedulers.runMultiLevelQueue(processes, scanner);
                     break;
                 case 8:
+                    // The real-time schedulers ask how long to simulate the periodic tasks for
+                    Schedulers.runEDF(processes, scanner);
+                    break;
+                case 9:
+                    Schedulers.runRM(processes, scanner);
+                    break;
+                case 10:
+                    // Carry on a Round Robin run from the last checkpoint file
+                    Schedulers.resumeRR(processes, scanner);
+                    break;
+                case 11:
+                    // Re-run Round Robin with added, removed or edited processes
+                    WhatIf.runInteractive(processes, scanner);
+                    break;
+                case 12:
+                    // Run the processes as real tasks under one of the policies
+                    SchedulingExecutor.runOnThreads(processes, scanner);
+                    break;
+                case 13:
+                    // Run every algorithm and compare their waiting and turnaround times
+                    ResultAggregates.runComparison(processes, scanner);
+                    break;
+                case 14:
+                    // Who ran when, utilization and CPU time over any time range
+                    TimelineIndex.runInteractive(Statistics.last_gantt_chart_log, scanner);
+                    break;
+                case 15:
+                    // SJF / SRTF that has to guess the burst times, compared with the real thing
+                    Schedulers.runPredictiveSJF(processes, scanner);
+                    break;
+                case 16:
+                    // Round Robin whose quantum is a percentile of the recently finished bursts
+                    Schedulers.runAdaptiveRR(processes, scanner);
+                    break;
+                case 17:
+                    // Many simulated CPUs, split over this machine's cores
+                    ParallelSimulation.runInteractive(processes, scanner);
+                    break;
+                case 18:
+                    // Any number of levels, each with its own policy, strict or weighted sharing
+                    Schedulers.runConfigurableMLQ(processes, scanner);
+                    break;
+                case 19:
                     System.out.println("Exiting...");
                     break;
                 default:
                     System.out.println("Invalid choice. Try again.");
             } 
-        } while (choice != 8);
+        } while (choice != 19);
 
         // We're done, so close the scanner to free up resources
         scanner.close();
     }
+
+
+    // Loads the workload straight into a WorkloadStore and runs FCFS (the default),
+    // Non-Preemptive SJF (--sjf) or Non-Preemptive Priority (--priority) on it
+    private static void runOffHeap(String[] args) {
+        // everything after the workload file is the backing file or the algorithm
+        String backing_file = null;
+        String algorithm = "--fcfs";
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].startsWith("--")) {
+                algorithm = args[i];
+            } else {
+                backing_file = args[i];
+            }
+        }
+        if (args.length < 2 || !(algorithm.equals("--fcfs") || algorithm.equals("--sjf") || algorithm.equals("--priority"))) {
+            System.out.println("Usage: java Main --offheap <workload file> [backing file] [--fcfs | --sjf | --priority]");
+            return;
+        }
+        try (WorkloadStore store = WorkloadStore.load(args[1], backing_file)) {
+            if (store.size() == 0) {
+                System.out.println("No processes to schedule. Exiting.");
+                return;
+            }
+            if (algorithm.equals("--sjf")) {
+                Schedulers.runSJF_OffHeap(store);
+            } else if (algorithm.equals("--priority")) {
+                Schedulers.runPriority_OffHeap(store);
+            } else {
+                Schedulers.runFCFS_OffHeap(store);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println("Error: Could not read '" + args[1] + "': " + e.getMessage());
+        }
+    }
 }
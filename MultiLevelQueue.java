@@ -0,0 +1,174 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Scanner;
+
+// The set-up of a Multi-Level Queue: which levels there are, which processes go
+// into each one, how each level picks its next process, and how the CPU is shared
+// between the levels.
+//
+// Level 0 is the most important one. A process goes into the first level whose
+// priority range contains its priority (or the last level if none does).
+//
+// Between levels there are two ways to share the CPU:
+//   STRICT   - the highest level with work always runs (and a new arrival in a
+//              higher level preempts a lower one). Low levels can starve.
+//   WEIGHTED - every level gets 'weight' ticks per round. Once a level has used up
+//              its ticks, the other levels with work left in this round go first;
+//              when no waiting level has ticks left, a new round starts.
+// Either way, Schedulers.simulateMultiLevelQueue keeps one bit per level that has
+// work waiting, so finding the level to run is a single numberOfTrailingZeros.
+public class MultiLevelQueue {
+
+    public enum Policy { RR, FCFS, SJF, SRTF }
+
+    public enum Dispatch { STRICT, WEIGHTED }
+
+    // One bit per level in an int
+    public static final int MAX_LEVELS = 32;
+
+    public static class Level {
+        final int min_priority;
+        final int max_priority;
+        final Policy policy;
+        final int time_quantum;   // only used by RR
+        final int weight;         // only used by WEIGHTED
+
+        public Level(int min_priority, int max_priority, Policy policy, int time_quantum, int weight) {
+            this.min_priority = min_priority;
+            this.max_priority = max_priority;
+            this.policy = policy;
+            this.time_quantum = time_quantum;
+            this.weight = weight;
+        }
+
+        // A fresh, empty ready queue that picks processes the way this level's policy does
+        Queue<Process> newQueue() {
+            switch (policy) {
+                case SJF:
+                    return new PriorityQueue<>(Comparator.comparingInt(p -> p.burst_time));
+                case SRTF:
+                    return new PriorityQueue<>(Comparator.comparingInt(p -> p.remaining_burst_time));
+                default:
+                    return new ArrayDeque<>();
+            }
+        }
+
+        // e.g. "<= 2", ">= 3", "3-5"
+        public String range() {
+            if (min_priority == Integer.MIN_VALUE && max_priority == Integer.MAX_VALUE) {
+                return "any";
+            } else if (min_priority == Integer.MIN_VALUE) {
+                return "<= " + max_priority;
+            } else if (max_priority == Integer.MAX_VALUE) {
+                return ">= " + min_priority;
+            }
+            return min_priority + "-" + max_priority;
+        }
+
+        // e.g. "RR (q=4)", "FCFS"
+        public String describe() {
+            return policy == Policy.RR ? "RR (q=" + time_quantum + ")" : policy.name();
+        }
+    }
+
+    final List<Level> levels;
+    final Dispatch dispatch;
+
+    public MultiLevelQueue(List<Level> levels, Dispatch dispatch) {
+        if (levels.isEmpty() || levels.size() > MAX_LEVELS) {
+            throw new IllegalArgumentException("A Multi-Level Queue needs 1 to " + MAX_LEVELS + " levels");
+        }
+        this.levels = levels;
+        this.dispatch = dispatch;
+    }
+
+
+    /**
+     * The original two queues: priority < 3 runs Round Robin, everything else
+     * runs FCFS, and the first queue always goes first.
+     */
+    public static MultiLevelQueue twoLevel(int time_quantum) {
+        List<Level> levels = new ArrayList<>();
+        levels.add(new Level(Integer.MIN_VALUE, 2, Policy.RR, time_quantum, 1));
+        levels.add(new Level(3, Integer.MAX_VALUE, Policy.FCFS, 0, 1));
+        return new MultiLevelQueue(levels, Dispatch.STRICT);
+    }
+
+    public int size() {
+        return levels.size();
+    }
+
+    public Level level(int index) {
+        return levels.get(index);
+    }
+
+    /**
+     * Returns the level a process with this priority goes into.
+     */
+    public int levelOf(int priority) {
+        for (int l = 0; l < levels.size(); l++) {
+            Level level = levels.get(l);
+            if (priority >= level.min_priority && priority <= level.max_priority) {
+                return l;
+            }
+        }
+        return levels.size() - 1;
+    }
+
+
+    /**
+     * Asks the user for the levels, one line each, and how to share the CPU.
+     * Returns null (after saying why) if the answers don't make sense.
+     */
+    public static MultiLevelQueue readFrom(Scanner scanner) {
+        System.out.print("\nEnter the number of levels (1-" + MAX_LEVELS + "): ");
+        int count = scanner.nextInt();
+        if (count < 1 || count > MAX_LEVELS) {
+            System.out.println("Error: The number of levels must be between 1 and " + MAX_LEVELS + ".");
+            return null;
+        }
+        System.out.print("Share the CPU between levels by STRICT priority or WEIGHTED fair share? ");
+        Dispatch dispatch;
+        try {
+            dispatch = Dispatch.valueOf(scanner.next().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: Please enter STRICT or WEIGHTED.");
+            return null;
+        }
+
+        System.out.println("Level 0 is the most important. Processes go into the first level whose range has their priority.");
+        List<Level> levels = new ArrayList<>();
+        for (int l = 0; l < count; l++) {
+            System.out.print("Level " + l + " - lowest priority, highest priority, policy (RR/FCFS/SJF/SRTF): ");
+            int min_priority = scanner.nextInt();
+            int max_priority = scanner.nextInt();
+            Policy policy;
+            try {
+                policy = Policy.valueOf(scanner.next().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.out.println("Error: The policy must be RR, FCFS, SJF or SRTF.");
+                return null;
+            }
+            int time_quantum = 0;
+            if (policy == Policy.RR) {
+                System.out.print("  Time Quantum for level " + l + ": ");
+                time_quantum = scanner.nextInt();
+            }
+            int weight = 1;
+            if (dispatch == Dispatch.WEIGHTED) {
+                System.out.print("  CPU weight for level " + l + " (ticks per round): ");
+                weight = scanner.nextInt();
+            }
+            if (min_priority > max_priority || (policy == Policy.RR && time_quantum <= 0) || weight <= 0) {
+                System.out.println("Error: The range must not be empty, and the quantum and weight must be positive.");
+                return null;
+            }
+            levels.add(new Level(min_priority, max_priority, policy, time_quantum, weight));
+        }
+        return new MultiLevelQueue(levels, dispatch);
+    }
+}
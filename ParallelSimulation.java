@@ -0,0 +1,306 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+// Simulates a machine with many CPUs, using several host threads at once.
+//
+// Every simulated CPU has its own Round Robin ready queue. A process starts on a
+// "home" CPU (process k in arrival order goes to CPU k % cpus), and a load balancer
+// moves waiting processes from busy CPUs to quiet ones.
+//
+// The CPUs are split into groups ("partitions"), and each partition runs on its own
+// host thread. Within a time window of 'window' ticks the CPUs don't affect each
+// other at all, so every partition can simulate its window without waiting for the
+// others. At the end of a window they all meet at a barrier. Each CPU has published
+// its load, and the barrier action (run by one thread while everyone else waits)
+// pairs the busiest CPUs with the quietest ones and moves a waiting process across
+// right there. Nothing else is running at that moment, so the moves need no locks.
+// They happen in a fixed order, and they are based on the loads at the very end of
+// the window they take effect after (there is no window of delay). So the
+// result doesn't depend on how the CPUs were split up or which thread got there
+// first: 1 host thread and 16 give the same answer.
+public class ParallelSimulation {
+
+    // One simulated CPU
+    private static class Cpu {
+        final int index;
+        final ArrayDeque<Process> ready_queue = new ArrayDeque<>();
+        Process currently_running_process = null;
+
+        // the processes whose home is this CPU, in arrival order
+        final List<Process> arrivals = new ArrayList<>();
+        int arrival_cursor = 0;
+
+        long busy_ticks = 0;
+        int completed = 0;
+        int migrations_in = 0;
+        int migrations_out = 0;
+
+        Cpu(int index) {
+            this.index = index;
+        }
+
+        int load() {
+            return ready_queue.size() + (currently_running_process == null ? 0 : 1);
+        }
+    }
+
+    /**
+     * Everything a run produced: the per-CPU counters and the total time.
+     * (The processes themselves hold their completion/waiting/turnaround times.)
+     */
+    static class Result {
+        int total_time;
+        long[] busy_ticks;
+        int[] completed;
+        int[] migrations_in;
+        int[] migrations_out;
+        long wall_nanos;
+    }
+
+    private final List<Process> processes;
+    private final int time_quantum;
+    private final int window;
+    private final Cpu[] cpus;
+
+    // Shared between the threads, but only written while everyone is at the barrier
+    // (or by a CPU's owner before it arrives there), so the barrier keeps it safe
+    private final int[] published_load;
+    private final int[] completed_so_far;
+    // the CPUs sorted by load, as (load << 32 | cpu) so a plain long sort does it
+    private final long[] load_order;
+    private int window_start = 0;
+    private boolean finished = false;
+
+
+    private ParallelSimulation(List<Process> processes, int cpu_count, int time_quantum, int window) {
+        this.processes = processes;
+        this.time_quantum = time_quantum;
+        this.window = window;
+        this.cpus = new Cpu[cpu_count];
+        for (int c = 0; c < cpu_count; c++) {
+            cpus[c] = new Cpu(c);
+        }
+        published_load = new int[cpu_count];
+        completed_so_far = new int[cpu_count];
+        load_order = new long[cpu_count];
+
+        // reset the processes and give each one its home CPU
+        List<Process> arrival_order = new ArrayList<>(processes);
+        for (Process p : arrival_order) {
+            p.remaining_burst_time = p.burst_time;
+            p.completion_time = 0;
+            p.waiting_time = 0;
+            p.turnaround_time = 0;
+            p.current_quantum = 0;
+        }
+        Collections.sort(arrival_order);
+        for (int k = 0; k < arrival_order.size(); k++) {
+            cpus[k % cpu_count].arrivals.add(arrival_order.get(k));
+        }
+    }
+
+
+    /**
+     * Simulates 'processes' on 'cpu_count' CPUs (Round Robin with 'time_quantum' on
+     * each), using 'host_threads' threads and synchronising every 'window' ticks.
+     */
+    public static Result simulate(List<Process> processes, int cpu_count, int time_quantum,
+                                  int window, int host_threads) throws InterruptedException {
+        ParallelSimulation simulation = new ParallelSimulation(processes, cpu_count, time_quantum, window);
+        return simulation.run(Math.max(1, Math.min(host_threads, cpu_count)));
+    }
+
+    private Result run(int partitions) throws InterruptedException {
+        long start_nanos = System.nanoTime();
+        CyclicBarrier barrier = new CyclicBarrier(partitions, this::endOfWindow);
+
+        // Partition k simulates CPUs [first[k], first[k + 1])
+        int[] first = new int[partitions + 1];
+        for (int k = 0; k <= partitions; k++) {
+            first[k] = (int) ((long) cpus.length * k / partitions);
+        }
+
+        Thread[] threads = new Thread[partitions];
+        Throwable[] failure = new Throwable[1];
+        for (int k = 0; k < partitions; k++) {
+            int from = first[k];
+            int to = first[k + 1];
+            threads[k] = new Thread(() -> {
+                try {
+                    runPartition(from, to, barrier);
+                } catch (InterruptedException | BrokenBarrierException e) {
+                    // another partition failed; it reports the real problem
+                } catch (RuntimeException | Error e) {
+                    synchronized (failure) {
+                        failure[0] = e;
+                    }
+                    barrier.reset();   // wake the others up so they stop too
+                }
+            }, "partition-" + k);
+            threads[k].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (failure[0] != null) {
+            throw new IllegalStateException("Parallel simulation failed", failure[0]);
+        }
+
+        Result result = new Result();
+        result.busy_ticks = new long[cpus.length];
+        result.completed = new int[cpus.length];
+        result.migrations_in = new int[cpus.length];
+        result.migrations_out = new int[cpus.length];
+        for (Cpu cpu : cpus) {
+            result.busy_ticks[cpu.index] = cpu.busy_ticks;
+            result.completed[cpu.index] = cpu.completed;
+            result.migrations_in[cpu.index] = cpu.migrations_in;
+            result.migrations_out[cpu.index] = cpu.migrations_out;
+        }
+        for (Process p : processes) {
+            result.total_time = Math.max(result.total_time, p.completion_time);
+        }
+        result.wall_nanos = System.nanoTime() - start_nanos;
+        return result;
+    }
+
+
+    // The loop each host thread runs: one window at a time until every process is done
+    private void runPartition(int from, int to, CyclicBarrier barrier)
+            throws InterruptedException, BrokenBarrierException {
+        while (!finished) {
+            int start = window_start;
+            int end = start + window;
+            for (int c = from; c < to; c++) {
+                Cpu cpu = cpus[c];
+                for (int current_time = start; current_time < end; current_time++) {
+                    tick(cpu, current_time);
+                }
+                published_load[c] = cpu.load();
+                completed_so_far[c] = cpu.completed;
+            }
+            barrier.await();
+        }
+    }
+
+    // One tick of one CPU (the same steps as Schedulers.simulateRR)
+    private void tick(Cpu cpu, int current_time) {
+
+        // a. Check for new arrivals
+        while (cpu.arrival_cursor < cpu.arrivals.size()
+               && cpu.arrivals.get(cpu.arrival_cursor).arrival_time <= current_time) {
+            cpu.ready_queue.add(cpu.arrivals.get(cpu.arrival_cursor++));
+        }
+
+        // b. SCHEDULER LOGIC (RR)
+        if (cpu.currently_running_process == null && !cpu.ready_queue.isEmpty()) {
+            cpu.currently_running_process = cpu.ready_queue.poll();
+            cpu.currently_running_process.current_quantum = 0;
+        }
+
+        // c. RUN THE PROCESS
+        Process running = cpu.currently_running_process;
+        if (running != null) {
+            cpu.busy_ticks++;
+            running.remaining_burst_time--;
+            running.current_quantum++;
+
+            if (running.remaining_burst_time == 0) {
+                int completion = current_time + 1;
+                running.completion_time = completion;
+                running.turnaround_time = completion - running.arrival_time;
+                running.waiting_time = running.turnaround_time - running.burst_time;
+                cpu.completed++;
+                cpu.currently_running_process = null;
+            } else if (running.current_quantum == time_quantum) {
+                cpu.ready_queue.add(running);
+                cpu.currently_running_process = null;
+            }
+        }
+    }
+
+
+    // Runs once per window, in one thread, while all the others wait at the barrier
+    private void endOfWindow() {
+        int total_completed = 0;
+        for (int count : completed_so_far) {
+            total_completed += count;
+        }
+        if (total_completed == processes.size()) {
+            finished = true;
+            return;
+        }
+        window_start += window;
+
+        // Load balancing: pair the busiest CPUs with the quietest ones. A pair only
+        // migrates if the busy one has at least 2 more processes than the quiet one,
+        // and then the busy one's last waiting process moves to the quiet one's queue.
+        // Sorting (load, cpu) packed into a long gives the same order as sorting by
+        // load and then by CPU number, without boxing every CPU number.
+        for (int c = 0; c < cpus.length; c++) {
+            load_order[c] = (long) published_load[c] << 32 | c;
+        }
+        Arrays.sort(load_order);
+        for (int i = 0, j = cpus.length - 1; i < j; i++, j--) {
+            Cpu quiet = cpus[(int) load_order[i]];
+            Cpu busy = cpus[(int) load_order[j]];
+            if (published_load[busy.index] - published_load[quiet.index] >= 2 && !busy.ready_queue.isEmpty()) {
+                quiet.ready_queue.add(busy.ready_queue.pollLast());
+                busy.migrations_out++;
+                quiet.migrations_in++;
+            }
+        }
+    }
+
+
+    /**
+     * Asks for the machine's size, runs it with 1 host thread and then with several,
+     * checks both gave exactly the same results, and prints the speed-up.
+     */
+    public static void runInteractive(List<Process> processes, Scanner scanner) {
+        System.out.print("\nEnter the number of simulated CPUs: ");
+        int cpu_count = scanner.nextInt();
+        System.out.print("Enter the Time Quantum for each CPU's Round Robin: ");
+        int time_quantum = scanner.nextInt();
+        System.out.print("Enter the synchronisation window in ticks: ");
+        int window = scanner.nextInt();
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.print("Enter the number of host threads (this machine has " + cores + " cores): ");
+        int host_threads = scanner.nextInt();
+        if (cpu_count < 1 || time_quantum < 1 || window < 1 || host_threads < 1) {
+            System.out.println("Error: All of these must be positive.");
+            return;
+        }
+
+        try {
+            System.out.println("Running on " + cpu_count + " CPUs with 1 host thread...");
+            Result sequential = simulate(processes, cpu_count, time_quantum, window, 1);
+            int[] sequential_completion = new int[processes.size()];
+            for (int i = 0; i < sequential_completion.length; i++) {
+                sequential_completion[i] = processes.get(i).completion_time;
+            }
+
+            System.out.println("Running on " + cpu_count + " CPUs with " + host_threads + " host threads...");
+            Result parallel = simulate(processes, cpu_count, time_quantum, window, host_threads);
+            boolean identical = sequential.total_time == parallel.total_time
+                && Arrays.equals(sequential.migrations_in, parallel.migrations_in);
+            for (int i = 0; i < sequential_completion.length; i++) {
+                identical &= sequential_completion[i] == processes.get(i).completion_time;
+            }
+
+            Statistics.printMultiCpuResults(processes, parallel);
+            System.out.println("Same results as with 1 host thread: " + (identical ? "yes" : "NO"));
+            System.out.printf("Wall time: %.1f ms with 1 thread, %.1f ms with %d (speed-up %.2fx)\n",
+                sequential.wall_nanos / 1e6, parallel.wall_nanos / 1e6, host_threads,
+                (double) sequential.wall_nanos / Math.max(1, parallel.wall_nanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// The "symbol table" for process IDs.
+//
+// Every PID string is turned into a small number (its "id") once, when the process
+// is created: "P1" -> 1, "P2" -> 2, and so on. The schedulers, the Gantt log and the
+// reports only ever work with these numbers, which is much cheaper than comparing
+// and storing strings, and we only turn an id back into its string when we print it.
+//
+// Id 0 is always "[IDLE]", so the Gantt log can store "nothing was running" as 0.
+public class PidTable {
+
+    public static final int IDLE = 0;
+    public static final String IDLE_NAME = "[IDLE]";
+
+    private static final List<String> names = new ArrayList<>();
+    private static final Map<String, Integer> ids = new HashMap<>();
+
+    // rank[id] = where that PID comes in "natural" order (see compareNatural).
+    // It's worked out again only when new PIDs were added since the last time.
+    private static int[] rank = new int[0];
+
+    static {
+        intern(IDLE_NAME);
+    }
+
+
+    /**
+     * Returns the id for 'pid', giving it the next free id if it's new.
+     */
+    public static synchronized int intern(String pid) {
+        Integer id = ids.get(pid);
+        if (id == null) {
+            id = names.size();
+            names.add(pid);
+            ids.put(pid, id);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the id of 'pid' without adding it, or -1 if it has never been seen.
+     */
+    public static synchronized int find(String pid) {
+        Integer id = ids.get(pid);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Turns an id back into the PID string (only needed for output).
+     */
+    public static synchronized String name(int id) {
+        return names.get(id);
+    }
+
+    // How many ids have been handed out so far (including IDLE)
+    public static synchronized int size() {
+        return names.size();
+    }
+
+
+    /**
+     * Returns the rank array: sorting by rank[id] puts PIDs in natural order,
+     * so "P2" comes before "P10". Don't change the returned array.
+     */
+    public static synchronized int[] ranks() {
+        if (rank.length != names.size()) {
+            Integer[] order = new Integer[names.size()];
+            for (int id = 0; id < order.length; id++) {
+                order[id] = id;
+            }
+            Arrays.sort(order, (a, b) -> compareNatural(names.get(a), names.get(b)));
+            rank = new int[order.length];
+            for (int position = 0; position < order.length; position++) {
+                rank[order[position]] = position;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Compares two PIDs the way a person would: runs of digits are compared as
+     * numbers, so "P2" < "P10" and "T1#2" < "T1#10". Everything else is
+     * compared character by character.
+     */
+    static int compareNatural(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            char ca = a.charAt(i);
+            char cb = b.charAt(j);
+            if (Character.isDigit(ca) && Character.isDigit(cb)) {
+                // find the end of both numbers
+                int end_a = i;
+                while (end_a < a.length() && Character.isDigit(a.charAt(end_a))) {
+                    end_a++;
+                }
+                int end_b = j;
+                while (end_b < b.length() && Character.isDigit(b.charAt(end_b))) {
+                    end_b++;
+                }
+                // skip leading zeros, then the longer number is the bigger one
+                int start_a = i;
+                while (start_a < end_a - 1 && a.charAt(start_a) == '0') {
+                    start_a++;
+                }
+                int start_b = j;
+                while (start_b < end_b - 1 && b.charAt(start_b) == '0') {
+                    start_b++;
+                }
+                int length_a = end_a - start_a;
+                int length_b = end_b - start_b;
+                if (length_a != length_b) {
+                    return Integer.compare(length_a, length_b);
+                }
+                // same length: compare digit by digit
+                for (int k = 0; k < length_a; k++) {
+                    int diff = a.charAt(start_a + k) - b.charAt(start_b + k);
+                    if (diff != 0) {
+                        return diff;
+                    }
+                }
+                i = end_a;
+                j = end_b;
+            } else {
+                if (ca != cb) {
+                    return Character.compare(ca, cb);
+                }
+                i++;
+                j++;
+            }
+        }
+        // one is a prefix of the other: the shorter one goes first
+        int diff = (a.length() - i) - (b.length() - j);
+        return diff != 0 ? diff : a.compareTo(b);
+    }
+}
@@ -4,11 +4,16 @@
 public class Process implements Comparable<Process> {
     
     // These variables hold the data we read from the text file
-    String pid; // the process ID
+    int id; // the process ID, as its number in PidTable (use pid() to get the string back)
     int arrival_time; // when the process enters the system
     int burst_time; // the total CPU time needed by the process
     int priority; // the priority of the process (lower number = higher priority) 
 
+    // These two are optional (0 means "not set") and are only used by the real-time schedulers
+    int deadline; // how many ticks after arrival the process must be finished by
+    int period; // for periodic tasks: a new job is released every 'period' ticks
+    int job; // for one job of a periodic task: which job it is (1, 2, 3, ...), otherwise 0
+
     // --- FOR SCHEDULER USE ---
     // These variables are used by the schedulers while the simulation is running
 
@@ -20,6 +25,10 @@ public class Process implements Comparable<Process> {
     int waiting_time = 0;    // Total time spent waiting in the ready queue
     int turnaround_time = 0; // Total time from arrival to completion
     
+    // This is for the predictive SJF / SRTF: the burst time the scheduler *guessed*
+    // when the process arrived (it doesn't get to see the real burst_time)
+    double predicted_burst = 0;
+
     // This variable is for Round Robin
     // It tracks how long the process has been running in its current "turn"
     int current_quantum = 0;
@@ -27,9 +36,10 @@ public class Process implements Comparable<Process> {
     // This is the "constructor" - it's used to create a new Process object
     public Process(String pid, int arrival_time, int burst_time, int priority) {
 
-        // "this.pid" refers to the variable for *this specific object*
-        // The "pid" on the right is the value passed into the function
-        this.pid = pid;
+        // "this.id" refers to the variable for *this specific object*
+        // The PID string is turned into a number once, here, so the schedulers
+        // never have to store or compare strings
+        this.id = PidTable.intern(pid);
         this.arrival_time = arrival_time;
         this.burst_time = burst_time;
         this.priority = priority;
@@ -38,6 +48,38 @@ public class Process implements Comparable<Process> {
         this.remaining_burst_time = burst_time;
     }
 
+    // This constructor is for real-time processes that also have a deadline and/or a period
+    public Process(String pid, int arrival_time, int burst_time, int priority, int deadline, int period) {
+        this(pid, arrival_time, burst_time, priority);
+        this.deadline = deadline;
+        this.period = period;
+    }
+
+    // This constructor makes one job of a periodic task. The job keeps the task's
+    // PID (so releasing a job never adds a new PID to PidTable), and 'job' says
+    // which of the task's jobs it is.
+    public Process(Process task, int job, int release_time) {
+        this.id = task.id;
+        this.job = job;
+        this.arrival_time = release_time;
+        this.burst_time = task.burst_time;
+        this.priority = task.priority;
+        this.deadline = task.deadline;
+        this.period = task.period;
+        this.remaining_burst_time = task.burst_time;
+    }
+
+    // The process ID as a string (only needed when printing)
+    public String pid() {
+        return PidTable.name(id);
+    }
+
+    // The name to print in a results table: the PID, and for a job of a
+    // periodic task also which job it is, like "T1#3"
+    public String label() {
+        return job == 0 ? pid() : pid() + "#" + job;
+    }
+
     // This function is required by the "Comparable" interface
     // It tells Java how to sort a list of processes.
     // We want to sort them by their arrival_time.
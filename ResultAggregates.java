@@ -0,0 +1,227 @@
+import java.util.List;
+import java.util.Scanner;
+
+// Summary statistics (sum, min, max, mean, variance and how many are over a
+// threshold) of a column of results, like every process's waiting time.
+//
+// The results are first copied out of the Process objects into plain int arrays
+// ("columns"), because walking an int array is far faster than following a
+// reference to a different object for every process. The loops below are kept
+// simple on purpose (one counted loop over an int array, no method calls or
+// branches the JIT can't turn into min/max instructions), so the JIT compiler can
+// unroll them and use SIMD instructions where the hardware has them.
+// When Java is started with --add-modules jdk.incubator.vector, the min / max /
+// count loops use the Vector API instead (see VectorAggregates), so they are SIMD
+// for sure; the plain loops then only do the last few values of each block.
+//
+// compare() does several algorithms' columns at once, a block at a time, so each
+// block is read from memory once and then stays in the cache while we go over it.
+public class ResultAggregates {
+
+    // 4096 ints per column = 16 KB, so a block of a few columns fits in the cache
+    static final int BLOCK = 4096;
+
+    // Use the Vector API when it's there (the tests switch it off to compare)
+    static boolean use_vector_api = VectorAggregates.available();
+
+    long count = 0;
+    long sum = 0;
+    // the sum of (value - mean)^2 over every value so far. (A long sum of the
+    // squares themselves would overflow: 2,000,000^2 is already 4 * 10^12.)
+    double squared_deviations = 0;
+    int min = Integer.MAX_VALUE;
+    int max = Integer.MIN_VALUE;
+    long above_threshold = 0;   // how many values were > the threshold
+
+    public double mean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    // Population variance: the mean of the squared deviations
+    public double variance() {
+        return count == 0 ? 0 : squared_deviations / count;
+    }
+
+    public double standardDeviation() {
+        return Math.sqrt(variance());
+    }
+
+
+    /**
+     * Summarises one column of results.
+     */
+    public static ResultAggregates of(int[] column, int threshold) {
+        ResultAggregates result = new ResultAggregates();
+        result.add(column, 0, column.length, threshold);
+        return result;
+    }
+
+    // Adds column[start..end) to the totals. Each loop does one simple job, which
+    // is the shape the JIT compiler knows how to vectorize; the block is still in
+    // the cache for the second and third loops.
+    private void add(int[] column, int start, int end, int threshold) {
+        int block_min = min;
+        int block_max = max;
+        int block_above = 0;
+        int i = start;
+        if (use_vector_api) {
+            int[] vector_part = new int[3];
+            i = VectorAggregates.minMaxAbove(column, start, end, threshold, vector_part);
+            block_min = Math.min(block_min, vector_part[0]);
+            block_max = Math.max(block_max, vector_part[1]);
+            block_above = vector_part[2];
+        }
+        for (; i < end; i++) {
+            int value = column[i];
+            block_min = Math.min(block_min, value);
+            block_max = Math.max(block_max, value);
+            block_above += value > threshold ? 1 : 0;
+        }
+
+        long block_sum = 0;
+        for (i = start; i < end; i++) {
+            block_sum += column[i];
+        }
+
+        // the block's own squared deviations, from the block's mean (in double,
+        // so nothing overflows, and small because they're taken from the mean)
+        int block_count = end - start;
+        double block_mean = block_count == 0 ? 0 : (double) block_sum / block_count;
+        double block_deviations = 0;
+        for (i = start; i < end; i++) {
+            double deviation = column[i] - block_mean;
+            block_deviations += deviation * deviation;
+        }
+
+        // and merged with the totals so far (Chan et al.'s formula for combining two
+        // groups: the deviations of each, plus how far apart their means are)
+        if (block_count > 0) {
+            double mean_difference = block_mean - mean();
+            squared_deviations += block_deviations
+                + mean_difference * mean_difference * ((double) count * block_count / (count + block_count));
+        }
+        count += block_count;
+        sum += block_sum;
+        min = block_min;
+        max = block_max;
+        above_threshold += block_above;
+    }
+
+
+    /**
+     * Summarises the same column (e.g. waiting time) for several algorithms in one
+     * pass over the data. columns[a][i] is process i's value under algorithm a.
+     * best_counts[a] is set to how many processes did best (lowest value, ties
+     * included) under algorithm a.
+     */
+    public static ResultAggregates[] compare(int[][] columns, int threshold, long[] best_counts) {
+        int algorithms = columns.length;
+        int n = algorithms == 0 ? 0 : columns[0].length;
+        ResultAggregates[] results = new ResultAggregates[algorithms];
+        for (int a = 0; a < algorithms; a++) {
+            if (columns[a].length != n) {
+                throw new IllegalArgumentException("Every column needs " + n + " values");
+            }
+            results[a] = new ResultAggregates();
+            best_counts[a] = 0;
+        }
+
+        int[] best = new int[BLOCK];
+        for (int start = 0; start < n; start += BLOCK) {
+            int end = Math.min(n, start + BLOCK);
+
+            // 1. the totals for each algorithm over this block
+            for (int a = 0; a < algorithms; a++) {
+                results[a].add(columns[a], start, end, threshold);
+            }
+
+            // 2. the best value of each process in this block (still in the cache)
+            System.arraycopy(columns[0], start, best, 0, end - start);
+            for (int a = 1; a < algorithms; a++) {
+                int[] column = columns[a];
+                int i = use_vector_api ? VectorAggregates.minInto(best, column, start, end) : start;
+                for (; i < end; i++) {
+                    best[i - start] = Math.min(best[i - start], column[i]);
+                }
+            }
+            long[] vector_wins = new long[1];
+            for (int a = 0; a < algorithms; a++) {
+                int[] column = columns[a];
+                long wins = 0;
+                int i = start;
+                if (use_vector_api) {
+                    i = VectorAggregates.countEqual(column, best, start, end, vector_wins);
+                    wins = vector_wins[0];
+                }
+                for (; i < end; i++) {
+                    wins += column[i] == best[i - start] ? 1 : 0;
+                }
+                best_counts[a] += wins;
+            }
+        }
+        return results;
+    }
+
+
+    // --- Columns from Process objects ---
+
+    public static int[] waitingTimes(List<Process> processes) {
+        int[] column = new int[processes.size()];
+        for (int i = 0; i < column.length; i++) {
+            column[i] = processes.get(i).waiting_time;
+        }
+        return column;
+    }
+
+    public static int[] turnaroundTimes(List<Process> processes) {
+        int[] column = new int[processes.size()];
+        for (int i = 0; i < column.length; i++) {
+            column[i] = processes.get(i).turnaround_time;
+        }
+        return column;
+    }
+
+
+    /**
+     * Runs every (non real-time) algorithm on the workload without printing each
+     * result, then prints one table comparing their waiting and turnaround times.
+     */
+    public static void runComparison(List<Process> processes, Scanner scanner) {
+        System.out.print("\nEnter the Time Quantum for RR and MLQ: ");
+        int time_quantum = scanner.nextInt();
+        System.out.print("Enter the waiting time threshold (count processes waiting longer): ");
+        int threshold = scanner.nextInt();
+        if (time_quantum <= 0) {
+            System.out.println("Error: Time quantum must be positive.");
+            return;
+        }
+
+        String[] algorithms = {"FCFS", "SJF_NP", "SRTF", "PRIORITY_NP", "PRIORITY_P", "RR", "MLQ"};
+        int[][] waiting = new int[algorithms.length][];
+        int[][] turnaround = new int[algorithms.length][];
+
+        // Every scheduler writes its results into the same Process objects,
+        // so we copy the columns out straight after each run
+        boolean was_printing = Statistics.print_results;
+        Statistics.print_results = false;
+        try {
+            for (int a = 0; a < algorithms.length; a++) {
+                switch (algorithms[a]) {
+                    case "FCFS":        Schedulers.runFCFS(processes); break;
+                    case "SJF_NP":      Schedulers.runSJF_NP(processes); break;
+                    case "SRTF":        Schedulers.runSRTF(processes); break;
+                    case "PRIORITY_NP": Schedulers.runPriority_NP(processes); break;
+                    case "PRIORITY_P":  Schedulers.runPriority_P(processes); break;
+                    case "RR":          Schedulers.runRR(processes, time_quantum, 0); break;
+                    default:            Schedulers.runMultiLevelQueue(processes, time_quantum); break;
+                }
+                waiting[a] = waitingTimes(processes);
+                turnaround[a] = turnaroundTimes(processes);
+            }
+        } finally {
+            Statistics.print_results = was_printing;
+        }
+
+        Statistics.printComparison(algorithms, waiting, turnaround, threshold);
+    }
+}
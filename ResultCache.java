@@ -0,0 +1,271 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// This class is an on-disk cache of finished simulations.
+//
+// Each result is stored in its own file, and the file name is a hash of
+// the workload + the algorithm + its parameters (like the time quantum).
+// So if someone asks for the same combination again, we just read the
+// file back instead of running the whole simulation a second time.
+//
+// The cache is off unless it's switched on ("java Main --cache ..."), because it
+// writes files into the current folder.
+public class ResultCache {
+
+    // Nothing is looked up or saved unless this is true
+    static boolean enabled = false;
+
+    // Change this number whenever a scheduler starts producing different results.
+    // Old cache files then stop matching and are thrown away.
+    static final int ENGINE_VERSION = 1;
+
+    // Where the cache files live, and how big the folder may get before we
+    // start deleting the least recently used files
+    static String cache_directory = ".sim-cache";
+    static long max_cache_bytes = 64L * 1024 * 1024;
+
+    private static final int MAGIC = 0x43505552; // "CPUR"
+
+
+    /**
+     * Looks for a cached result of 'algorithm' (with these parameters) on this workload.
+     * On a hit, the processes get their completion/waiting/turnaround times back
+     * and the cached result is returned. On a miss it returns null.
+     */
+    public static SimulationResult lookup(List<Process> processes, String algorithm, int... parameters) {
+        if (!enabled) {
+            return null;
+        }
+        File file = new File(cache_directory, key(processes, algorithm, parameters) + ".bin");
+        if (!file.isFile()) {
+            return null;
+        }
+
+        boolean outdated = false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(file))))) {
+
+            if (in.readInt() != MAGIC || in.readInt() != ENGINE_VERSION) {
+                outdated = true;
+                return null;
+            }
+
+            int total_time = in.readInt();
+
+            // the per-process results, in the order the processes finished
+            int n = in.readInt();
+            if (n != processes.size()) {
+                return null;
+            }
+            List<Process> completed_processes = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                Process p = processes.get(in.readInt());
+                p.completion_time = in.readInt();
+                p.turnaround_time = in.readInt();
+                p.waiting_time = in.readInt();
+                p.remaining_burst_time = 0;
+                completed_processes.add(p);
+            }
+
+            // the run-length encoded Gantt log
+            int[] ids = new int[in.readInt()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = PidTable.intern(in.readUTF());
+            }
+            GanttLog gantt_chart_log = new GanttLog(total_time);
+            int segments = in.readInt();
+            for (int i = 0; i < segments; i++) {
+                int id = ids[in.readInt()];
+                gantt_chart_log.add(id, in.readInt());
+            }
+
+            // Mark the file as "just used" so the LRU eviction keeps it around
+            file.setLastModified(System.currentTimeMillis());
+
+            if (Statistics.print_results) {
+                System.out.println("(Loaded cached result)");
+            }
+            return new SimulationResult(completed_processes, total_time, gantt_chart_log);
+
+        } catch (IOException e) {
+            // a broken cache file just counts as a miss
+            return null;
+        } finally {
+            // A file from an older engine is useless, so delete it (now that it's closed)
+            if (outdated) {
+                file.delete();
+            }
+        }
+    }
+
+
+    /**
+     * Saves a finished simulation so lookup() can return it next time.
+     */
+    public static void store(List<Process> processes, String algorithm, SimulationResult result, int... parameters) {
+        if (!enabled) {
+            return;
+        }
+        File directory = new File(cache_directory);
+        directory.mkdirs();
+        File file = new File(directory, key(processes, algorithm, parameters) + ".bin");
+
+        // processes are stored by their position in the input list
+        Map<Process, Integer> position = new HashMap<>();
+        for (int i = 0; i < processes.size(); i++) {
+            position.put(processes.get(i), i);
+        }
+
+        // We write to a temporary file first, so a crash never leaves half a result behind
+        File temp = new File(directory, file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(new FileOutputStream(temp))))) {
+
+            out.writeInt(MAGIC);
+            out.writeInt(ENGINE_VERSION);
+            out.writeInt(result.total_time);
+
+            out.writeInt(result.completed_processes.size());
+            for (Process p : result.completed_processes) {
+                out.writeInt(position.get(p));
+                out.writeInt(p.completion_time);
+                out.writeInt(p.turnaround_time);
+                out.writeInt(p.waiting_time);
+            }
+
+            // Compress the Gantt log into (name, length) blocks, and store each
+            // name only once: [P1, P1, P1, P2] becomes names [P1, P2] + blocks (0, 3), (1, 1)
+            // (ids only mean something inside one run, so the file gets the PID strings)
+            Map<Integer, Integer> name_index = new HashMap<>();
+            List<String> names = new ArrayList<>();
+            List<int[]> blocks = new ArrayList<>();
+            for (int tick = 0; tick < result.gantt_chart_log.size(); tick++) {
+                int entry = result.gantt_chart_log.get(tick);
+                Integer index = name_index.get(entry);
+                if (index == null) {
+                    index = names.size();
+                    name_index.put(entry, index);
+                    names.add(PidTable.name(entry));
+                }
+                int[] last = blocks.isEmpty() ? null : blocks.get(blocks.size() - 1);
+                if (last != null && last[0] == index) {
+                    last[1]++;
+                } else {
+                    blocks.add(new int[] {index, 1});
+                }
+            }
+            out.writeInt(names.size());
+            for (String name : names) {
+                out.writeUTF(name);
+            }
+            out.writeInt(blocks.size());
+            for (int[] block : blocks) {
+                out.writeInt(block[0]);
+                out.writeInt(block[1]);
+            }
+
+        } catch (IOException e) {
+            // caching is only an optimisation, so don't fail the run
+            System.err.println("WARNING: Could not write result cache: " + e.getMessage());
+            temp.delete();
+            return;
+        }
+
+        try {
+            try {
+                Files.move(temp.toPath(), file.toPath(),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            System.err.println("WARNING: Could not write result cache: " + e.getMessage());
+            temp.delete();
+            return;
+        }
+        evict(directory);
+    }
+
+
+    // Deletes the least recently used files until the folder is under the size cap
+    private static void evict(File directory) {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(".bin"));
+        if (files == null) {
+            return;
+        }
+
+        long total_bytes = 0;
+        for (File f : files) {
+            total_bytes += f.length();
+        }
+        if (total_bytes <= max_cache_bytes) {
+            return;
+        }
+
+        // oldest "last used" time first
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File f : files) {
+            if (total_bytes <= max_cache_bytes) {
+                break;
+            }
+            long size = f.length();
+            if (f.delete()) {
+                total_bytes -= size;
+            }
+        }
+    }
+
+
+    // Builds the cache key: a SHA-256 hash of the engine version, the algorithm,
+    // its parameters and every process (in input order, because ties are broken by it)
+    private static String key(List<Process> processes, String algorithm, int[] parameters) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java runtime has to support SHA-256
+            throw new IllegalStateException(e);
+        }
+
+        StringBuilder text = new StringBuilder();
+        text.append(ENGINE_VERSION).append('|').append(algorithm);
+        for (int parameter : parameters) {
+            text.append('|').append(parameter);
+        }
+        digest.update(text.toString().getBytes(StandardCharsets.UTF_8));
+
+        for (Process p : processes) {
+            text.setLength(0);
+            text.append('\n').append(p.pid()).append(',').append(p.arrival_time)
+                .append(',').append(p.burst_time).append(',').append(p.priority)
+                .append(',').append(p.deadline).append(',').append(p.period);
+            digest.update(text.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,94 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// These are the Java Flight Recorder (JFR) events the simulator can record.
+// There is one for every scheduling decision, so a JFR recording shows what the
+// simulation was doing while the JVM was busy.
+//
+// They are all switched OFF by default (@Enabled(false)), so they cost nothing
+// unless a recording turns them on, e.g. with the settings in scheduling.jfc:
+//   java -XX:StartFlightRecording:settings=default,settings=scheduling.jfc,filename=run.jfr Main
+// ("settings=default" adds the JDK's own events, like CPU samples and GC pauses,
+// so they can be compared with the scheduling decisions; without it, the
+// recording only has our events.)
+public class SchedulerEvents {
+
+    // The fields every scheduling decision has in common
+    @Category("CPU Scheduling")
+    @Enabled(false)
+    @StackTrace(false)
+    abstract static class DecisionEvent extends Event {
+        @Label("PID")
+        String pid;
+
+        @Label("Simulated Time")
+        @Description("The simulation clock (in ticks) when this happened")
+        int simulatedTime;
+
+        @Label("Queue Depth")
+        @Description("How many processes were waiting in the ready queue(s) afterwards")
+        int queueDepth;
+    }
+
+    @Name("cpu.scheduling.Arrival")
+    @Label("Process Arrival")
+    static class ArrivalEvent extends DecisionEvent {
+    }
+
+    @Name("cpu.scheduling.Dispatch")
+    @Label("Process Dispatch")
+    @Description("A process was given the CPU")
+    static class DispatchEvent extends DecisionEvent {
+    }
+
+    @Name("cpu.scheduling.Preemption")
+    @Label("Process Preemption")
+    @Description("A running process was taken off the CPU for a better one")
+    static class PreemptionEvent extends DecisionEvent {
+    }
+
+    @Name("cpu.scheduling.QuantumExpiry")
+    @Label("Quantum Expiry")
+    @Description("A running process used up its time quantum")
+    static class QuantumExpiryEvent extends DecisionEvent {
+    }
+
+    @Name("cpu.scheduling.Completion")
+    @Label("Process Completion")
+    static class CompletionEvent extends DecisionEvent {
+    }
+
+    // One of these is recorded at the end of every simulation run
+    @Name("cpu.scheduling.RunSummary")
+    @Label("Simulation Run Summary")
+    @Category("CPU Scheduling")
+    @Enabled(false)
+    @StackTrace(false)
+    static class RunSummaryEvent extends Event {
+        @Label("Algorithm")
+        String algorithm;
+
+        @Label("Processes")
+        int processes;
+
+        @Label("Simulated Ticks")
+        int simulatedTicks;
+
+        @Label("Simulated Events")
+        @Description("Arrivals + dispatches + preemptions + quantum expiries + completions")
+        long simulatedEvents;
+
+        @Label("Wall Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long wallTime;
+
+        @Label("Simulated Events per Second")
+        double eventsPerSecond;
+    }
+}
@@ -1,7 +1,11 @@
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.Comparator;
 import java.util.PriorityQueue;
@@ -10,7 +14,14 @@ import java.util.Scanner;
 public class Schedulers {
 
     public static void runFCFS(List<Process> processes) {
-        System.out.println("\nRunning First-Come, First-Served (FCFS)...");
+        Statistics.printHeader("\nRunning First-Come, First-Served (FCFS)...");
+
+        // If this exact workload was simulated before, just print the saved result
+        SimulationResult cached = ResultCache.lookup(processes, "FCFS");
+        if (cached != null) {
+            Statistics.printResults(cached.completed_processes, cached.total_time, cached.gantt_chart_log);
+            return;
+        }
 
         // 'current_time' is our main "clock" for the simulation
         int current_time = 0;
@@ -23,8 +34,8 @@ public class Schedulers {
         Queue<Process> ready_queue = new LinkedList<>();
 
         // This list will store the log for our Gantt Chart
-        // e.g., [P1, P1, P1, P2, P2, IDLE, P3]
-        List<String> gantt_chart_log = new ArrayList<>();
+        // e.g., [P1, P1, P1, P2, P2, IDLE, P3], stored as the PIDs' ids from PidTable
+        GanttLog gantt_chart_log = new GanttLog();
         
         // We need to make a fresh copy of the processes for this simulation
         // This lets us re-run other algorithms later without the data being changed
@@ -46,76 +57,91 @@ public class Schedulers {
         // This list will hold processes after they are completely finished
         List<Process> completed_processes = new ArrayList<>();
 
-        // We keep looping as long as we haven't finished all the processes
-        while (processes_completed < processes.size()) {
+        // Tell JFR (if it's recording) about every scheduling decision in this run
+        try (SimulationMonitor monitor = SimulationMonitor.start("FCFS", processes.size())) {
 
-            // a. Check for new arrivals
-            // Check if any processes from our "to arrive" list have an arrival time
-            // that is less than or equal to the current time
-            while (!processes_to_arrive.isEmpty() && 
-                   processes_to_arrive.get(0).arrival_time <= current_time) {
+            // We keep looping as long as we haven't finished all the processes
+            while (processes_completed < processes.size()) {
+
+                // a. Check for new arrivals
+                // Check if any processes from our "to arrive" list have an arrival time
+                // that is less than or equal to the current time
+                while (!processes_to_arrive.isEmpty() && 
+                       processes_to_arrive.get(0).arrival_time <= current_time) {
                 
-                // If a process has arrived, move it from the "to arrive" list
-                // and add it to the "ready queue"
-                ready_queue.add(processes_to_arrive.remove(0));
-            }
+                    // If a process has arrived, move it from the "to arrive" list
+                    // and add it to the "ready queue"
+                    Process arrived = processes_to_arrive.remove(0);
+                    ready_queue.add(arrived);
+                    monitor.arrival(arrived, current_time, ready_queue.size());
+                }
 
-            // b. SCHEDULER LOGIC (FCFS)
-            // If CPU is free and queue is not empty, get the next 
+                // b. SCHEDULER LOGIC (FCFS)
+                // If CPU is free and queue is not empty, get the next 
             
-            if (currently_running_process == null && !ready_queue.isEmpty()) {
-                // then we take the first process from the front of the queue
-                // This is the "First-Come, First-Served" part
-                currently_running_process = ready_queue.poll();
-            }
+                if (currently_running_process == null && !ready_queue.isEmpty()) {
+                    // then we take the first process from the front of the queue
+                    // This is the "First-Come, First-Served" part
+                    currently_running_process = ready_queue.poll();
+                    monitor.dispatch(currently_running_process, current_time, ready_queue.size());
+                }
 
-            // c. RUN THE PROCESS
-            // If there is a process on the CPU...
-            if (currently_running_process != null) {
+                // c. RUN THE PROCESS
+                // If there is a process on the CPU...
+                if (currently_running_process != null) {
 
-                // ...simulate it running for one "tick" by decreasing its remaining time
-                currently_running_process.remaining_burst_time--;
+                    // ...simulate it running for one "tick" by decreasing its remaining time
+                    currently_running_process.remaining_burst_time--;
 
-                // Check if the process just finished
-                if (currently_running_process.remaining_burst_time == 0) {
+                    // Check if the process just finished
+                    if (currently_running_process.remaining_burst_time == 0) {
 
-                    // --- Process is finished, so we calculate its stats ---
+                        // --- Process is finished, so we calculate its stats ---
                     
-                    // Mark the time it finished (current_time + 1 because it finishes at the end of this tick)
-                    int completion = current_time + 1;
-                    currently_running_process.completion_time = completion;
+                        // Mark the time it finished (current_time + 1 because it finishes at the end of this tick)
+                        int completion = current_time + 1;
+                        currently_running_process.completion_time = completion;
 
-                    // Turnaround Time = Completion Time - Arrival Time
-                    currently_running_process.turnaround_time = 
-                        completion - currently_running_process.arrival_time;
+                        // Turnaround Time = Completion Time - Arrival Time
+                        currently_running_process.turnaround_time = 
+                            completion - currently_running_process.arrival_time;
 
-                    // Waiting Time = Turnaround Time - Burst Time
-                    currently_running_process.waiting_time = 
-                        currently_running_process.turnaround_time - currently_running_process.burst_time;
+                        // Waiting Time = Turnaround Time - Burst Time
+                        currently_running_process.waiting_time = 
+                            currently_running_process.turnaround_time - currently_running_process.burst_time;
 
-                    // Add it to our list of completed processes
-                    completed_processes.add(currently_running_process);
-                    // Free up the CPU
-                    currently_running_process = null;
-                    // Count one more completed process
-                    processes_completed++;
+                        // Add it to our list of completed processes
+                        monitor.completion(currently_running_process, completion, ready_queue.size());
+                        completed_processes.add(currently_running_process);
+                        // Free up the CPU
+                        currently_running_process = null;
+                        // Count one more completed process
+                        processes_completed++;
+                    }
                 }
-            }
 
-            // --- Record this tick for the Gantt Chart ---
-            // At the end of every tick, we log what was on the CPU
-            if (currently_running_process != null) {
-                // If a process was running, log its PID
-                gantt_chart_log.add(currently_running_process.pid);
-            } else {
-                // If the CPU was free, log it as [IDLE]
-                gantt_chart_log.add("[IDLE]");
-            }
+                // --- Record this tick for the Gantt Chart ---
+                // At the end of every tick, we log what was on the CPU
+                if (currently_running_process != null) {
+                    // If a process was running, log its PID
+                    gantt_chart_log.add(currently_running_process.id);
+                } else {
+                    // If the CPU was free, log it as [IDLE]
+                    gantt_chart_log.add(PidTable.IDLE);
+                }
             
-            // Move our main clock forward by one tick
-            current_time++;
-        }
+                // Move our main clock forward by one tick
+                current_time++;
+                monitor.tick(current_time);
+            }
         
+            monitor.finish(current_time);
+        }
+
+        // Save the result so asking for the same run again is instant
+        SimulationResult result = new SimulationResult(completed_processes, current_time, gantt_chart_log);
+        ResultCache.store(processes, "FCFS", result);
+
         // DONE - Print results
         // The loop is finished, so all processes are done.
         // We call the 'printResults' function from our Statistics class
@@ -124,6 +150,92 @@ public class Schedulers {
     }
 
 
+    /**
+     * Runs FCFS on a workload that lives off the Java heap (see WorkloadStore).
+     *
+     * With FCFS nobody ever jumps the queue, so we don't need to step through every
+     * tick: each process starts as soon as both the CPU is free and it has arrived,
+     * and finishes 'burst' ticks later. That gives exactly the same completion times
+     * as runFCFS, but in one pass over the processes and without any Process objects,
+     * ready queue or Gantt log on the heap. The completion times are written back
+     * into the store.
+     */
+    public static void runFCFS_OffHeap(WorkloadStore store) {
+        Statistics.printHeader("\nRunning First-Come, First-Served (FCFS, off-heap)...");
+
+        long n = store.size();
+        long current_time = 0;
+        // long, not int: with this many processes the sums easily pass 2 billion
+        long total_wait = 0;
+        long total_turnaround = 0;
+
+        for (long k = 0; k < n; k++) {
+            long i = store.arrivalOrder(k);
+
+            // the CPU sits idle until the process arrives (if it isn't here yet)
+            current_time = Math.max(current_time, store.arrivalTime(i));
+            current_time += store.burstTime(i);
+            store.setCompletionTime(i, current_time);
+
+            total_turnaround += store.turnaroundTime(i);
+            total_wait += store.waitingTime(i);
+        }
+
+        Statistics.printSummary(n, total_wait, total_turnaround, current_time);
+    }
+
+
+    /**
+     * Runs Non-Preemptive SJF over a WorkloadStore, like runFCFS_OffHeap.
+     * The ready queue is the store's own off-heap heap of positions.
+     */
+    public static void runSJF_OffHeap(WorkloadStore store) {
+        Statistics.printHeader("\nRunning SJF (Non-Preemptive, off-heap)...");
+        runNonPreemptive_OffHeap(store, false);
+    }
+
+    /**
+     * Runs Non-Preemptive Priority over a WorkloadStore, like runFCFS_OffHeap.
+     */
+    public static void runPriority_OffHeap(WorkloadStore store) {
+        Statistics.printHeader("\nRunning Priority (Non-Preemptive, off-heap)...");
+        runNonPreemptive_OffHeap(store, true);
+    }
+
+    // The shared loop for both: whenever the CPU is free, everything that has
+    // arrived joins the ready queue, and the best process in it runs to the end.
+    // Since nothing is preempted, we can jump straight from one completion to the
+    // next instead of going tick by tick.
+    private static void runNonPreemptive_OffHeap(WorkloadStore store, boolean by_priority) {
+        long n = store.size();
+        long current_time = 0;
+        long total_wait = 0;
+        long total_turnaround = 0;
+        long next = 0;   // the next process to arrive, in arrival order
+
+        store.clearReadyQueue(by_priority);
+        for (long done = 0; done < n; done++) {
+            // if nothing is waiting, the CPU sits idle until the next arrival
+            if (store.readyCount() == 0) {
+                current_time = Math.max(current_time, store.arrivalTime(store.arrivalOrder(next)));
+            }
+            while (next < n && store.arrivalTime(store.arrivalOrder(next)) <= current_time) {
+                store.offerReady(store.arrivalOrder(next));
+                next++;
+            }
+
+            long i = store.pollReady();
+            current_time += store.burstTime(i);
+            store.setCompletionTime(i, current_time);
+
+            total_turnaround += store.turnaroundTime(i);
+            total_wait += store.waitingTime(i);
+        }
+
+        Statistics.printSummary(n, total_wait, total_turnaround, current_time);
+    }
+
+
 
 
 
@@ -131,13 +243,20 @@ public class Schedulers {
      * Runs the Non-Preemptive Shortest-Job-First (SJF) scheduling algorithm.
      */
     public static void runSJF_NP(List<Process> processes) {
-        System.out.println("\nRunning SJF (Non-Preemptive)...");
+        Statistics.printHeader("\nRunning SJF (Non-Preemptive)...");
+
+        // If this exact workload was simulated before, just print the saved result
+        SimulationResult cached = ResultCache.lookup(processes, "SJF_NP");
+        if (cached != null) {
+            Statistics.printResults(cached.completed_processes, cached.total_time, cached.gantt_chart_log);
+            return;
+        }
 
         int current_time = 0;
         int processes_completed = 0;
         Process currently_running_process = null;
 
-        List<String> gantt_chart_log = new ArrayList<>();
+        GanttLog gantt_chart_log = new GanttLog();
 
         // We use a PriorityQueue instead of a normal one.
         // This queue automatically sorts processes by the one with the
@@ -162,67 +281,82 @@ public class Schedulers {
         
         List<Process> completed_processes = new ArrayList<>();
 
-        // Keep looping until all processes are marked as finished
-        while (processes_completed < processes.size()) {
+        // Tell JFR (if it's recording) about every scheduling decision in this run
+        try (SimulationMonitor monitor = SimulationMonitor.start("SJF_NP", processes.size())) {
 
-            // a. Check for new arrivals
-            // Add any process that has arrived to the ready queue
-            while (!processes_to_arrive.isEmpty() && 
-                   processes_to_arrive.get(0).arrival_time <= current_time) {
+            // Keep looping until all processes are marked as finished
+            while (processes_completed < processes.size()) {
 
-                // When we .add() to the PriorityQueue, it automatically
-                // sorts it based on the burst time.
-                ready_queue.add(processes_to_arrive.remove(0));
-            }
+                // a. Check for new arrivals
+                // Add any process that has arrived to the ready queue
+                while (!processes_to_arrive.isEmpty() && 
+                       processes_to_arrive.get(0).arrival_time <= current_time) {
+
+                    // When we .add() to the PriorityQueue, it automatically
+                    // sorts it based on the burst time.
+                    Process arrived = processes_to_arrive.remove(0);
+                    ready_queue.add(arrived);
+                    monitor.arrival(arrived, current_time, ready_queue.size());
+                }
 
-            // b. SCHEDULER LOGIC (SJF Non-Preemptive)
-            // If the CPU is free and there are processes waiting...
-            if (currently_running_process == null && !ready_queue.isEmpty()) {
+                // b. SCHEDULER LOGIC (SJF Non-Preemptive)
+                // If the CPU is free and there are processes waiting...
+                if (currently_running_process == null && !ready_queue.isEmpty()) {
                 
-                // ...grab the next process.
-                // Because this is a PriorityQueue, .poll() automatically
-                // pulls the process with the SHORTEST burst time.
-                currently_running_process = ready_queue.poll(); 
-            }
+                    // ...grab the next process.
+                    // Because this is a PriorityQueue, .poll() automatically
+                    // pulls the process with the SHORTEST burst time.
+                    currently_running_process = ready_queue.poll();
+                    monitor.dispatch(currently_running_process, current_time, ready_queue.size());
+                }
+
+                // (Since this is "non-preemptive", we don't interrupt a process that's already running)
+
+                // c. RUN THE PROCESS
+                // (Same as FCFS)
+                // If a process is on the CPU, let it run for one tick
+                if (currently_running_process != null) {
+                    currently_running_process.remaining_burst_time--;
 
-            // (Since this is "non-preemptive", we don't interrupt a process that's already running)
-
-            // c. RUN THE PROCESS
-            // (Same as FCFS)
-            // If a process is on the CPU, let it run for one tick
-            if (currently_running_process != null) {
-                currently_running_process.remaining_burst_time--;
-
-                // Check if it just finished
-                if (currently_running_process.remaining_burst_time == 0) {
-                    // It's done, so calculate its stats
-                    int completion = current_time + 1;
-                    currently_running_process.completion_time = completion;
-                    currently_running_process.turnaround_time = 
-                        completion - currently_running_process.arrival_time;
-                    currently_running_process.waiting_time = 
-                        currently_running_process.turnaround_time - currently_running_process.burst_time;
-
-                    // Save the finished process
-                    completed_processes.add(currently_running_process);
-                    // Free the CPU
-                    currently_running_process = null;
-                    // Count it
-                    processes_completed++;
+                    // Check if it just finished
+                    if (currently_running_process.remaining_burst_time == 0) {
+                        // It's done, so calculate its stats
+                        int completion = current_time + 1;
+                        currently_running_process.completion_time = completion;
+                        currently_running_process.turnaround_time = 
+                            completion - currently_running_process.arrival_time;
+                        currently_running_process.waiting_time = 
+                            currently_running_process.turnaround_time - currently_running_process.burst_time;
+
+                        // Save the finished process
+                        monitor.completion(currently_running_process, completion, ready_queue.size());
+                        completed_processes.add(currently_running_process);
+                        // Free the CPU
+                        currently_running_process = null;
+                        // Count it
+                        processes_completed++;
+                    }
                 }
-            }
             
-            // Record what ran (or didn't run) in this tick for the Gantt chart
-            if (currently_running_process != null) {
-                gantt_chart_log.add(currently_running_process.pid);
-            } else {
-                gantt_chart_log.add("[IDLE]");
-            }
+                // Record what ran (or didn't run) in this tick for the Gantt chart
+                if (currently_running_process != null) {
+                    gantt_chart_log.add(currently_running_process.id);
+                } else {
+                    gantt_chart_log.add(PidTable.IDLE);
+                }
             
-            // Move the clock forward
-            current_time++; 
-        }
+                // Move the clock forward
+                current_time++;
+                monitor.tick(current_time);
+            }
         
+            monitor.finish(current_time);
+        }
+
+        // Save the result so asking for the same run again is instant
+        SimulationResult result = new SimulationResult(completed_processes, current_time, gantt_chart_log);
+        ResultCache.store(processes, "SJF_NP", result);
+
         // DONE - Print results
         // Send our lists to the Statistics class to be printed
         Statistics.printResults(completed_processes, current_time, gantt_chart_log);
@@ -233,13 +367,20 @@ public class Schedulers {
     // This function runs the SRTF (Shortest Remaining Time First) simulation
     // This is the PREEMPTIVE version of SJF
     public static void runSRTF(List<Process> processes) {
-        System.out.println("\nRunning SRTF (Preemptive SJF)...");
+        Statistics.printHeader("\nRunning SRTF (Preemptive SJF)...");
+
+        // If this exact workload was simulated before, just print the saved result
+        SimulationResult cached = ResultCache.lookup(processes, "SRTF");
+        if (cached != null) {
+            Statistics.printResults(cached.completed_processes, cached.total_time, cached.gantt_chart_log);
+            return;
+        }
 
         int current_time = 0;
         int processes_completed = 0;
         Process currently_running_process = null;
 
-        List<String> gantt_chart_log = new ArrayList<>();
+        GanttLog gantt_chart_log = new GanttLog();
 
         // The PriorityQueue now sorts by REMAINING burst time, not the total.
         // This is so .peek() always shows us the process with the shortest time left.
@@ -262,72 +403,89 @@ public class Schedulers {
         // List to hold finished processes
         List<Process> completed_processes = new ArrayList<>();
 
-        // MAIN CLOCK LOOP
-        while (processes_completed < processes.size()) {
+        // Tell JFR (if it's recording) about every scheduling decision in this run
+        try (SimulationMonitor monitor = SimulationMonitor.start("SRTF", processes.size())) {
 
-            // a. Check for new arrivals (Same as FCFS)
-            // Add any newly arrived processes to the ready queue
-            while (!processes_to_arrive.isEmpty() && 
-                   processes_to_arrive.get(0).arrival_time <= current_time) {
+            // MAIN CLOCK LOOP
+            while (processes_completed < processes.size()) {
+
+                // a. Check for new arrivals (Same as FCFS)
+                // Add any newly arrived processes to the ready queue
+                while (!processes_to_arrive.isEmpty() && 
+                       processes_to_arrive.get(0).arrival_time <= current_time) {
                 
-                // .add() to the PriorityQueue will sort it automatically
-                ready_queue.add(processes_to_arrive.remove(0));
-            }
+                    // .add() to the PriorityQueue will sort it automatically
+                    Process arrived = processes_to_arrive.remove(0);
+                    ready_queue.add(arrived);
+                    monitor.arrival(arrived, current_time, ready_queue.size());
+                }
 
-            // b. SCHEDULER LOGIC (SRTF)
+                // b. SCHEDULER LOGIC (SRTF)
         
-            // --- This is the PREEMPTION logic ---
-            // We check this every tick
-            // IF a process is running
-            // AND the ready queue isn't empty
-            // AND the "best" process in the ready queue (.peek())
-            // has less time left than the one currently running...
-            if (currently_running_process != null && !ready_queue.isEmpty() && 
-                ready_queue.peek().remaining_burst_time < currently_running_process.remaining_burst_time) {
+                // --- This is the PREEMPTION logic ---
+                // We check this every tick
+                // IF a process is running
+                // AND the ready queue isn't empty
+                // AND the "best" process in the ready queue (.peek())
+                // has less time left than the one currently running...
+                if (currently_running_process != null && !ready_queue.isEmpty() && 
+                    ready_queue.peek().remaining_burst_time < currently_running_process.remaining_burst_time) {
                 
-                // ...then we PREEMPT!
-                // We interrupt the running process and put it back in the ready queue
-                ready_queue.add(currently_running_process);
-                // And we start the new, shorter process
-                currently_running_process = ready_queue.poll();
-            }
+                    // ...then we PREEMPT!
+                    // We interrupt the running process and put it back in the ready queue
+                    ready_queue.add(currently_running_process);
+                    monitor.preemption(currently_running_process, current_time, ready_queue.size());
+                    // And we start the new, shorter process
+                    currently_running_process = ready_queue.poll();
+                    monitor.dispatch(currently_running_process, current_time, ready_queue.size());
+                }
             
-            // If the CPU is free and there are processes waiting, start the
-            // one with the shortest remaining time.
-            if (currently_running_process == null && !ready_queue.isEmpty()) {
-                currently_running_process = ready_queue.poll();
-            }
+                // If the CPU is free and there are processes waiting, start the
+                // one with the shortest remaining time.
+                if (currently_running_process == null && !ready_queue.isEmpty()) {
+                    currently_running_process = ready_queue.poll();
+                    monitor.dispatch(currently_running_process, current_time, ready_queue.size());
+                }
 
-            // c. RUN THE PROCESS (Same as FCFS/SJF)
-            // If a process is on the CPU, run it for one tick
-            if (currently_running_process != null) {
-                currently_running_process.remaining_burst_time--;
+                // c. RUN THE PROCESS (Same as FCFS/SJF)
+                // If a process is on the CPU, run it for one tick
+                if (currently_running_process != null) {
+                    currently_running_process.remaining_burst_time--;
 
-                if (currently_running_process.remaining_burst_time == 0) {
-                    // Process is finished so we calculate its stats
-                    int completion = current_time + 1;
-                    currently_running_process.completion_time = completion;
-                    currently_running_process.turnaround_time = 
-                        completion - currently_running_process.arrival_time;
-                    currently_running_process.waiting_time = 
-                        currently_running_process.turnaround_time - currently_running_process.burst_time;
+                    if (currently_running_process.remaining_burst_time == 0) {
+                        // Process is finished so we calculate its stats
+                        int completion = current_time + 1;
+                        currently_running_process.completion_time = completion;
+                        currently_running_process.turnaround_time = 
+                            completion - currently_running_process.arrival_time;
+                        currently_running_process.waiting_time = 
+                            currently_running_process.turnaround_time - currently_running_process.burst_time;
 
-                    completed_processes.add(currently_running_process);
-                    currently_running_process = null;
-                    processes_completed++;
+                        monitor.completion(currently_running_process, completion, ready_queue.size());
+                        completed_processes.add(currently_running_process);
+                        currently_running_process = null;
+                        processes_completed++;
+                    }
                 }
-            }
             
-            // Log for the Gantt chart
-            if (currently_running_process != null) {
-                gantt_chart_log.add(currently_running_process.pid);
-            } else {
-                gantt_chart_log.add("[IDLE]");
-            }
+                // Log for the Gantt chart
+                if (currently_running_process != null) {
+                    gantt_chart_log.add(currently_running_process.id);
+                } else {
+                    gantt_chart_log.add(PidTable.IDLE);
+                }
             
-            current_time++; 
-        }
+                current_time++;
+                monitor.tick(current_time);
+            }
         
+            monitor.finish(current_time);
+        }
+
+        // Save the result so asking for the same run again is instant
+        SimulationResult result = new SimulationResult(completed_processes, current_time, gantt_chart_log);
+        ResultCache.store(processes, "SRTF", result);
+
         // DONE - Print results
         // Send our lists to the Statistics class to be printed
         Statistics.printResults(completed_processes, current_time, gantt_chart_log);
@@ -335,19 +493,201 @@ public class Schedulers {
 
 
 
+    /**
+     * Runs SJF (or SRTF) the way a real scheduler would have to: without knowing
+     * the burst times. Each burst is GUESSED from the earlier bursts of the same task
+     * with exponential averaging, and then compared with the "oracle" version that
+     * knows the real burst times, to see how much the wrong guesses cost.
+     */
+    public static void runPredictiveSJF(List<Process> processes, Scanner scanner) {
+        System.out.print("\nPreemptive (SRTF)? (y/n): ");
+        boolean preemptive = scanner.next().trim().equalsIgnoreCase("y");
+        System.out.print("Enter alpha (0-1, weight of the latest burst): ");
+        double alpha = scanner.nextDouble();
+        System.out.print("Enter the initial guess (tau0) in ticks: ");
+        double initial_tau = scanner.nextDouble();
+        if (alpha < 0 || alpha > 1 || initial_tau < 0) {
+            System.out.println("Error: alpha must be between 0 and 1 and tau0 can't be negative.");
+            return;
+        }
+
+        Statistics.printHeader("\nRunning Predictive " + (preemptive ? "SRTF" : "SJF (Non-Preemptive)")
+            + " with alpha = " + alpha + ", tau0 = " + initial_tau + "...");
+        SimulationResult result = simulatePredictive(processes, preemptive, alpha, initial_tau, false);
+
+        // how far off were the guesses, and what did the real schedule cost?
+        double prediction_error = 0;
+        double predicted_wait = 0;
+        for (Process p : result.completed_processes) {
+            prediction_error += Math.abs(p.predicted_burst - p.burst_time);
+            predicted_wait += p.waiting_time;
+        }
+        int n = result.completed_processes.size();
+        Statistics.printResults(result.completed_processes, result.total_time, result.gantt_chart_log);
+
+        // Now the oracle version (it overwrites the processes' results). It's the same
+        // simulation with the real bursts as the "guesses", so ties are broken the
+        // same way (by arrival) and only the wrong guesses make the difference.
+        SimulationResult oracle = simulatePredictive(processes, preemptive, alpha, initial_tau, true);
+        double oracle_wait = 0;
+        for (Process p : oracle.completed_processes) {
+            oracle_wait += p.waiting_time;
+        }
+
+        System.out.println("\n--- Cost of Predicting ---");
+        System.out.printf("Mean Prediction Error: %.2f ticks\n", prediction_error / n);
+        System.out.printf("Average Waiting Time (predicted bursts): %.2f\n", predicted_wait / n);
+        System.out.printf("Average Waiting Time (oracle, real bursts): %.2f\n", oracle_wait / n);
+        System.out.printf("Extra waiting caused by prediction errors: %.2f per process\n",
+            (predicted_wait - oracle_wait) / n);
+    }
+
+    /**
+     * The predictive SJF / SRTF simulation itself.
+     *
+     * Processes from the same task share a guess. The task is the part of the PID
+     * before '#' (so "bash-1234#7" from TraceImporter, or "T1#3" for a periodic job,
+     * belong to "bash-1234" and "T1"). When a process arrives it gets the current
+     * guess for its task (tau0 if the task hasn't finished a burst yet), and when it
+     * finishes, its real burst t updates the guess:
+     *     tau = alpha * t + (1 - alpha) * tau
+     * With 'oracle' true, every guess is simply the real burst, which gives plain
+     * SJF / SRTF with the same tie-breaking as the predictive version.
+     */
+    static SimulationResult simulatePredictive(List<Process> processes, boolean preemptive,
+                                               double alpha, double initial_tau, boolean oracle) {
+        String algorithm = (preemptive ? "SRTF" : "SJF") + (oracle ? "_ORACLE" : "_PRED");
+        int current_time = 0;
+        int processes_completed = 0;
+        Process currently_running_process = null;
+
+        GanttLog gantt_chart_log = new GanttLog();
+
+        // Give every task a number once, up front (task_of[process id] = task number),
+        // so the loop below never has to look at PID strings
+        int[] task_of = new int[PidTable.size()];
+        Map<String, Integer> task_numbers = new HashMap<>();
+        for (Process p : processes) {
+            String pid = p.pid();
+            int hash = pid.indexOf('#');
+            String task = hash < 0 ? pid : pid.substring(0, hash);
+            task_of[p.id] = task_numbers.computeIfAbsent(task, t -> task_numbers.size());
+        }
+        // The current guess for each task (everyone starts at tau0)
+        double[] task_tau = new double[task_numbers.size()];
+        Arrays.fill(task_tau, initial_tau);
+
+        // Same queues as SJF / SRTF, but sorted by the GUESS. For SRTF the guess of
+        // what's left is "guessed burst - time it has already run" (we do know that).
+        // Ties go to whoever arrived first, so the order doesn't depend on the heap.
+        Comparator<Process> by_guess = preemptive
+            ? Comparator.comparingDouble(p -> p.predicted_burst - (p.burst_time - p.remaining_burst_time))
+            : Comparator.comparingDouble(p -> p.predicted_burst);
+        PriorityQueue<Process> ready_queue = new PriorityQueue<>(
+            by_guess.thenComparingInt(p -> p.arrival_time)
+        );
+
+        List<Process> processes_to_arrive = new ArrayList<>();
+        for (Process p : processes) {
+            p.remaining_burst_time = p.burst_time;
+            p.completion_time = 0;
+            p.waiting_time = 0;
+            p.turnaround_time = 0;
+            p.predicted_burst = 0;
+            processes_to_arrive.add(p);
+        }
+        Collections.sort(processes_to_arrive);
+
+        List<Process> completed_processes = new ArrayList<>();
+
+        // Tell JFR (if it's recording) about every scheduling decision in this run
+        try (SimulationMonitor monitor = SimulationMonitor.start(algorithm, processes.size())) {
+
+            while (processes_completed < processes.size()) {
+
+                // a. Check for new arrivals, and guess their bursts
+                while (!processes_to_arrive.isEmpty() &&
+                       processes_to_arrive.get(0).arrival_time <= current_time) {
+                    Process arrived = processes_to_arrive.remove(0);
+                    arrived.predicted_burst = oracle ? arrived.burst_time : task_tau[task_of[arrived.id]];
+                    ready_queue.add(arrived);
+                    monitor.arrival(arrived, current_time, ready_queue.size());
+                }
+
+                // b. SCHEDULER LOGIC (same as SRTF / SJF, using the guesses)
+                if (preemptive && currently_running_process != null && !ready_queue.isEmpty() &&
+                    by_guess.compare(ready_queue.peek(), currently_running_process) < 0) {
+                    ready_queue.add(currently_running_process);
+                    monitor.preemption(currently_running_process, current_time, ready_queue.size());
+                    currently_running_process = ready_queue.poll();
+                    monitor.dispatch(currently_running_process, current_time, ready_queue.size());
+                }
+                if (currently_running_process == null && !ready_queue.isEmpty()) {
+                    currently_running_process = ready_queue.poll();
+                    monitor.dispatch(currently_running_process, current_time, ready_queue.size());
+                }
+
+                // c. RUN THE PROCESS
+                if (currently_running_process != null) {
+                    currently_running_process.remaining_burst_time--;
+
+                    if (currently_running_process.remaining_burst_time == 0) {
+                        int completion = current_time + 1;
+                        currently_running_process.completion_time = completion;
+                        currently_running_process.turnaround_time =
+                            completion - currently_running_process.arrival_time;
+                        currently_running_process.waiting_time =
+                            currently_running_process.turnaround_time - currently_running_process.burst_time;
+
+                        // Now we know how long the burst really was, so update the task's guess
+                        int task = task_of[currently_running_process.id];
+                        task_tau[task] = alpha * currently_running_process.burst_time + (1 - alpha) * task_tau[task];
+
+                        monitor.completion(currently_running_process, completion, ready_queue.size());
+                        completed_processes.add(currently_running_process);
+                        currently_running_process = null;
+                        processes_completed++;
+                    }
+                }
+
+                // Log for the Gantt chart
+                if (currently_running_process != null) {
+                    gantt_chart_log.add(currently_running_process.id);
+                } else {
+                    gantt_chart_log.add(PidTable.IDLE);
+                }
+
+                current_time++;
+                monitor.tick(current_time);
+            }
+
+            monitor.finish(current_time);
+        }
+        return new SimulationResult(completed_processes, current_time, gantt_chart_log);
+    }
+
+
+
 
     /**
      * Runs the Non-Preemptive Priority scheduling algorithm.
      * (Assumes lower number = higher priority)
      */
     public static void runPriority_NP(List<Process> processes) {
-        System.out.println("\nRunning Priority (Non-Preemptive)...");
+        Statistics.printHeader("\nRunning Priority (Non-Preemptive)...");
+
+        // If this exact workload was simulated before, just print the saved result
+        SimulationResult cached = ResultCache.lookup(processes, "PRIORITY_NP");
+        if (cached != null) {
+            Statistics.printResults(cached.completed_processes, cached.total_time, cached.gantt_chart_log);
+            return;
+        }
 
         int current_time = 0;
         int processes_completed = 0;
         Process currently_running_process = null;
 
-        List<String> gantt_chart_log = new ArrayList<>();
+        GanttLog gantt_chart_log = new GanttLog();
         
         // The PriorityQueue now sorts by PRIORITY instead of burst time.
         PriorityQueue<Process> ready_queue = new PriorityQueue<>(
@@ -369,56 +709,71 @@ public class Schedulers {
         // This list holds processes after they finish
         List<Process> completed_processes = new ArrayList<>();
 
-        // MAIN CLOCK LOOP (Same logic as SJF-NP)
-        // Keep looping until all processes are done
-        while (processes_completed < processes.size()) {
+        // Tell JFR (if it's recording) about every scheduling decision in this run
+        try (SimulationMonitor monitor = SimulationMonitor.start("PRIORITY_NP", processes.size())) {
 
-            // a. Check for new arrivals (Same as before)
-            // Add any process that has arrived to the ready queue
-            while (!processes_to_arrive.isEmpty() && 
-                   processes_to_arrive.get(0).arrival_time <= current_time) {
+            // MAIN CLOCK LOOP (Same logic as SJF-NP)
+            // Keep looping until all processes are done
+            while (processes_completed < processes.size()) {
+
+                // a. Check for new arrivals (Same as before)
+                // Add any process that has arrived to the ready queue
+                while (!processes_to_arrive.isEmpty() && 
+                       processes_to_arrive.get(0).arrival_time <= current_time) {
                 
-                // .add() to the PriorityQueue will sort it by priority
-                ready_queue.add(processes_to_arrive.remove(0));
-            }
+                    // .add() to the PriorityQueue will sort it by priority
+                    Process arrived = processes_to_arrive.remove(0);
+                    ready_queue.add(arrived);
+                    monitor.arrival(arrived, current_time, ready_queue.size());
+                }
 
-            // b. SCHEDULER LOGIC (Non-Preemptive)
-            // This is the "Non-Preemptive" part.
-            // We ONLY check for a new process if the CPU is free.
-            if (currently_running_process == null && !ready_queue.isEmpty()) {
-                // The .poll() command automatically grabs the process with the
-                // highest priority (lowest number) because it's a PriorityQueue.
-                currently_running_process = ready_queue.poll(); 
-            }
+                // b. SCHEDULER LOGIC (Non-Preemptive)
+                // This is the "Non-Preemptive" part.
+                // We ONLY check for a new process if the CPU is free.
+                if (currently_running_process == null && !ready_queue.isEmpty()) {
+                    // The .poll() command automatically grabs the process with the
+                    // highest priority (lowest number) because it's a PriorityQueue.
+                    currently_running_process = ready_queue.poll();
+                    monitor.dispatch(currently_running_process, current_time, ready_queue.size());
+                }
 
-            // c. RUN THE PROCESS (Same as before)
-            // If a process is on the CPU, let it run
-            if (currently_running_process != null) {
-                currently_running_process.remaining_burst_time--;
+                // c. RUN THE PROCESS (Same as before)
+                // If a process is on the CPU, let it run
+                if (currently_running_process != null) {
+                    currently_running_process.remaining_burst_time--;
 
-                if (currently_running_process.remaining_burst_time == 0) {
-                    int completion = current_time + 1;
-                    currently_running_process.completion_time = completion;
-                    currently_running_process.turnaround_time = 
-                        completion - currently_running_process.arrival_time;
-                    currently_running_process.waiting_time = 
-                        currently_running_process.turnaround_time - currently_running_process.burst_time;
+                    if (currently_running_process.remaining_burst_time == 0) {
+                        int completion = current_time + 1;
+                        currently_running_process.completion_time = completion;
+                        currently_running_process.turnaround_time = 
+                            completion - currently_running_process.arrival_time;
+                        currently_running_process.waiting_time = 
+                            currently_running_process.turnaround_time - currently_running_process.burst_time;
 
-                    completed_processes.add(currently_running_process);
-                    currently_running_process = null;
-                    processes_completed++;
+                        monitor.completion(currently_running_process, completion, ready_queue.size());
+                        completed_processes.add(currently_running_process);
+                        currently_running_process = null;
+                        processes_completed++;
+                    }
                 }
-            }
             
-            if (currently_running_process != null) {
-                gantt_chart_log.add(currently_running_process.pid);
-            } else {
-                gantt_chart_log.add("[IDLE]");
-            }
+                if (currently_running_process != null) {
+                    gantt_chart_log.add(currently_running_process.id);
+                } else {
+                    gantt_chart_log.add(PidTable.IDLE);
+                }
             
-            current_time++; 
-        }
+                current_time++;
+                monitor.tick(current_time);
+            }
         
+            monitor.finish(current_time);
+        }
+
+        // Save the result so asking for the same run again is instant
+        SimulationResult result = new SimulationResult(completed_processes, current_time, gantt_chart_log);
+        ResultCache.store(processes, "PRIORITY_NP", result);
+
         // DONE - Print results
         Statistics.printResults(completed_processes, current_time, gantt_chart_log);
     }
@@ -430,13 +785,20 @@ public class Schedulers {
      * (Assumes lower number = higher priority)
      */
     public static void runPriority_P(List<Process> processes) {
-        System.out.println("\nRunning Priority (Preemptive)...");
+        Statistics.printHeader("\nRunning Priority (Preemptive)...");
+
+        // If this exact workload was simulated before, just print the saved result
+        SimulationResult cached = ResultCache.lookup(processes, "PRIORITY_P");
+        if (cached != null) {
+            Statistics.printResults(cached.completed_processes, cached.total_time, cached.gantt_chart_log);
+            return;
+        }
 
         int current_time = 0;
         int processes_completed = 0;
         Process currently_running_process = null;
 
-        List<String> gantt_chart_log = new ArrayList<>();
+        GanttLog gantt_chart_log = new GanttLog();
         
         // The "Ready Queue" is a PriorityQueue that sorts by PRIORITY
         // (We assume a lower number means a higher priority)
@@ -456,69 +818,86 @@ public class Schedulers {
         
         List<Process> completed_processes = new ArrayList<>();
 
-        // MAIN CLOCK LOOP
-        while (processes_completed < processes.size()) {
+        // Tell JFR (if it's recording) about every scheduling decision in this run
+        try (SimulationMonitor monitor = SimulationMonitor.start("PRIORITY_P", processes.size())) {
+
+            // MAIN CLOCK LOOP
+            while (processes_completed < processes.size()) {
 
-            // a. Check for new arrivals
-            while (!processes_to_arrive.isEmpty() && 
-                   processes_to_arrive.get(0).arrival_time <= current_time) {
+                // a. Check for new arrivals
+                while (!processes_to_arrive.isEmpty() && 
+                       processes_to_arrive.get(0).arrival_time <= current_time) {
                 
-                ready_queue.add(processes_to_arrive.remove(0));
-            }
+                    Process arrived = processes_to_arrive.remove(0);
+                    ready_queue.add(arrived);
+                    monitor.arrival(arrived, current_time, ready_queue.size());
+                }
 
-            // b. SCHEDULER LOGIC (Preemptive Priority)
+                // b. SCHEDULER LOGIC (Preemptive Priority)
             
-            // --- This is the PREEMPTION logic ---
-            // We check this every tick.
-            // IF a process is running
-            // AND the ready queue isn't empty
-            // AND the "best" process in the ready queue (.peek())
-            // has a *higher priority* (lower number) than the one running...
-            if (currently_running_process != null && !ready_queue.isEmpty() && 
-                ready_queue.peek().priority < currently_running_process.priority) {
+                // --- This is the PREEMPTION logic ---
+                // We check this every tick.
+                // IF a process is running
+                // AND the ready queue isn't empty
+                // AND the "best" process in the ready queue (.peek())
+                // has a *higher priority* (lower number) than the one running...
+                if (currently_running_process != null && !ready_queue.isEmpty() && 
+                    ready_queue.peek().priority < currently_running_process.priority) {
                 
-                // ...then we PREEMPT!
-                // We interrupt the running process and put it back in the ready queue
-                ready_queue.add(currently_running_process);
-                // And we start the new, higher-priority process
-                currently_running_process = ready_queue.poll();
-            }
+                    // ...then we PREEMPT!
+                    // We interrupt the running process and put it back in the ready queue
+                    ready_queue.add(currently_running_process);
+                    monitor.preemption(currently_running_process, current_time, ready_queue.size());
+                    // And we start the new, higher-priority process
+                    currently_running_process = ready_queue.poll();
+                    monitor.dispatch(currently_running_process, current_time, ready_queue.size());
+                }
             
-            // --- This part is for when the CPU is IDLE ---
-            // If the CPU is free and there are processes waiting...
-            if (currently_running_process == null && !ready_queue.isEmpty()) {
-                // ...start the one with the highest priority
-                currently_running_process = ready_queue.poll();
-            }
+                // --- This part is for when the CPU is IDLE ---
+                // If the CPU is free and there are processes waiting...
+                if (currently_running_process == null && !ready_queue.isEmpty()) {
+                    // ...start the one with the highest priority
+                    currently_running_process = ready_queue.poll();
+                    monitor.dispatch(currently_running_process, current_time, ready_queue.size());
+                }
 
-            // c. RUN THE PROCESS
-            // If a process is on the CPU, run it for one tick
-            if (currently_running_process != null) {
-                currently_running_process.remaining_burst_time--;
+                // c. RUN THE PROCESS
+                // If a process is on the CPU, run it for one tick
+                if (currently_running_process != null) {
+                    currently_running_process.remaining_burst_time--;
 
-                if (currently_running_process.remaining_burst_time == 0) {
-                    int completion = current_time + 1;
-                    currently_running_process.completion_time = completion;
-                    currently_running_process.turnaround_time = 
-                        completion - currently_running_process.arrival_time;
-                    currently_running_process.waiting_time = 
-                        currently_running_process.turnaround_time - currently_running_process.burst_time;
+                    if (currently_running_process.remaining_burst_time == 0) {
+                        int completion = current_time + 1;
+                        currently_running_process.completion_time = completion;
+                        currently_running_process.turnaround_time = 
+                            completion - currently_running_process.arrival_time;
+                        currently_running_process.waiting_time = 
+                            currently_running_process.turnaround_time - currently_running_process.burst_time;
 
-                    completed_processes.add(currently_running_process);
-                    currently_running_process = null;
-                    processes_completed++;
+                        monitor.completion(currently_running_process, completion, ready_queue.size());
+                        completed_processes.add(currently_running_process);
+                        currently_running_process = null;
+                        processes_completed++;
+                    }
                 }
-            }
             
-            if (currently_running_process != null) {
-                gantt_chart_log.add(currently_running_process.pid);
-            } else {
-                gantt_chart_log.add("[IDLE]");
-            }
+                if (currently_running_process != null) {
+                    gantt_chart_log.add(currently_running_process.id);
+                } else {
+                    gantt_chart_log.add(PidTable.IDLE);
+                }
             
-            current_time++; 
-        }
+                current_time++;
+                monitor.tick(current_time);
+            }
         
+            monitor.finish(current_time);
+        }
+
+        // Save the result so asking for the same run again is instant
+        SimulationResult result = new SimulationResult(completed_processes, current_time, gantt_chart_log);
+        ResultCache.store(processes, "PRIORITY_P", result);
+
         // DONE - Print results
         Statistics.printResults(completed_processes, current_time, gantt_chart_log);
     }
@@ -533,97 +912,395 @@ public class Schedulers {
     // We need to ask the user how long each "turn" should be
     System.out.print("\nEnter the Time Quantum for Round Robin: ");
     int time_quantum = scanner.nextInt();
-        System.out.println("Running Round Robin (RR) with Time Quantum = " + time_quantum + "...");
+        // Long runs can save a snapshot every few ticks so a crash doesn't lose everything
+        System.out.print("Enter the checkpoint interval in ticks (0 = no checkpoints): ");
+        int checkpoint_interval = scanner.nextInt();
+        runRR(processes, time_quantum, checkpoint_interval);
+    }
+
+    /**
+     * Runs Round Robin with a time quantum that's already known (and checkpoints
+     * every 'checkpoint_interval' ticks, 0 = none).
+     */
+    public static void runRR(List<Process> processes, int time_quantum, int checkpoint_interval) {
+        Statistics.printHeader("Running Round Robin (RR) with Time Quantum = " + time_quantum + "...");
+
+        // If this exact workload was simulated before, just print the saved result
+        SimulationResult result = ResultCache.lookup(processes, "RR", time_quantum);
+        if (result == null) {
+            result = simulateRR(processes, time_quantum, null, checkpoint_interval, CHECKPOINT_FILE, null);
+            ResultCache.store(processes, "RR", result, time_quantum);
+        }
+        Statistics.printResults(result.completed_processes, result.total_time, result.gantt_chart_log);
+    }
+
+
+    /**
+     * Runs Round Robin with a time quantum that adapts to the workload.
+     * Instead of one fixed quantum, at the start of every "round" the quantum is set to
+     * a percentile (e.g. the median) of the bursts that recently finished.
+     * If new jobs look like the recent ones, most short jobs then finish in one
+     * turn, and long jobs still get time-sliced.
+     */
+    public static void runAdaptiveRR(List<Process> processes, Scanner scanner) {
+        System.out.print("\nEnter the percentile of finished bursts to use as the quantum (1-100, 50 = median): ");
+        int percentile = scanner.nextInt();
+        System.out.print("Enter the starting Time Quantum (used until the first process finishes): ");
+        int initial_quantum = scanner.nextInt();
+        if (percentile < 1 || percentile > 100 || initial_quantum < 1) {
+            System.out.println("Error: The percentile must be between 1 and 100, and the quantum must be positive.");
+            return;
+        }
+        Statistics.printHeader("Running Adaptive Round Robin (quantum = p" + percentile + " of the last "
+            + ADAPTIVE_WINDOW + " finished bursts)...");
+
+        List<int[]> quantum_history = new ArrayList<>();
+        SimulationResult result = simulateAdaptiveRR(processes, percentile, initial_quantum, quantum_history);
+        Statistics.printResults(result.completed_processes, result.total_time, result.gantt_chart_log);
+        Statistics.printQuantumHistory(quantum_history);
+    }
+
+    // How many of the latest finished bursts the adaptive quantum is worked out from.
+    // A window (instead of every burst so far) lets the quantum follow a workload
+    // whose jobs get longer or shorter over time.
+    static final int ADAPTIVE_WINDOW = 100;
 
+    /**
+     * The adaptive Round Robin simulation itself. Every time the quantum changes,
+     * {time, new quantum} is added to 'quantum_history'.
+     *
+     * A round starts when the CPU picks a process and the previous round is over;
+     * it lasts one turn for each process that was waiting at that moment (processes
+     * that arrive during a round are counted in the next one).
+     *
+     * The quantum only uses what a real scheduler could see: how long the processes
+     * that already finished ran in total. The waiting processes' remaining
+     * bursts are not known in advance. At every round the quantum becomes the
+     * 'percentile' of the last ADAPTIVE_WINDOW finished bursts, and until
+     * something has finished it is 'initial_quantum'.
+     */
+    static SimulationResult simulateAdaptiveRR(List<Process> processes, int percentile, int initial_quantum,
+                                               List<int[]> quantum_history) {
         int current_time = 0;
         int processes_completed = 0;
         Process currently_running_process = null;
 
-        List<String> gantt_chart_log = new ArrayList<>();
-        
-        // --- RR: Use a standard FIFO Queue ---
+        GanttLog gantt_chart_log = new GanttLog();
         Queue<Process> ready_queue = new LinkedList<>();
-        
-        // Make copies of the processes for a clean run
+
         List<Process> processes_to_arrive = new ArrayList<>();
         for (Process p : processes) {
-            // Reset state for this run
             p.remaining_burst_time = p.burst_time;
             p.completion_time = 0;
             p.waiting_time = 0;
             p.turnaround_time = 0;
-            // Also reset the 'current_quantum' counter for this process
-            p.current_quantum = 0; 
+            p.current_quantum = 0;
             processes_to_arrive.add(p);
         }
-        Collections.sort(processes_to_arrive); // Sort by arrival time
-        
+        Collections.sort(processes_to_arrive);
+
         List<Process> completed_processes = new ArrayList<>();
 
-        // MAIN CLOCK LOOP
-        while (processes_completed < processes.size()) {
+        int time_quantum = 0;
+        int turns_left_in_round = 0;
+        // the latest finished bursts (a ring: burst k goes in slot k % ADAPTIVE_WINDOW),
+        // and a second array reused for sorting them, so we don't allocate every round
+        int[] finished_bursts = new int[ADAPTIVE_WINDOW];
+        int bursts_finished = 0;
+        int[] sorted_bursts = new int[ADAPTIVE_WINDOW];
+
+        // Tell JFR (if it's recording) about every scheduling decision in this run
+        try (SimulationMonitor monitor = SimulationMonitor.start("RR_ADAPTIVE", processes.size())) {
+
+            while (processes_completed < processes.size()) {
+
+                // a. Check for new arrivals (same as RR)
+                while (!processes_to_arrive.isEmpty() &&
+                       processes_to_arrive.get(0).arrival_time <= current_time) {
+                    Process arrived = processes_to_arrive.remove(0);
+                    ready_queue.add(arrived);
+                    monitor.arrival(arrived, current_time, ready_queue.size());
+                }
 
-            // a. Check for new arrivals (Identical)
-            while (!processes_to_arrive.isEmpty() && 
-                   processes_to_arrive.get(0).arrival_time <= current_time) {
-                
-                ready_queue.add(processes_to_arrive.remove(0));
+                // b. SCHEDULER LOGIC (RR, plus a new quantum at every round boundary)
+                if (currently_running_process == null && !ready_queue.isEmpty()) {
+                    if (turns_left_in_round == 0) {
+                        // New round: look at how long the recently finished bursts were
+                        int new_quantum = initial_quantum;
+                        int n = Math.min(bursts_finished, ADAPTIVE_WINDOW);
+                        if (n > 0) {
+                            System.arraycopy(finished_bursts, 0, sorted_bursts, 0, n);
+                            Arrays.sort(sorted_bursts, 0, n);
+                            // the smallest value that 'percentile' percent of them are at or below
+                            int index = Math.max(0, (int) Math.ceil(percentile / 100.0 * n) - 1);
+                            new_quantum = sorted_bursts[index];
+                        }
+                        if (new_quantum != time_quantum) {
+                            time_quantum = new_quantum;
+                            quantum_history.add(new int[] {current_time, time_quantum});
+                        }
+                        turns_left_in_round = ready_queue.size();
+                    }
+                    currently_running_process = ready_queue.poll();
+                    monitor.dispatch(currently_running_process, current_time, ready_queue.size());
+                    currently_running_process.current_quantum = 0;
+                    turns_left_in_round--;
+                }
+
+                // c. RUN THE PROCESS (same as RR)
+                if (currently_running_process != null) {
+                    currently_running_process.remaining_burst_time--;
+                    currently_running_process.current_quantum++;
+
+                    if (currently_running_process.remaining_burst_time == 0) {
+                        int completion = current_time + 1;
+                        currently_running_process.completion_time = completion;
+                        currently_running_process.turnaround_time =
+                            completion - currently_running_process.arrival_time;
+                        currently_running_process.waiting_time =
+                            currently_running_process.turnaround_time - currently_running_process.burst_time;
+
+                        // it has finished, so now we know (we watched it run) how long its burst was
+                        finished_bursts[bursts_finished % ADAPTIVE_WINDOW] = currently_running_process.burst_time;
+                        bursts_finished++;
+
+                        monitor.completion(currently_running_process, completion, ready_queue.size());
+                        completed_processes.add(currently_running_process);
+                        currently_running_process = null;
+                        processes_completed++;
+
+                    } else if (currently_running_process.current_quantum >= time_quantum) {
+                        ready_queue.add(currently_running_process);
+                        monitor.quantumExpiry(currently_running_process, current_time + 1, ready_queue.size());
+                        currently_running_process = null;
+                    }
+                }
+
+                if (currently_running_process != null) {
+                    gantt_chart_log.add(currently_running_process.id);
+                } else {
+                    gantt_chart_log.add(PidTable.IDLE);
+                }
+
+                current_time++;
+                monitor.tick(current_time);
             }
 
-            // b. SCHEDULER LOGIC (RR)
-            // If the CPU is free and there are processes waiting...
-            if (currently_running_process == null && !ready_queue.isEmpty()) {
-                // ...get the next process from the front of the queue
-                currently_running_process = ready_queue.poll(); 
-                // Reset its "turn" timer to 0
-                currently_running_process.current_quantum = 0; 
+            monitor.finish(current_time);
+        }
+        return new SimulationResult(completed_processes, current_time, gantt_chart_log);
+    }
+
+
+    // This is the file that Round Robin checkpoints are written to (and resumed from)
+    static final String CHECKPOINT_FILE = "checkpoint.bin";
+
+    /**
+     * Resumes a Round Robin run from the last checkpoint file.
+     * The results are exactly the same as if the run had never stopped.
+     */
+    public static void resumeRR(List<Process> processes, Scanner scanner) {
+        Checkpoint checkpoint;
+        try {
+            checkpoint = Checkpoint.load(CHECKPOINT_FILE);
+        } catch (IOException e) {
+            System.out.println("\nCould not read checkpoint: " + e.getMessage());
+            return;
+        }
+        if (!checkpoint.algorithm.equals("RR")) {
+            System.out.println("\nCheckpoint was written by " + checkpoint.algorithm + ", not Round Robin.");
+            return;
+        }
+
+        // keep checkpointing at the same rate as before (or not at all)
+        System.out.print("\nEnter the checkpoint interval in ticks (0 = no checkpoints): ");
+        int checkpoint_interval = scanner.nextInt();
+        System.out.println("Resuming Round Robin (RR) with Time Quantum = " + checkpoint.time_quantum
+            + " from t=" + checkpoint.current_time + "...");
+
+        SimulationResult result = simulateRR(processes, checkpoint.time_quantum, checkpoint,
+            checkpoint_interval, CHECKPOINT_FILE, null);
+        Statistics.printResults(result.completed_processes, result.total_time, result.gantt_chart_log);
+    }
+
+
+    /**
+     * The Round Robin simulation loop.
+     * If 'resume_from' is not null, the simulation carries on from that snapshot
+     * instead of starting at t=0. If 'checkpoint_interval' is more than 0, a snapshot
+     * is taken every 'checkpoint_interval' ticks. It is written to 'checkpoint_file'
+     * (if that isn't null) and added to 'checkpoint_list' (if that isn't null).
+     */
+    static SimulationResult simulateRR(List<Process> processes, int time_quantum, Checkpoint resume_from,
+                                       int checkpoint_interval, String checkpoint_file,
+                                       List<Checkpoint> checkpoint_list) {
+        List<Process> arrival_order = new ArrayList<>(processes);
+        Collections.sort(arrival_order); // Sort by arrival time
+        return simulateRRInOrder(arrival_order, time_quantum, resume_from, checkpoint_interval,
+            checkpoint_file, checkpoint_list);
+    }
+
+    /**
+     * The same as simulateRR, but 'arrival_order' is already sorted by arrival time
+     * (and isn't changed). When resuming, only the processes from the checkpoint's
+     * arrival cursor on are reset, so the work done is proportional to what's left
+     * of the run, not to the whole workload.
+     */
+    static SimulationResult simulateRRInOrder(List<Process> arrival_order, int time_quantum,
+                                              Checkpoint resume_from, int checkpoint_interval,
+                                              String checkpoint_file, List<Checkpoint> checkpoint_list) {
+
+        int current_time = 0;
+        int processes_completed = 0;
+        Process currently_running_process = null;
+
+        GanttLog gantt_chart_log = new GanttLog();
+        
+        // --- RR: Use a standard FIFO Queue ---
+        Queue<Process> ready_queue = new LinkedList<>();
+        
+        // The next process in 'arrival_order' that hasn't arrived yet.
+        // (Checkpoints remember processes by their position in the arrival order.)
+        int arrival_cursor = 0;
+        
+        List<Process> completed_processes = new ArrayList<>();
+
+        // --- Resume from a checkpoint ---
+        // Put the clock, queues and process state back the way they were
+        boolean resumed = false;
+        if (resume_from != null) {
+            if (!resume_from.restore(arrival_order)) {
+                System.out.println("Checkpoint does not match the loaded processes. Starting from t=0.");
+                // any older checkpoints belong to that other workload too
+                if (checkpoint_list != null) {
+                    checkpoint_list.clear();
+                }
+            } else {
+                resumed = true;
+                current_time = resume_from.current_time;
+                processes_completed = resume_from.processes_completed;
+                ready_queue.addAll(Arrays.asList(resume_from.ready_queue));
+                currently_running_process = resume_from.running;
+                completed_processes.addAll(resume_from.completed_processes.subList(0, processes_completed));
+                // the schedule up to the checkpoint can't change, so share it instead of copying it
+                gantt_chart_log = GanttLog.sharing(resume_from.gantt_chart_log, resume_from.gantt_length);
+                // everything before the arrival cursor has already arrived
+                arrival_cursor = resume_from.arrival_cursor;
+            }
+        }
+        if (!resumed) {
+            // Reset every process for a clean run
+            for (Process p : arrival_order) {
+                p.remaining_burst_time = p.burst_time;
+                p.completion_time = 0;
+                p.waiting_time = 0;
+                p.turnaround_time = 0;
+                // Also reset the 'current_quantum' counter for this process
+                p.current_quantum = 0; 
             }
+        }
+
+        // Snapshots written to a file only add what changed since the last one
+        // (and a run resumed from that file carries on its log)
+        Checkpoint.Writer checkpoint_writer = checkpoint_file == null ? null
+            : new Checkpoint.Writer(checkpoint_file, resumed ? resume_from : null);
+
+        // Tell JFR (if it's recording) about every scheduling decision in this run
+        try (SimulationMonitor monitor = SimulationMonitor.start("RR", arrival_order.size())) {
+
+            // MAIN CLOCK LOOP
+            while (processes_completed < arrival_order.size()) {
 
-            // c. RUN THE PROCESS (This is the main Round Robin logic)
-            // If a process is on the CPU...
-            if (currently_running_process != null) {
+                // a. Check for new arrivals (Identical)
+                while (arrival_cursor < arrival_order.size() && 
+                       arrival_order.get(arrival_cursor).arrival_time <= current_time) {
                 
-                // Run the process for one time unit
-                currently_running_process.remaining_burst_time--;
-                // ...and increase its "turn" timer
-                currently_running_process.current_quantum++;
-
-                // Check if the process FINISHED
-                if (currently_running_process.remaining_burst_time == 0) {
-                    // Process is finished
-                    int completion = current_time + 1;
-                    currently_running_process.completion_time = completion;
-                    currently_running_process.turnaround_time = 
-                        completion - currently_running_process.arrival_time;
-                    currently_running_process.waiting_time = 
-                        currently_running_process.turnaround_time - currently_running_process.burst_time;
-
-                    completed_processes.add(currently_running_process);
-                    currently_running_process = null; // CPU is now free
-                    processes_completed++;
+                    Process arrived = arrival_order.get(arrival_cursor++);
+                    ready_queue.add(arrived);
+                    monitor.arrival(arrived, current_time, ready_queue.size());
+                }
+
+                // b. SCHEDULER LOGIC (RR)
+                // If the CPU is free and there are processes waiting...
+                if (currently_running_process == null && !ready_queue.isEmpty()) {
+                    // ...get the next process from the front of the queue
+                    currently_running_process = ready_queue.poll();
+                    monitor.dispatch(currently_running_process, current_time, ready_queue.size());
+                    // Reset its "turn" timer to 0
+                    currently_running_process.current_quantum = 0; 
+                }
+
+                // c. RUN THE PROCESS (This is the main Round Robin logic)
+                // If a process is on the CPU...
+                if (currently_running_process != null) {
                 
-                // Check if the process's TIME QUANTUM EXPIRED
-                } else if (currently_running_process.current_quantum == time_quantum) {
+                    // Run the process for one time unit
+                    currently_running_process.remaining_burst_time--;
+                    // ...and increase its "turn" timer
+                    currently_running_process.current_quantum++;
+
+                    // Check if the process FINISHED
+                    if (currently_running_process.remaining_burst_time == 0) {
+                        // Process is finished
+                        int completion = current_time + 1;
+                        currently_running_process.completion_time = completion;
+                        currently_running_process.turnaround_time = 
+                            completion - currently_running_process.arrival_time;
+                        currently_running_process.waiting_time = 
+                            currently_running_process.turnaround_time - currently_running_process.burst_time;
+
+                        monitor.completion(currently_running_process, completion, ready_queue.size());
+                        completed_processes.add(currently_running_process);
+                        currently_running_process = null; // CPU is now free
+                        processes_completed++;
+                
+                    // Check if the process's TIME QUANTUM EXPIRED
+                    } else if (currently_running_process.current_quantum == time_quantum) {
                     
-                    // Preempt! The process is not done, but its turn is over.
-                    // Put it at the END of the ready queue.
-                    ready_queue.add(currently_running_process);
-                    // Free up the CPU so a new process can start
-                    currently_running_process = null; 
+                        // Preempt! The process is not done, but its turn is over.
+                        // Put it at the END of the ready queue.
+                        ready_queue.add(currently_running_process);
+                        monitor.quantumExpiry(currently_running_process, current_time + 1, ready_queue.size());
+                        // Free up the CPU so a new process can start
+                        currently_running_process = null; 
+                    }
                 }
-            }
             
-            if (currently_running_process != null) {
-                gantt_chart_log.add(currently_running_process.pid);
-            } else {
-                gantt_chart_log.add("[IDLE]");
-            }
+                if (currently_running_process != null) {
+                    gantt_chart_log.add(currently_running_process.id);
+                } else {
+                    gantt_chart_log.add(PidTable.IDLE);
+                }
             
-            current_time++; 
-        }
+                current_time++;
+                monitor.tick(current_time);
+
+                // d. CHECKPOINT
+                // Every 'checkpoint_interval' ticks, save the whole state
+                if (checkpoint_interval > 0 && current_time % checkpoint_interval == 0
+                        && processes_completed < arrival_order.size()) {
+                    Checkpoint checkpoint = Checkpoint.capture("RR", time_quantum, current_time,
+                        processes_completed, arrival_order, arrival_cursor,
+                        ready_queue, currently_running_process, completed_processes, gantt_chart_log);
+                    if (checkpoint_list != null) {
+                        checkpoint_list.add(checkpoint);
+                    }
+                    if (checkpoint_writer != null) {
+                        try {
+                            checkpoint_writer.save(checkpoint, arrival_order);
+                        } catch (IOException e) {
+                            // a failed checkpoint shouldn't stop the simulation itself
+                            System.err.println("WARNING: Could not write checkpoint: " + e.getMessage());
+                        }
+                    }
+                }
+            }
         
-        // DONE - Print results
-        Statistics.printResults(completed_processes, current_time, gantt_chart_log);
+            monitor.finish(current_time);
+        }
+
+        // DONE - Hand the results back to whoever asked for them
+        return new SimulationResult(completed_processes, current_time, gantt_chart_log);
     }
 
 
@@ -642,21 +1319,83 @@ public class Schedulers {
         // because we decided it will run Round Robin.
         System.out.print("\nEnter the Time Quantum for the High Priority (RR) Queue: ");
         int time_quantum = scanner.nextInt();
-        System.out.println("Running Multi-Level Queue...");
+        runMultiLevelQueue(processes, time_quantum);
+    }
+
+    /**
+     * Runs the Multi-Level Queue with a time quantum that's already known.
+     */
+    public static void runMultiLevelQueue(List<Process> processes, int time_quantum) {
+        Statistics.printHeader("Running Multi-Level Queue...");
+
+        // If this exact workload was simulated before, just print the saved result
+        SimulationResult cached = ResultCache.lookup(processes, "MLQ", time_quantum);
+        if (cached != null) {
+            Statistics.printResults(cached.completed_processes, cached.total_time, cached.gantt_chart_log);
+            return;
+        }
+
+        SimulationResult result = simulateMultiLevelQueue(processes, MultiLevelQueue.twoLevel(time_quantum));
+
+        // Save the result so asking for the same run again is instant
+        ResultCache.store(processes, "MLQ", result, time_quantum);
+
+        // DONE - Print results
+        Statistics.printResults(result.completed_processes, result.total_time, result.gantt_chart_log);
+    }
+
+    /**
+     * Runs a Multi-Level Queue whose levels the user sets up (see MultiLevelQueue),
+     * and then shows how each level did on its own.
+     */
+    public static void runConfigurableMLQ(List<Process> processes, Scanner scanner) {
+        MultiLevelQueue config = MultiLevelQueue.readFrom(scanner);
+        if (config == null) {
+            return;
+        }
+        Statistics.printHeader("Running Multi-Level Queue (" + config.size() + " levels, "
+            + config.dispatch.name().toLowerCase() + ")...");
+
+        SimulationResult result = simulateMultiLevelQueue(processes, config);
+        Statistics.printResults(result.completed_processes, result.total_time, result.gantt_chart_log);
+        Statistics.printLevelResults(config, result.completed_processes, result.total_time);
+    }
 
+    /**
+     * Simulates a Multi-Level Queue with any set of levels and returns the result
+     * without printing it.
+     */
+    public static SimulationResult simulateMultiLevelQueue(List<Process> processes, MultiLevelQueue config) {
         int current_time = 0;
         int processes_completed = 0;
         Process currently_running_process = null;
+        int running_level = -1;   // the level of the process on the CPU
 
-        List<String> gantt_chart_log = new ArrayList<>();
-        
-        // This is the key part: We now have TWO Ready Queues
+        GanttLog gantt_chart_log = new GanttLog();
+
+        // This is the key part: one Ready Queue per level.
+        // Each queue picks the next process the way its level's policy says.
+        int levels = config.size();
+        List<Queue<Process>> queues = new ArrayList<>();
+        for (int l = 0; l < levels; l++) {
+            queues.add(config.level(l).newQueue());
+        }
+        int waiting = 0;   // processes in all the queues together
+
+        // Bit l of 'ready_levels' is set while level l's queue has something in it,
+        // so the most important level with work is just its lowest set bit.
+        int ready_levels = 0;
+
+        // For WEIGHTED sharing: the ticks each level has left in this round, and
+        // one bit per level that still has some
+        boolean weighted = config.dispatch == MultiLevelQueue.Dispatch.WEIGHTED;
+        int all_levels = levels == 32 ? -1 : (1 << levels) - 1;
+        int[] ticks_left = new int[levels];
+        for (int l = 0; l < levels; l++) {
+            ticks_left[l] = config.level(l).weight;
+        }
+        int levels_with_ticks = all_levels;
 
-        // Queue 1: High Priority (for Round Robin)
-        Queue<Process> high_priority_queue = new LinkedList<>(); 
-        // Queue 2: Low Priority (for FCFS)
-        Queue<Process> low_priority_queue = new LinkedList<>();  
-        
         // Make copies
         List<Process> processes_to_arrive = new ArrayList<>();
         for (Process p : processes) {
@@ -668,118 +1407,404 @@ public class Schedulers {
             processes_to_arrive.add(p);
         }
         Collections.sort(processes_to_arrive);
-        
+
         List<Process> completed_processes = new ArrayList<>();
 
-        // MAIN CLOCK LOOP
-        while (processes_completed < processes.size()) {
+        // Tell JFR (if it's recording) about every scheduling decision in this run
+        try (SimulationMonitor monitor = SimulationMonitor.start("MLQ", processes.size(), levels)) {
 
-            // a. Check for new arrivals
-            // This flag is important. We need to know if a high-priority
-            // process just showed up, so we can check for preemption.
-            boolean new_high_priority_arrival = false;
-            while (!processes_to_arrive.isEmpty() && 
-                   processes_to_arrive.get(0).arrival_time <= current_time) {
-                
-                Process new_process = processes_to_arrive.remove(0);
+            // MAIN CLOCK LOOP
+            while (processes_completed < processes.size()) {
+
+                // a. Check for new arrivals
+                // We remember the most important level anything arrived in,
+                // so we can check for preemption.
+                int best_arrival_level = levels;
+                while (!processes_to_arrive.isEmpty() && 
+                       processes_to_arrive.get(0).arrival_time <= current_time) {
                 
-                // This is our sorting logic
-                // We decided that priority < 3 is "High Priority"
-                if (new_process.priority < 3) {
-                    high_priority_queue.add(new_process);
-                    // Set the flag to true
-                    new_high_priority_arrival = true;
-                } else {
-                    // Everything else is "Low Priority"
-                    low_priority_queue.add(new_process);
+                    Process new_process = processes_to_arrive.remove(0);
+                    int level = config.levelOf(new_process.priority);
+                    queues.get(level).add(new_process);
+                    ready_levels |= 1 << level;
+                    waiting++;
+                    monitor.queueDepth(level, queues.get(level).size());
+                    monitor.arrival(new_process, current_time, waiting);
+                    best_arrival_level = Math.min(best_arrival_level, level);
                 }
-            }
 
-            // b. SCHEDULER LOGIC (PREEMPTION)
-            // If a high-priority process just arrived and a
-            // low-priority process is currently running, PREEMPT IT.
-            if (new_high_priority_arrival && currently_running_process != null &&
-                currently_running_process.priority >= 3) {
-                
-                // Put the low-priority process back in its queue
-                low_priority_queue.add(currently_running_process);
-                currently_running_process = null; // Free the CPU
-            }
+                // b. SCHEDULER LOGIC (PREEMPTION)
+                if (currently_running_process != null) {
+                    boolean preempt;
+                    if (best_arrival_level < running_level) {
+                        // A more important level got a process. Under STRICT it always
+                        // takes over; under WEIGHTED only if it has ticks left this round.
+                        preempt = !weighted || (levels_with_ticks & (1 << best_arrival_level)) != 0;
+                    } else if (config.level(running_level).policy == MultiLevelQueue.Policy.SRTF) {
+                        // Inside an SRTF level, a shorter process takes over
+                        Queue<Process> queue = queues.get(running_level);
+                        preempt = !queue.isEmpty()
+                            && queue.peek().remaining_burst_time < currently_running_process.remaining_burst_time;
+                    } else {
+                        preempt = false;
+                    }
 
-            // --- Decide which process to run ---
-            // If CPU is free, check high-priority queue first
-            if (currently_running_process == null && !high_priority_queue.isEmpty()) {
-                // If it has something, run it (RR style)
-                currently_running_process = high_priority_queue.poll();
-                currently_running_process.current_quantum = 0; // Reset its timer
-            
-            // ONLY if the high-priority queue is empty...
-            } else if (currently_running_process == null && !low_priority_queue.isEmpty()) {
-                // ...do we check the low-priority queue.
-                    // Run this process (FCFS style)
-                currently_running_process = low_priority_queue.poll();
-            }
+                    // Under WEIGHTED, a level that has used up its ticks gives way to any
+                    // other level that still has some. If there isn't one, a new round starts.
+                    if (!preempt && weighted && ticks_left[running_level] == 0) {
+                        if ((ready_levels & levels_with_ticks) != 0) {
+                            preempt = true;
+                        } else {
+                            for (int l = 0; l < levels; l++) {
+                                ticks_left[l] = config.level(l).weight;
+                            }
+                            levels_with_ticks = all_levels;
+                        }
+                    }
 
+                    if (preempt) {
+                        // Put the process back in its queue
+                        queues.get(running_level).add(currently_running_process);
+                        ready_levels |= 1 << running_level;
+                        waiting++;
+                        monitor.queueDepth(running_level, queues.get(running_level).size());
+                        monitor.preemption(currently_running_process, current_time, waiting);
+                        currently_running_process = null; // Free the CPU
+                    }
+                }
 
-            // c. RUN THE PROCESS
-            // If a process is on the CPU...
-            if (currently_running_process != null) {
-                // ...run it for one tick.
-                currently_running_process.remaining_burst_time--;
-                
-                // --- Check if it's a HIGH-PRIORITY (RR) process ---
-                if (currently_running_process.priority < 3) {
-                    // It's a Round Robin process, so track its quantum
+                // --- Decide which process to run ---
+                if (currently_running_process == null && ready_levels != 0) {
+                    int candidates = ready_levels;
+                    if (weighted) {
+                        candidates &= levels_with_ticks;
+                        if (candidates == 0) {
+                            // every waiting level has had its share: start a new round
+                            for (int l = 0; l < levels; l++) {
+                                ticks_left[l] = config.level(l).weight;
+                            }
+                            levels_with_ticks = all_levels;
+                            candidates = ready_levels;
+                        }
+                    }
+                    running_level = Integer.numberOfTrailingZeros(candidates);
+
+                    Queue<Process> queue = queues.get(running_level);
+                    currently_running_process = queue.poll();
+                    if (queue.isEmpty()) {
+                        ready_levels &= ~(1 << running_level);
+                    }
+                    waiting--;
+                    monitor.queueDepth(running_level, queue.size());
+                    monitor.dispatch(currently_running_process, current_time, waiting);
+                    currently_running_process.current_quantum = 0; // Reset its timer
+                }
+
+
+                // c. RUN THE PROCESS
+                // If a process is on the CPU...
+                if (currently_running_process != null) {
+                    // ...run it for one tick.
+                    currently_running_process.remaining_burst_time--;
                     currently_running_process.current_quantum++;
-                    
+                    if (weighted && --ticks_left[running_level] == 0) {
+                        levels_with_ticks &= ~(1 << running_level);
+                    }
+                    MultiLevelQueue.Level level = config.level(running_level);
+
                     if (currently_running_process.remaining_burst_time == 0) {
-                        // Process finished (RR)
+                        // Process finished
                         int completion = current_time + 1;
                         currently_running_process.completion_time = completion;
                         currently_running_process.turnaround_time = completion - currently_running_process.arrival_time;
                         currently_running_process.waiting_time = currently_running_process.turnaround_time - currently_running_process.burst_time;
 
+                        monitor.completion(currently_running_process, completion, waiting);
                         completed_processes.add(currently_running_process);
                         currently_running_process = null;
                         processes_completed++;
-                    
-                    // Check if its quantum expired
-                    } else if (currently_running_process.current_quantum == time_quantum) {
+
+                    // Only RR levels have a quantum to run out of
+                    } else if (level.policy == MultiLevelQueue.Policy.RR
+                               && currently_running_process.current_quantum == level.time_quantum) {
                         // Quantum expired (RR)
                         // Put it back at the end of its queue
-                        high_priority_queue.add(currently_running_process);
+                        queues.get(running_level).add(currently_running_process);
+                        ready_levels |= 1 << running_level;
+                        waiting++;
+                        monitor.queueDepth(running_level, queues.get(running_level).size());
+                        monitor.quantumExpiry(currently_running_process, current_time + 1, waiting);
                         currently_running_process = null;
                     }
-                
-                // --- Else, it's a low-priority (FCFS) process ---
+                }
+            
+                if (currently_running_process != null) {
+                    gantt_chart_log.add(currently_running_process.id);
                 } else {
+                    gantt_chart_log.add(PidTable.IDLE);
+                }
+            
+                current_time++;
+                monitor.tick(current_time);
+            }
+        
+            monitor.finish(current_time);
+        }
+        return new SimulationResult(completed_processes, current_time, gantt_chart_log);
+    }
+
+
+    /**
+     * Runs Earliest-Deadline-First (EDF), a preemptive real-time scheduler.
+     * The process whose deadline is closest always runs. Processes without
+     * a deadline only run when nothing with a deadline is waiting.
+     */
+    public static void runEDF(List<Process> processes, Scanner scanner) {
+        System.out.print("\nEnter the simulation horizon in ticks (0 = one hyperperiod): ");
+        int horizon = realTimeHorizon(processes, scanner.nextInt());
+        if (horizon < 0) {
+            return;
+        }
+        Statistics.printHeader("Running Earliest-Deadline-First (EDF)...");
+
+        Statistics.printSchedulability(processes, false);
+
+        SimulationResult result = simulateRealTime("EDF", processes, horizon, earliestDeadlineQueue());
+        Statistics.printResults(result.completed_processes, result.total_time, result.gantt_chart_log);
+        Statistics.printDeadlineResults(result.completed_processes);
+    }
+
+
+    /**
+     * Runs Rate-Monotonic (RM) scheduling for periodic tasks.
+     * Every task gets a fixed priority: the shorter its period, the higher its priority.
+     * It's preemptive, and aperiodic processes (period 0) only run in the background.
+     */
+    public static void runRM(List<Process> processes, Scanner scanner) {
+        System.out.print("\nEnter the simulation horizon in ticks (0 = one hyperperiod): ");
+        int horizon = realTimeHorizon(processes, scanner.nextInt());
+        if (horizon < 0) {
+            return;
+        }
+        Statistics.printHeader("Running Rate-Monotonic (RM)...");
+
+        Statistics.printSchedulability(processes, true);
+
+        SimulationResult result = simulateRealTime("RM", processes, horizon, rateMonotonicQueue());
+        Statistics.printResults(result.completed_processes, result.total_time, result.gantt_chart_log);
+        Statistics.printDeadlineResults(result.completed_processes);
+    }
+
+
+    // EDF's ready queue: a heap sorted by ABSOLUTE deadline (arrival + deadline)
+    static PriorityQueue<Process> earliestDeadlineQueue() {
+        return new PriorityQueue<>(
+            Comparator.comparingInt(Schedulers::absoluteDeadline)
+                .thenComparingInt(p -> p.arrival_time)
+        );
+    }
+
+    // RM's ready queue: a heap sorted by period (shortest period first)
+    static PriorityQueue<Process> rateMonotonicQueue() {
+        return new PriorityQueue<>(
+            Comparator.comparingInt((Process p) -> p.period > 0 ? p.period : Integer.MAX_VALUE)
+                .thenComparingInt(p -> p.arrival_time)
+        );
+    }
+
+
+    // The longest hyperperiod we simulate when no horizon is given
+    static final int MAX_HYPERPERIOD = 1_000_000;
+
+    /**
+     * Works out how long to simulate EDF / RM for. With no horizon given (0 or less)
+     * it's one hyperperiod after the last first release. If that is too long to
+     * simulate, it says so and returns -1 instead of quietly simulating only part of
+     * the pattern. A horizon shorter than one hyperperiod is allowed, with a warning.
+     */
+    static int realTimeHorizon(List<Process> processes, int horizon) {
+        int last_arrival = 0;
+        for (Process p : processes) {
+            last_arrival = Math.max(last_arrival, p.arrival_time);
+        }
+        long hyperperiod = hyperperiod(processes);
+
+        if (horizon > 0) {
+            if (horizon - last_arrival < hyperperiod) {
+                System.out.println("Warning: The horizon is shorter than one hyperperiod (" + hyperperiod
+                    + " ticks after the last first release), so only part of the schedule is simulated.");
+            }
+            return horizon;
+        }
+        if (hyperperiod > MAX_HYPERPERIOD) {
+            System.out.println("Error: One hyperperiod of these tasks is " + hyperperiod + " ticks, more than the "
+                + MAX_HYPERPERIOD + " we simulate by default. Please enter a horizon instead.");
+            return -1;
+        }
+        return last_arrival + (int) hyperperiod;
+    }
+
+
+    // The deadline of a process as a point in time (instead of "ticks after arrival").
+    // A periodic task with no deadline of its own must finish before its next release.
+    // Processes without any deadline get the latest possible one.
+    static int absoluteDeadline(Process p) {
+        int relative = p.deadline > 0 ? p.deadline : p.period;
+        return relative > 0 ? p.arrival_time + relative : Integer.MAX_VALUE;
+    }
+
+
+    // The shared loop for EDF and RM. The only difference between them is how
+    // 'ready_queue' is sorted, and the "best" process in it always gets the CPU.
+    // Periodic tasks release jobs until 'horizon' (see realTimeHorizon).
+    //
+    // A periodic task doesn't get all its jobs created up front. Instead we keep
+    // ONE "next release" time per task in a heap, and when the clock reaches it we
+    // create that single job and schedule the task's next release.
+    static SimulationResult simulateRealTime(String algorithm, List<Process> processes, int horizon,
+                                             PriorityQueue<Process> ready_queue) {
+
+        int current_time = 0;
+        Process currently_running_process = null;
+
+        GanttLog gantt_chart_log = new GanttLog();
+
+        // next_release[i] is when task i releases its next job,
+        // and job_count[i] is how many jobs it has released so far
+        int[] next_release = new int[processes.size()];
+        int[] job_count = new int[processes.size()];
+        PriorityQueue<Integer> releases = new PriorityQueue<>(
+            Comparator.comparingInt((Integer i) -> next_release[i]).thenComparingInt(i -> i)
+        );
+        for (int i = 0; i < processes.size(); i++) {
+            Process p = processes.get(i);
+            // Reset state for this run
+            p.remaining_burst_time = p.burst_time;
+            p.completion_time = 0;
+            p.waiting_time = 0;
+            p.turnaround_time = 0;
+
+            next_release[i] = p.arrival_time;
+            // periodic tasks only release jobs before the horizon,
+            // but a one-off (aperiodic) process always arrives
+            if (p.period == 0 || p.arrival_time < horizon) {
+                releases.add(i);
+            }
+        }
+
+        List<Process> completed_processes = new ArrayList<>();
+
+        // Tell JFR (if it's recording) about every scheduling decision in this run.
+        // Its total counts jobs, not tasks: a periodic task releases one job per
+        // period before the horizon, and a one-off process is one job.
+        long total_jobs = 0;
+        for (Process p : processes) {
+            if (p.period == 0) {
+                total_jobs++;
+            } else if (p.arrival_time < horizon) {
+                total_jobs += (horizon - p.arrival_time + (long) p.period - 1) / p.period;
+            }
+        }
+        try (SimulationMonitor monitor = SimulationMonitor.start(algorithm, (int) Math.min(total_jobs, Integer.MAX_VALUE))) {
+
+            // MAIN CLOCK LOOP
+            // Keep going while there's a job still to come, waiting or running
+            while (!releases.isEmpty() || !ready_queue.isEmpty() || currently_running_process != null) {
+
+                // a. Release every job that is due now
+                while (!releases.isEmpty() && next_release[releases.peek()] <= current_time) {
+                    int i = releases.poll();
+                    Process task = processes.get(i);
+
+                    if (task.period == 0) {
+                        // a one-off process is its own (only) job
+                        ready_queue.add(task);
+                        monitor.arrival(task, current_time, ready_queue.size());
+                    } else {
+                        // a periodic task releases a new job (printed like "T1#3")
+                        job_count[i]++;
+                        Process job = new Process(task, job_count[i], next_release[i]);
+                        ready_queue.add(job);
+                        monitor.arrival(job, current_time, ready_queue.size());
+
+                        // and then we only remember when the NEXT job is due
+                        next_release[i] += task.period;
+                        if (next_release[i] < horizon) {
+                            releases.add(i);
+                        }
+                    }
+                }
+
+                // b. SCHEDULER LOGIC (Preemptive)
+                // If the best waiting job beats the running one, PREEMPT it
+                if (currently_running_process != null && !ready_queue.isEmpty() &&
+                    ready_queue.comparator().compare(ready_queue.peek(), currently_running_process) < 0) {
+                    ready_queue.add(currently_running_process);
+                    monitor.preemption(currently_running_process, current_time, ready_queue.size());
+                    currently_running_process = ready_queue.poll();
+                    monitor.dispatch(currently_running_process, current_time, ready_queue.size());
+                }
+
+                if (currently_running_process == null && !ready_queue.isEmpty()) {
+                    currently_running_process = ready_queue.poll();
+                    monitor.dispatch(currently_running_process, current_time, ready_queue.size());
+                }
+
+                // c. RUN THE PROCESS
+                if (currently_running_process != null) {
+                    currently_running_process.remaining_burst_time--;
+
                     if (currently_running_process.remaining_burst_time == 0) {
-                        // It's an FCFS process, so we just check if it's finished.
-                        // No quantum check needed.
                         int completion = current_time + 1;
                         currently_running_process.completion_time = completion;
-                        currently_running_process.turnaround_time = completion - currently_running_process.arrival_time;
-                        currently_running_process.waiting_time = currently_running_process.turnaround_time - currently_running_process.burst_time;
+                        currently_running_process.turnaround_time = 
+                            completion - currently_running_process.arrival_time;
+                        currently_running_process.waiting_time = 
+                            currently_running_process.turnaround_time - currently_running_process.burst_time;
 
+                        monitor.completion(currently_running_process, completion, ready_queue.size());
                         completed_processes.add(currently_running_process);
                         currently_running_process = null;
-                        processes_completed++;
                     }
-                    // (No quantum check, it's FCFS)
                 }
+
+                if (currently_running_process != null) {
+                    gantt_chart_log.add(currently_running_process.id);
+                } else {
+                    gantt_chart_log.add(PidTable.IDLE);
+                }
+
+                current_time++;
+                monitor.tick(current_time);
             }
-            
-            if (currently_running_process != null) {
-                gantt_chart_log.add(currently_running_process.pid);
-            } else {
-                gantt_chart_log.add("[IDLE]");
+
+            monitor.finish(current_time);
+        }
+        return new SimulationResult(completed_processes, current_time, gantt_chart_log);
+    }
+
+
+    // The hyperperiod is the least common multiple of all the periods:
+    // after it, a set of periodic tasks repeats exactly the same pattern.
+    // (If it doesn't even fit in a long, we return Long.MAX_VALUE.)
+    static long hyperperiod(List<Process> processes) {
+        long lcm = 1;
+        for (Process p : processes) {
+            if (p.period > 0) {
+                long a = lcm, b = p.period;
+                while (b != 0) {
+                    long t = a % b;
+                    a = b;
+                    b = t;
+                }
+                try {
+                    lcm = Math.multiplyExact(lcm / a, (long) p.period);
+                } catch (ArithmeticException e) {
+                    return Long.MAX_VALUE;
+                }
             }
-            
-            current_time++; 
         }
-        
-        // DONE - Print results
-        Statistics.printResults(completed_processes, current_time, gantt_chart_log);
+        return lcm;
     }
 
 }
@@ -0,0 +1,684 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Scanner;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// An ExecutorService that runs REAL tasks, but decides who goes next with the
+// same policies as the simulator (FCFS, SJF, Priority, Round Robin, Multi-Level Queue).
+//
+// The executor has a fixed number of "CPUs". A task only runs while it holds one.
+// The tasks run on a fixed number of worker threads (virtual threads if the Java
+// version has them), which are started as they are first needed and then reused.
+//
+// Java can't stop a running thread in the middle of its work, so preemption
+// only happens when a task calls SchedulingExecutor.yieldPoint(). That's where a
+// Round Robin task gives up the CPU when its time slice is used up, or a task
+// makes way for a more important one. Tasks that never call it simply run to the end.
+//
+// A preempted task is still part way through its code, so it keeps its worker
+// thread (parked in yieldPoint()) until it gets a CPU again and finishes. That's
+// why preemption never creates threads: a task that hasn't started yet can only take
+// a CPU from another one if there's a free worker for it. If every worker is busy,
+// it waits, and the CPUs go to the best preempted tasks instead. So with as many
+// workers as CPUs, only tasks that already started can take turns; more workers
+// let new arrivals preempt too.
+//
+// Like the simulator, it records each task's waiting, turnaround and response time,
+// but in real (wall-clock) time, so you can compare what the simulator predicted
+// with what actually happened.
+public class SchedulingExecutor extends AbstractExecutorService {
+
+    public enum Policy { FCFS, SJF, PRIORITY, PRIORITY_P, RR, MLQ }
+
+    // The task running on the current thread (null on threads we didn't start)
+    private static final ThreadLocal<Task> current_task = new ThreadLocal<>();
+
+    // One submitted task and everything we measure about it
+    private class Task {
+        final String name;
+        final long estimated_cost_nanos;   // used by SJF
+        final int priority;                // lower number = more important, like the simulator
+        final int level;                   // its MLQ level (0 for the other policies)
+        final FutureTask<?> future;
+        final SchedulingExecutor executor = SchedulingExecutor.this;
+
+        final long submit_nanos = System.nanoTime();
+        long first_run_nanos = -1;
+        long completion_nanos;
+        long run_nanos;                    // how long it actually held a CPU
+        long slice_start_nanos;            // when it last got a CPU
+
+        long sequence;                     // order it (last) joined the ready queue
+        Worker worker;                     // null until it is first dispatched
+        boolean running;
+        final Condition turn = lock.newCondition();
+
+        Task(String name, long estimated_cost_nanos, int priority, FutureTask<?> future) {
+            this.name = name;
+            this.estimated_cost_nanos = estimated_cost_nanos;
+            this.priority = priority;
+            this.level = levels == null ? 0 : levels.levelOf(priority);
+            this.future = future;
+        }
+
+        // What's left of its estimated cost (used by SRTF levels)
+        long remainingNanos() {
+            return estimated_cost_nanos - run_nanos;
+        }
+    }
+
+    // One of the executor's threads. It runs one task at a time, from its start
+    // until it finishes (even if the task is preempted in between).
+    private class Worker {
+        Thread thread;
+        Task assigned;                     // the task dispatch() gave it to start next
+        final Condition wake = lock.newCondition();
+    }
+
+    private final Policy policy;
+    private final MultiLevelQueue levels;  // only for MLQ
+    private final int cpus;
+    private final int max_workers;
+    private final long time_slice_nanos;   // RR's slice; for MLQ, one tick of a level's quantum
+    private final ThreadFactory thread_factory;
+    private final long start_nanos = System.nanoTime();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition terminated = lock.newCondition();
+    private final PriorityQueue<Task> ready_queue;
+    private final List<Task> live_tasks = new ArrayList<>();       // started, not finished yet
+    private final List<Task> completed_tasks = new ArrayList<>();
+    private final List<Worker> idle_workers = new ArrayList<>();
+    private final AtomicInteger task_counter = new AtomicInteger();
+    private long next_sequence = 0;
+    private int free_cpus;
+    private int workers_started = 0;
+    private int unfinished_tasks = 0;
+    private boolean shutdown = false;
+    private boolean stopping = false;  // shutdownNow() was called: interrupt every task
+
+
+    /**
+     * Creates an executor with 'cpus' CPUs and 'worker_threads' threads (at least
+     * as many as CPUs) that dispatches tasks with 'policy'.
+     * 'time_slice_millis' is the Round Robin quantum. MLQ gets the original two
+     * levels, with this quantum for the Round Robin one.
+     * If 'virtual_threads' is true but this Java version doesn't have them,
+     * it falls back to normal (platform) threads.
+     */
+    public SchedulingExecutor(Policy policy, int cpus, int worker_threads, long time_slice_millis, boolean virtual_threads) {
+        this(policy, policy == Policy.MLQ ? MultiLevelQueue.twoLevel(1) : null, cpus, worker_threads,
+            time_slice_millis, virtual_threads);
+    }
+
+    /**
+     * Creates an MLQ executor with the given levels (see MultiLevelQueue). A level's
+     * quantum is in ticks of 'millis_per_tick'. Only STRICT sharing between levels
+     * is supported.
+     */
+    public SchedulingExecutor(MultiLevelQueue levels, int cpus, int worker_threads, long millis_per_tick, boolean virtual_threads) {
+        this(Policy.MLQ, levels, cpus, worker_threads, millis_per_tick, virtual_threads);
+    }
+
+    private SchedulingExecutor(Policy policy, MultiLevelQueue levels, int cpus, int worker_threads,
+                               long time_slice_millis, boolean virtual_threads) {
+        if (cpus < 1 || worker_threads < cpus) {
+            throw new IllegalArgumentException("Need at least one CPU and a worker thread per CPU: "
+                + cpus + " CPUs, " + worker_threads + " workers");
+        }
+        if (levels != null && levels.dispatch != MultiLevelQueue.Dispatch.STRICT) {
+            throw new IllegalArgumentException("The executor only shares the CPUs between levels by STRICT priority");
+        }
+        this.policy = policy;
+        this.levels = levels;
+        this.cpus = cpus;
+        this.max_workers = worker_threads;
+        this.free_cpus = cpus;
+        this.time_slice_nanos = TimeUnit.MILLISECONDS.toNanos(time_slice_millis);
+        this.thread_factory = virtual_threads ? virtualThreadFactory() : platformThreadFactory();
+        this.ready_queue = new PriorityQueue<>(comparator(policy));
+    }
+
+    // The ready queue order for each policy. Ties (and RR/FCFS) go by who joined
+    // the queue first, just like the FIFO queues in the simulator.
+    private Comparator<Task> comparator(Policy policy) {
+        Comparator<Task> by_sequence = Comparator.comparingLong(t -> t.sequence);
+        switch (policy) {
+            case SJF:
+                return Comparator.<Task>comparingLong(t -> t.estimated_cost_nanos).thenComparing(by_sequence);
+            case PRIORITY:
+            case PRIORITY_P:
+                return Comparator.<Task>comparingInt(t -> t.priority).thenComparing(by_sequence);
+            case MLQ:
+                // the most important level first, then the way that level's policy says
+                return Comparator.<Task>comparingInt(t -> t.level).thenComparing(this::compareInLevel)
+                    .thenComparing(by_sequence);
+            default:
+                return by_sequence;
+        }
+    }
+
+    // Orders two tasks of the same MLQ level by that level's policy
+    // (FCFS and RR just go by the order they joined the queue)
+    private int compareInLevel(Task a, Task b) {
+        switch (levels.level(a.level).policy) {
+            case SJF:
+                return Long.compare(a.estimated_cost_nanos, b.estimated_cost_nanos);
+            case SRTF:
+                return Long.compare(a.remainingNanos(), b.remainingNanos());
+            default:
+                return 0;
+        }
+    }
+
+    private ThreadFactory platformThreadFactory() {
+        AtomicInteger thread_counter = new AtomicInteger();
+        return r -> new Thread(r, "scheduling-executor-" + thread_counter.incrementAndGet());
+    }
+
+    // Thread.ofVirtual().factory() only exists from Java 21 on, so we look it up
+    // by reflection and use platform threads if it isn't there
+    private ThreadFactory virtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builder_type = Class.forName("java.lang.Thread$Builder");
+            return (ThreadFactory) builder_type.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            System.err.println("WARNING: Virtual threads are not available, using platform threads.");
+            return platformThreadFactory();
+        }
+    }
+
+
+    // --- Submitting tasks ---
+
+    /**
+     * Submits a task with a name, an estimated cost (for SJF) and a priority
+     * (lower number = more important, for Priority and MLQ).
+     */
+    public <T> Future<T> submit(Callable<T> task, String name, long estimated_cost_millis, int priority) {
+        FutureTask<T> future = new FutureTask<>(task);
+        enqueue(new Task(name, TimeUnit.MILLISECONDS.toNanos(estimated_cost_millis), priority, future));
+        return future;
+    }
+
+    public Future<?> submit(Runnable task, String name, long estimated_cost_millis, int priority) {
+        return submit(Executors.callable(task), name, estimated_cost_millis, priority);
+    }
+
+    // Plain execute() / submit() calls get no cost estimate and the default priority
+    @Override
+    public void execute(Runnable command) {
+        FutureTask<?> future = command instanceof FutureTask
+            ? (FutureTask<?>) command : new FutureTask<>(command, null);
+        // incrementAndGet() gives every task its own number, even when several
+        // threads call execute() at the same time
+        enqueue(new Task("T" + task_counter.incrementAndGet(), 0, 0, future));
+    }
+
+    private void enqueue(Task task) {
+        lock.lock();
+        try {
+            if (shutdown) {
+                throw new RejectedExecutionException("Executor has been shut down");
+            }
+            unfinished_tasks++;
+            task.sequence = next_sequence++;
+            ready_queue.add(task);
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    // --- Dispatching (always called with the lock held) ---
+
+    // Hands free CPUs to the best tasks that can run
+    private void dispatch() {
+        Task task;
+        while (free_cpus > 0 && (task = nextRunnable()) != null) {
+            if (task == ready_queue.peek()) {
+                ready_queue.poll();
+            } else {
+                ready_queue.remove(task);
+            }
+            free_cpus--;
+            task.running = true;
+            task.slice_start_nanos = System.nanoTime();
+            if (task.first_run_nanos < 0) {
+                task.first_run_nanos = task.slice_start_nanos;
+            }
+
+            if (task.worker == null) {
+                // first time on a CPU: give it to an idle worker (or start one)
+                Worker worker = idle_workers.isEmpty() ? startWorker() : idle_workers.remove(idle_workers.size() - 1);
+                task.worker = worker;
+                worker.assigned = task;
+                live_tasks.add(task);
+                worker.wake.signal();
+            } else {
+                // it was preempted earlier and is waiting in yieldPoint()
+                task.turn.signal();
+            }
+        }
+    }
+
+    // The task a free CPU should go to: the best one in the ready queue, unless it
+    // hasn't started yet and there's no worker for it. Then it's the best task
+    // that was preempted (it already has a worker), if there is one.
+    private Task nextRunnable() {
+        Task best = ready_queue.peek();
+        if (best == null || best.worker != null || !idle_workers.isEmpty() || workers_started < max_workers) {
+            return best;
+        }
+        Task best_started = null;
+        for (Task task : ready_queue) {
+            if (task.worker != null && (best_started == null || ready_queue.comparator().compare(task, best_started) < 0)) {
+                best_started = task;
+            }
+        }
+        return best_started;
+    }
+
+    private Worker startWorker() {
+        Worker worker = new Worker();
+        workers_started++;
+        worker.thread = thread_factory.newThread(() -> runWorker(worker));
+        worker.thread.start();
+        return worker;
+    }
+
+    // A worker runs the tasks it is given, one after the other, until the
+    // executor is shut down and every task has finished
+    private void runWorker(Worker worker) {
+        while (true) {
+            Task task;
+            lock.lock();
+            try {
+                while (worker.assigned == null && !(shutdown && unfinished_tasks == 0)) {
+                    worker.wake.awaitUninterruptibly();
+                }
+                task = worker.assigned;
+                worker.assigned = null;
+                if (task == null) {
+                    return;
+                }
+                // an interrupt meant for the worker's last task mustn't reach this one
+                // (unless shutdownNow() was called, which is meant for every task)
+                Thread.interrupted();
+                if (stopping) {
+                    Thread.currentThread().interrupt();
+                }
+            } finally {
+                lock.unlock();
+            }
+            runTask(task);
+        }
+    }
+
+    private void runTask(Task task) {
+        current_task.set(task);
+        try {
+            task.future.run();
+        } finally {
+            current_task.remove();
+            lock.lock();
+            try {
+                task.completion_nanos = System.nanoTime();
+                task.run_nanos += task.completion_nanos - task.slice_start_nanos;
+                live_tasks.remove(task);
+                completed_tasks.add(task);
+                idle_workers.add(task.worker);
+                free_cpus++;
+                unfinished_tasks--;
+                dispatch();
+                if (shutdown && unfinished_tasks == 0) {
+                    signalTerminated();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Everything is done: wake awaitTermination() and let the idle workers exit
+    private void signalTerminated() {
+        terminated.signalAll();
+        for (Worker worker : idle_workers) {
+            worker.wake.signal();
+        }
+    }
+
+
+    /**
+     * Tasks call this every now and then to allow preemption. If the policy says
+     * a different task should have the CPU now, this blocks until it is our turn again.
+     * (It does nothing when called from a thread this executor didn't start.)
+     */
+    public static void yieldPoint() {
+        Task task = current_task.get();
+        if (task != null) {
+            task.executor.preemptIfNeeded(task);
+        }
+    }
+
+    private void preemptIfNeeded(Task task) {
+        lock.lock();
+        try {
+            if (!shouldPreempt(task)) {
+                return;
+            }
+
+            // Give up the CPU and go to the back of the ready queue
+            long now = System.nanoTime();
+            task.run_nanos += now - task.slice_start_nanos;
+            task.running = false;
+            task.sequence = next_sequence++;
+            ready_queue.add(task);
+            free_cpus++;
+            dispatch();
+
+            // wait until dispatch() picks us again
+            while (!task.running) {
+                task.turn.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean shouldPreempt(Task task) {
+        // only a task that could actually run now is worth giving the CPU to
+        Task best = nextRunnable();
+        if (best == null) {
+            return false;
+        }
+        long slice_nanos = System.nanoTime() - task.slice_start_nanos;
+        switch (policy) {
+            case PRIORITY_P:
+                return best.priority < task.priority;
+            case RR:
+                return slice_nanos >= time_slice_nanos;
+            case MLQ:
+                // a more important level takes over straight away; inside a level
+                // it depends on the level's policy
+                if (best.level != task.level) {
+                    return best.level < task.level;
+                }
+                MultiLevelQueue.Level level = levels.level(task.level);
+                if (level.policy == MultiLevelQueue.Policy.RR) {
+                    return slice_nanos >= level.time_quantum * time_slice_nanos;
+                } else if (level.policy == MultiLevelQueue.Policy.SRTF) {
+                    return best.remainingNanos() < task.remainingNanos() - slice_nanos;
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+
+    // --- ExecutorService lifecycle ---
+
+    @Override
+    public void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            if (unfinished_tasks == 0) {
+                signalTerminated();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        List<Runnable> never_started = new ArrayList<>();
+        lock.lock();
+        try {
+            shutdown = true;
+            stopping = true;
+            // Tasks that never started are handed back. A preempted task is part
+            // way through, so it stays in the ready queue and gets a CPU again the
+            // normal way (so there are never more running than CPUs), and then it
+            // sees the interrupt.
+            Iterator<Task> waiting = ready_queue.iterator();
+            while (waiting.hasNext()) {
+                Task task = waiting.next();
+                if (task.worker == null) {
+                    never_started.add(task.future);
+                    unfinished_tasks--;
+                    waiting.remove();
+                }
+            }
+            for (Task task : live_tasks) {
+                task.worker.thread.interrupt();
+            }
+            if (unfinished_tasks == 0) {
+                signalTerminated();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return never_started;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        lock.lock();
+        try {
+            return shutdown;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isTerminated() {
+        lock.lock();
+        try {
+            return shutdown && unfinished_tasks == 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (!(shutdown && unfinished_tasks == 0)) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = terminated.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // For the tests: CPUs not held by a task, and worker threads started so far
+    int freeCpus() {
+        lock.lock();
+        try {
+            return free_cpus;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int workersStarted() {
+        lock.lock();
+        try {
+            return workers_started;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+
+    // --- Results ---
+
+    /**
+     * Prints the same table as Statistics.printResults, but measured in milliseconds
+     * of real time since the executor was created, plus each task's response time
+     * (how long it waited before it first got a CPU).
+     * If 'millis_per_tick' is more than 0, the averages are also shown in simulator ticks.
+     */
+    public void printResults(double millis_per_tick) {
+        List<Task> tasks;
+        lock.lock();
+        try {
+            tasks = new ArrayList<>(completed_tasks);
+        } finally {
+            lock.unlock();
+        }
+        // natural order, like Statistics.printResults (P2 before P10). Not by PidTable
+        // rank: tasks from execute() (T1, T2, ...) never went through PidTable.
+        tasks.sort((a, b) -> PidTable.compareNatural(a.name, b.name));
+
+        System.out.println("\n--- Measured Results (" + policy + ", " + cpus + " CPU(s), times in ms) ---");
+        System.out.println("Task\tPriority\tSubmitted\tRan\tCompletion\tTurnaround\tWaiting\tResponse");
+        System.out.println("-------------------------------------------------------------------------------------");
+
+        double total_wait = 0;
+        double total_turnaround = 0;
+        double total_response = 0;
+        for (Task t : tasks) {
+            double turnaround = millis(t.completion_nanos - t.submit_nanos);
+            double waiting = turnaround - millis(t.run_nanos);
+            double response = millis(t.first_run_nanos - t.submit_nanos);
+            System.out.printf("%s\t%d\t\t%.1f\t\t%.1f\t%.1f\t\t%.1f\t\t%.1f\t%.1f\n",
+                t.name, t.priority, millis(t.submit_nanos - start_nanos), millis(t.run_nanos),
+                millis(t.completion_nanos - start_nanos), turnaround, waiting, response);
+            total_wait += waiting;
+            total_turnaround += turnaround;
+            total_response += response;
+        }
+
+        int n = tasks.size();
+        System.out.println("-------------------------------------------------------------------------------------");
+        System.out.printf("Average Waiting Time: %.2f ms\n", total_wait / n);
+        System.out.printf("Average Turnaround Time: %.2f ms\n", total_turnaround / n);
+        System.out.printf("Average Response Time: %.2f ms\n", total_response / n);
+        if (millis_per_tick > 0) {
+            System.out.printf("In ticks: waiting %.2f, turnaround %.2f, response %.2f\n",
+                total_wait / n / millis_per_tick, total_turnaround / n / millis_per_tick,
+                total_response / n / millis_per_tick);
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+
+    /**
+     * Runs the loaded processes as real tasks: each one arrives at its arrival
+     * time and busy-works for its burst time, with 1 tick = a few milliseconds.
+     * Compare the averages (in ticks) with the simulator's for the same policy.
+     */
+    public static void runOnThreads(List<Process> processes, Scanner scanner) {
+        System.out.print("\nPolicy (FCFS, SJF, PRIORITY, PRIORITY_P, RR, MLQ): ");
+        Policy policy;
+        try {
+            policy = Policy.valueOf(scanner.next().trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.out.println("Unknown policy.");
+            return;
+        }
+        System.out.print("Enter the number of CPUs: ");
+        int cpus = scanner.nextInt();
+        System.out.print("Enter the number of worker threads (at least one per CPU; spare ones let new tasks preempt): ");
+        int worker_threads = scanner.nextInt();
+        System.out.print("Enter the milliseconds per tick: ");
+        int millis_per_tick = scanner.nextInt();
+        int time_quantum = 1;
+        if (policy == Policy.RR) {
+            System.out.print("Enter the Time Quantum (in ticks): ");
+            time_quantum = scanner.nextInt();
+        }
+        // MLQ uses the same kind of levels as menu option 18 (STRICT only)
+        MultiLevelQueue levels = null;
+        if (policy == Policy.MLQ) {
+            levels = MultiLevelQueue.readFrom(scanner);
+            if (levels == null) {
+                return;
+            }
+            if (levels.dispatch != MultiLevelQueue.Dispatch.STRICT) {
+                System.out.println("Error: On real threads, the levels can only share the CPUs by STRICT priority.");
+                return;
+            }
+        }
+        System.out.print("Use virtual threads? (y/n): ");
+        boolean virtual_threads = scanner.next().trim().equalsIgnoreCase("y");
+        if (cpus < 1 || worker_threads < cpus || millis_per_tick < 1 || time_quantum < 1) {
+            System.out.println("Error: CPUs, milliseconds per tick and the time quantum must be positive,"
+                + " with at least one worker thread per CPU.");
+            return;
+        }
+        System.out.println("Running " + processes.size() + " processes on real threads...");
+
+        List<Process> arrival_order = new ArrayList<>(processes);
+        arrival_order.sort(null);
+
+        SchedulingExecutor executor = levels != null
+            ? new SchedulingExecutor(levels, cpus, worker_threads, millis_per_tick, virtual_threads)
+            : new SchedulingExecutor(policy, cpus, worker_threads, (long) time_quantum * millis_per_tick, virtual_threads);
+        long start = System.nanoTime();
+        try {
+            for (Process p : arrival_order) {
+                // wait (for real) until the process "arrives"
+                long arrival_nanos = start + TimeUnit.MILLISECONDS.toNanos((long) p.arrival_time * millis_per_tick);
+                long sleep = arrival_nanos - System.nanoTime();
+                if (sleep > 0) {
+                    TimeUnit.NANOSECONDS.sleep(sleep);
+                }
+                long work_nanos = TimeUnit.MILLISECONDS.toNanos((long) p.burst_time * millis_per_tick);
+                executor.submit(() -> busyWork(work_nanos), p.pid(), (long) p.burst_time * millis_per_tick, p.priority);
+            }
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.DAYS);
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            return;
+        }
+        executor.printResults(millis_per_tick);
+    }
+
+    // Keeps the CPU busy for 'work_nanos' of time actually spent running
+    // (time spent preempted in yieldPoint() doesn't count)
+    private static void busyWork(long work_nanos) {
+        long done = 0;
+        while (done < work_nanos) {
+            long slice_start = System.nanoTime();
+            long slice_end = slice_start + Math.min(100_000, work_nanos - done);
+            while (System.nanoTime() < slice_end) {
+                Thread.onSpinWait();
+            }
+            done += System.nanoTime() - slice_start;
+            yieldPoint();
+        }
+    }
+}
@@ -0,0 +1,253 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// Every scheduler creates one of these when it starts a run, and tells it about
+// each scheduling decision it makes (arrival, dispatch, preemption, quantum expiry,
+// completion) and every tick of the clock. The monitor counts them, records them
+// as JFR events, and shows the run's progress over JMX while it is running.
+//
+// When JFR isn't recording our events, shouldCommit() is false and the JIT compiler
+// throws the unused event object away, so this costs next to nothing.
+//
+// Only the simulation thread ever changes the counters, so it doesn't need a
+// lock or a compare-and-swap: it just does a cheap "lazySet" store. The JMX thread
+// reads the counters (and works out rates and heap use) only when someone asks.
+//
+// The schedulers open it in a try-with-resources block, so even a run that
+// throws part way is taken out of JMX again (by close()).
+public class SimulationMonitor implements SimulationMonitorMBean, AutoCloseable {
+
+    // every run gets its own number, so runs of the same algorithm don't clash in JMX
+    private static final AtomicInteger run_counter = new AtomicInteger();
+
+    private final String algorithm;
+    private final int total_processes;
+    private final long start_nanos = System.nanoTime();
+    private ObjectName jmx_name;
+
+    // how many scheduling decisions this run has made so far, and the latest values
+    private final AtomicLong simulated_events = new AtomicLong();
+    private final AtomicLong simulated_time = new AtomicLong();
+    private final AtomicLong processes_completed = new AtomicLong();
+    private final AtomicLong ready_queue_depth = new AtomicLong();
+    // for schedulers with more than one ready queue (like MLQ): each queue's depth
+    private final AtomicLongArray queue_depths;
+
+
+    private SimulationMonitor(String algorithm, int total_processes, int queue_count) {
+        this.algorithm = algorithm;
+        this.total_processes = total_processes;
+        this.queue_depths = new AtomicLongArray(queue_count);
+    }
+
+    /**
+     * Call this once, when a simulation run starts.
+     * It also registers the run with JMX (as cpu.scheduling:type=Simulation,...).
+     */
+    public static SimulationMonitor start(String algorithm, int total_processes) {
+        return start(algorithm, total_processes, 1);
+    }
+
+    /**
+     * The same, for a scheduler with 'queue_count' ready queues. It tells the
+     * monitor about each one with queueDepth().
+     */
+    public static SimulationMonitor start(String algorithm, int total_processes, int queue_count) {
+        SimulationMonitor monitor = new SimulationMonitor(algorithm, total_processes, queue_count);
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            monitor.jmx_name = new ObjectName("cpu.scheduling:type=Simulation,algorithm="
+                + ObjectName.quote(algorithm) + ",run=" + run_counter.incrementAndGet());
+            server.registerMBean(monitor, monitor.jmx_name);
+        } catch (JMException e) {
+            // not being visible in JMX is no reason to stop the simulation
+            monitor.jmx_name = null;
+        }
+        return monitor;
+    }
+
+
+    // The clock moved on to 'current_time'
+    public void tick(int current_time) {
+        simulated_time.lazySet(current_time);
+    }
+
+    // One more scheduling decision, with the queue depth after it
+    private void decision(int queue_depth) {
+        simulated_events.lazySet(simulated_events.get() + 1);
+        ready_queue_depth.lazySet(queue_depth);
+    }
+
+    // Ready queue 'queue' now has 'depth' processes in it
+    // (only for schedulers started with more than one queue)
+    public void queueDepth(int queue, int depth) {
+        queue_depths.lazySet(queue, depth);
+    }
+
+
+    // A process arrived and was put in a ready queue
+    public void arrival(Process p, int current_time, int queue_depth) {
+        decision(queue_depth);
+        SchedulerEvents.ArrivalEvent event = new SchedulerEvents.ArrivalEvent();
+        if (event.shouldCommit()) {
+            fill(event, p, current_time, queue_depth);
+            event.commit();
+        }
+    }
+
+    // A process was given the CPU
+    public void dispatch(Process p, int current_time, int queue_depth) {
+        decision(queue_depth);
+        SchedulerEvents.DispatchEvent event = new SchedulerEvents.DispatchEvent();
+        if (event.shouldCommit()) {
+            fill(event, p, current_time, queue_depth);
+            event.commit();
+        }
+    }
+
+    // A running process was put back in a ready queue for a better one
+    public void preemption(Process p, int current_time, int queue_depth) {
+        decision(queue_depth);
+        SchedulerEvents.PreemptionEvent event = new SchedulerEvents.PreemptionEvent();
+        if (event.shouldCommit()) {
+            fill(event, p, current_time, queue_depth);
+            event.commit();
+        }
+    }
+
+    // A running process used up its time quantum
+    public void quantumExpiry(Process p, int current_time, int queue_depth) {
+        decision(queue_depth);
+        SchedulerEvents.QuantumExpiryEvent event = new SchedulerEvents.QuantumExpiryEvent();
+        if (event.shouldCommit()) {
+            fill(event, p, current_time, queue_depth);
+            event.commit();
+        }
+    }
+
+    // A process finished
+    public void completion(Process p, int current_time, int queue_depth) {
+        decision(queue_depth);
+        processes_completed.lazySet(processes_completed.get() + 1);
+        SchedulerEvents.CompletionEvent event = new SchedulerEvents.CompletionEvent();
+        if (event.shouldCommit()) {
+            fill(event, p, current_time, queue_depth);
+            event.commit();
+        }
+    }
+
+    private static void fill(SchedulerEvents.DecisionEvent event, Process p, int current_time, int queue_depth) {
+        event.pid = p.label();
+        event.simulatedTime = current_time;
+        event.queueDepth = queue_depth;
+    }
+
+
+    /**
+     * Call this once, when the simulation run is over.
+     * It records the summary event (wall time and simulated events per second)
+     * and removes the run from JMX.
+     */
+    public void finish(int total_time) {
+        tick(total_time);
+        close();
+
+        SchedulerEvents.RunSummaryEvent event = new SchedulerEvents.RunSummaryEvent();
+        if (event.shouldCommit()) {
+            long wall_nanos = System.nanoTime() - start_nanos;
+            event.algorithm = algorithm;
+            event.processes = total_processes;
+            event.simulatedTicks = total_time;
+            event.simulatedEvents = simulated_events.get();
+            event.wallTime = wall_nanos;
+            event.eventsPerSecond = wall_nanos == 0 ? 0 : simulated_events.get() * 1e9 / wall_nanos;
+            event.commit();
+        }
+    }
+
+
+    /**
+     * Removes the run from JMX. finish() does this, and so does the end of a
+     * try-with-resources block, in case the run stopped with an exception.
+     * Calling it again does nothing.
+     */
+    @Override
+    public void close() {
+        if (jmx_name != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(jmx_name);
+            } catch (JMException e) {
+                // it's already gone, which is what we wanted anyway
+            }
+            jmx_name = null;
+        }
+    }
+
+
+    // --- What JMX shows (worked out only when someone reads it) ---
+
+    @Override
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    @Override
+    public long getSimulatedTime() {
+        return simulated_time.get();
+    }
+
+    @Override
+    public long getProcessesCompleted() {
+        return processes_completed.get();
+    }
+
+    @Override
+    public int getProcessesTotal() {
+        return total_processes;
+    }
+
+    @Override
+    public long getSimulatedEvents() {
+        return simulated_events.get();
+    }
+
+    @Override
+    public double getSimulatedEventsPerSecond() {
+        double seconds = getWallTimeSeconds();
+        return seconds == 0 ? 0 : simulated_events.get() / seconds;
+    }
+
+    @Override
+    public long getReadyQueueDepth() {
+        return ready_queue_depth.get();
+    }
+
+    @Override
+    public long[] getQueueDepths() {
+        long[] depths = new long[queue_depths.length()];
+        if (depths.length == 1) {
+            // a single ready queue is just the usual depth
+            depths[0] = ready_queue_depth.get();
+        } else {
+            for (int q = 0; q < depths.length; q++) {
+                depths[q] = queue_depths.get(q);
+            }
+        }
+        return depths;
+    }
+
+    @Override
+    public long getJvmHeapUsedBytes() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    @Override
+    public double getWallTimeSeconds() {
+        return (System.nanoTime() - start_nanos) / 1e9;
+    }
+}
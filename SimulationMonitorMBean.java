@@ -0,0 +1,31 @@
+// The values a running simulation shows over JMX (e.g. in JConsole or VisualVM).
+// Java finds this interface by its name: it has to be the class name + "MBean".
+public interface SimulationMonitorMBean {
+
+    // Which scheduler is running, e.g. "RR"
+    String getAlgorithm();
+
+    // The simulation clock, in ticks
+    long getSimulatedTime();
+
+    long getProcessesCompleted();
+
+    int getProcessesTotal();
+
+    // Arrivals + dispatches + preemptions + quantum expiries + completions so far
+    long getSimulatedEvents();
+
+    // Simulated events per second of real (wall-clock) time, since the run started
+    double getSimulatedEventsPerSecond();
+
+    // How many processes were waiting in the ready queue(s) at the last decision
+    long getReadyQueueDepth();
+
+    // The same, for each ready queue on its own (e.g. one entry per MLQ level)
+    long[] getQueueDepths();
+
+    // The used heap of the whole JVM (not just this run)
+    long getJvmHeapUsedBytes();
+
+    double getWallTimeSeconds();
+}
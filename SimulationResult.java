@@ -0,0 +1,16 @@
+import java.util.List;
+
+// This class just bundles together everything a finished simulation produced,
+// so a scheduler can hand its results back instead of printing them straight away.
+public class SimulationResult {
+
+    List<Process> completed_processes; // every process, with its completion/waiting/turnaround filled in
+    int total_time;                    // how many ticks the simulation took
+    GanttLog gantt_chart_log;          // what was on the CPU at each tick
+
+    public SimulationResult(List<Process> completed_processes, int total_time, GanttLog gantt_chart_log) {
+        this.completed_processes = completed_processes;
+        this.total_time = total_time;
+        this.gantt_chart_log = gantt_chart_log;
+    }
+}
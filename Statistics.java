@@ -1,14 +1,39 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Comparator;
 
 public class Statistics {
 
+    // Charts with more blocks than this are written to GANTT_HTML_FILE instead of printed
+    static final int MAX_TEXT_BLOCKS = 200;
+    static final String GANTT_HTML_FILE = "gantt.html";
+
+    // Set to false to run a scheduler without printing its results
+    // (ResultAggregates.runComparison only wants the numbers)
+    static boolean print_results = true;
+
+    /**
+     * Prints the "Running ..." line a scheduler starts with, unless print_results
+     * is off (then the scheduler is being run just for its numbers).
+     */
+    static void printHeader(String header) {
+        if (print_results) {
+            System.out.println(header);
+        }
+    }
+
+    // The Gantt log of the last run that was printed, so the menu can ask about it
+    static GanttLog last_gantt_chart_log = null;
+
     /**
      * Prints the Gantt chart in a compressed format.
      * The 'gantt_chart' is a simple list like [P1, P1, P1, P2, P2, IDLE, P3]
+     * (stored as PidTable ids, so it's really numbers like [1, 1, 1, 2, 2, 0, 3])
      * This function compresses it into: | P1 (0-3) | P2 (3-5) | [IDLE] (5-6) | P3 (6-7) |
      */
-    private static void printGanttChart(List<String> gantt_chart) {
+    private static void printGanttChart(GanttLog gantt_chart) {
         System.out.println("\n--- Gantt Chart ---");
         // If the log is empty for some reason, just stop.
         if (gantt_chart.isEmpty()) {
@@ -16,21 +41,41 @@ public class Statistics {
             return;
         }
 
+        // A one-line chart with hundreds of blocks can't be read anyway,
+        // so for big charts we draw a picture in an HTML file instead
+        int blocks = 1;
+        for (int i = 1; i < gantt_chart.size(); i++) {
+            if (gantt_chart.get(i) != gantt_chart.get(i - 1)) {
+                blocks++;
+            }
+        }
+        if (blocks > MAX_TEXT_BLOCKS) {
+            try {
+                GanttRenderer.exportHtml(gantt_chart, GANTT_HTML_FILE);
+                System.out.println(blocks + " blocks is too many to print, so the chart was written to "
+                    + GANTT_HTML_FILE);
+                return;
+            } catch (IOException e) {
+                // if we can't write the file, fall back to printing the text chart
+                System.err.println("WARNING: Could not write " + GANTT_HTML_FILE + ": " + e.getMessage());
+            }
+        }
+
         // We'll loop through the log, so we need to remember the last process we saw.
-        String last_pid = gantt_chart.get(0); // Get the very first entry
+        int last_pid = gantt_chart.get(0); // Get the very first entry
         int start_time = 0; // All charts start at time 0
 
         // loop to find blocks of the same process, starting from the second item (index 1)
         for (int i = 1; i < gantt_chart.size(); i++) {
-            String current_pid = gantt_chart.get(i);
+            int current_pid = gantt_chart.get(i);
             
             // check if the process ID has changed (e.g., from "P1" to "P2")
-            if (!current_pid.equals(last_pid)) {
+            if (current_pid != last_pid) {
 
                 // if it changed, it means the last process's block has ended.
                 // so, we print the block for 'last_pid'
                 // the block started at 'start_time' and ended at 'i'
-                System.out.printf("| %s (%d-%d) ", last_pid, start_time, i);
+                System.out.printf("| %s (%d-%d) ", PidTable.name(last_pid), start_time, i);
 
                 // Now, update our variables for the new block
                 last_pid = current_pid;
@@ -43,7 +88,7 @@ public class Statistics {
         
         // After the loop finishes, there's always one last block left to print
         // (the very last process that was running)
-        System.out.printf("| %s (%d-%d) |\n", last_pid, start_time, gantt_chart.size());
+        System.out.printf("| %s (%d-%d) |\n", PidTable.name(last_pid), start_time, gantt_chart.size());
     }
 
 
@@ -53,13 +98,20 @@ public class Statistics {
      * Main function to print all results.
      * It's called by the Schedulers class when a simulation is finished.
      */
-    public static void printResults(List<Process> completed_processes, int total_time, List<String> gantt_chart_log) {
+    public static void printResults(List<Process> completed_processes, int total_time, GanttLog gantt_chart_log) {
+        if (!print_results) {
+            return;
+        }
+        last_gantt_chart_log = gantt_chart_log;
         
         // First, call our helper function to print the Gantt chart
         printGanttChart(gantt_chart_log);
 
-        // Sort the list by PID (P1, P2, P3...) just to make the table look clean
-        completed_processes.sort(Comparator.comparing(p -> p.pid));
+        // Sort the list by PID (P1, P2, ... P10) just to make the table look clean.
+        // PidTable has already worked out the order, so this only compares numbers.
+        int[] rank = PidTable.ranks();
+        // (The jobs of one periodic task share its PID, so they go in job order.)
+        completed_processes.sort(Comparator.comparingInt((Process p) -> rank[p.id]).thenComparingInt(p -> p.job));
 
         System.out.println("\n--- Final Results ---");
         System.out.println("PID\tArrival\tBurst\tPriority\tCompletion\tTurnaround\tWaiting");
@@ -74,7 +126,7 @@ public class Statistics {
         for (Process p : completed_processes) {
             // Print its data in a formatted way. '\t' just adds a tab.
             System.out.printf("%s\t%d\t%d\t%d\t\t%d\t\t%d\t\t%d\n",
-                p.pid, p.arrival_time, p.burst_time, p.priority,
+                p.label(), p.arrival_time, p.burst_time, p.priority,
                 p.completion_time, p.turnaround_time, p.waiting_time);
             
             // Add this process's times to our running totals
@@ -90,4 +142,318 @@ public class Statistics {
         System.out.println("Total Time (Simulation Ticks): " + total_time);
     }
 
+
+    /**
+     * Prints just the averages, for workloads far too big for a Gantt chart
+     * or a table with a row per process (see WorkloadStore).
+     */
+    public static void printSummary(long n, long total_wait, long total_turnaround, long total_time) {
+        System.out.println("\n--- Final Results ---");
+        System.out.println("Processes: " + n);
+        System.out.printf("Average Waiting Time: %.2f\n", n == 0 ? 0.0 : (double) total_wait / n);
+        System.out.printf("Average Turnaround Time: %.2f\n", n == 0 ? 0.0 : (double) total_turnaround / n);
+        System.out.println("Total Time (Simulation Ticks): " + total_time);
+    }
+
+
+    /**
+     * Prints how each level of a Multi-Level Queue run did: how long its processes
+     * waited, their turnaround, and what share of the run's time the CPU spent on it.
+     */
+    public static void printLevelResults(MultiLevelQueue config, List<Process> completed_processes, int total_time) {
+        int levels = config.size();
+        long[] count = new long[levels];
+        long[] total_wait = new long[levels];
+        long[] max_wait = new long[levels];
+        long[] total_turnaround = new long[levels];
+        long[] busy = new long[levels];
+        for (Process p : completed_processes) {
+            int l = config.levelOf(p.priority);
+            count[l]++;
+            total_wait[l] += p.waiting_time;
+            max_wait[l] = Math.max(max_wait[l], p.waiting_time);
+            total_turnaround[l] += p.turnaround_time;
+            busy[l] += p.burst_time;   // every process ran for its whole burst
+        }
+
+        System.out.println("\n--- Results per Level (" + config.dispatch.name().toLowerCase() + ") ---");
+        System.out.printf("%-6s %-10s %-10s %7s %10s %10s %10s %10s %10s\n",
+            "Level", "Priority", "Policy", "Weight", "Processes", "Avg Wait", "Max Wait", "Avg TAT", "CPU Share");
+        for (int l = 0; l < levels; l++) {
+            MultiLevelQueue.Level level = config.level(l);
+            double n = Math.max(1, count[l]);
+            System.out.printf("%-6d %-10s %-10s %7s %10d %10.2f %10d %10.2f %9.2f%%\n",
+                l, level.range(), level.describe(),
+                config.dispatch == MultiLevelQueue.Dispatch.WEIGHTED ? String.valueOf(level.weight) : "-",
+                count[l], total_wait[l] / n, max_wait[l], total_turnaround[l] / n,
+                100.0 * busy[l] / Math.max(1, total_time));
+        }
+    }
+
+
+    /**
+     * Prints the results of a multi-CPU run (see ParallelSimulation): the averages
+     * over all processes, then one line per CPU (at most 32 of them).
+     */
+    public static void printMultiCpuResults(List<Process> completed_processes, ParallelSimulation.Result result) {
+        long total_wait = 0;
+        long total_turnaround = 0;
+        for (Process p : completed_processes) {
+            total_wait += p.waiting_time;
+            total_turnaround += p.turnaround_time;
+        }
+        printSummary(completed_processes.size(), total_wait, total_turnaround, result.total_time);
+
+        int cpus = result.busy_ticks.length;
+        long busy = 0;
+        long migrations = 0;
+        for (int c = 0; c < cpus; c++) {
+            busy += result.busy_ticks[c];
+            migrations += result.migrations_in[c];
+        }
+        double total_ticks = Math.max(1, (long) result.total_time * cpus);
+        System.out.printf("CPUs: %d   Overall Utilization: %.2f%%   Migrations: %d\n",
+            cpus, 100 * busy / total_ticks, migrations);
+
+        System.out.println("\nCPU\tCompleted\tUtilization\tMigrated In\tMigrated Out");
+        int shown = Math.min(cpus, 32);
+        for (int c = 0; c < shown; c++) {
+            System.out.printf("%d\t%d\t\t%.2f%%\t\t%d\t\t%d\n", c, result.completed[c],
+                100.0 * result.busy_ticks[c] / Math.max(1, result.total_time),
+                result.migrations_in[c], result.migrations_out[c]);
+        }
+        if (cpus > shown) {
+            System.out.println("... and " + (cpus - shown) + " more CPUs");
+        }
+    }
+
+
+    /**
+     * Prints how the time quantum of an adaptive Round Robin run changed.
+     * Each entry of 'quantum_history' is {time, new quantum}.
+     */
+    public static void printQuantumHistory(List<int[]> quantum_history) {
+        System.out.println("\n--- Time Quantum Changes ---");
+        // a very long run could change it thousands of times, so only show the start
+        int shown = Math.min(quantum_history.size(), 50);
+        for (int i = 0; i < shown; i++) {
+            int[] change = quantum_history.get(i);
+            System.out.printf("| t=%d: %d ", change[0], change[1]);
+        }
+        System.out.println("|");
+        if (quantum_history.size() > shown) {
+            System.out.println("... and " + (quantum_history.size() - shown) + " more changes");
+        }
+
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        for (int[] change : quantum_history) {
+            min = Math.min(min, change[1]);
+            max = Math.max(max, change[1]);
+        }
+        System.out.println("Quantum changed " + quantum_history.size() + " times (between "
+            + min + " and " + max + " ticks).");
+    }
+
+
+    /**
+     * Prints a table comparing several algorithms on the same workload.
+     * waiting[a] and turnaround[a] hold every process's times under algorithms[a]
+     * (in the same process order for every algorithm).
+     */
+    public static void printComparison(String[] algorithms, int[][] waiting, int[][] turnaround, int threshold) {
+        long[] best_waiting = new long[algorithms.length];
+        long[] best_turnaround = new long[algorithms.length];
+        ResultAggregates[] wait = ResultAggregates.compare(waiting, threshold, best_waiting);
+        ResultAggregates[] tat = ResultAggregates.compare(turnaround, Integer.MAX_VALUE, best_turnaround);
+
+        System.out.println("\n--- Algorithm Comparison ---");
+        System.out.printf("%-12s %10s %8s %8s %9s %10s %10s %8s %9s %10s\n",
+            "Algorithm", "Avg Wait", "Min", "Max", "Std Dev", "Wait > " + threshold,
+            "Avg TAT", "Max TAT", "Std Dev", "Best Wait");
+        System.out.println("----------------------------------------------------------------------------------------------------");
+        for (int a = 0; a < algorithms.length; a++) {
+            System.out.printf("%-12s %10.2f %8d %8d %9.2f %10d %10.2f %8d %9.2f %10d\n",
+                algorithms[a], wait[a].mean(), wait[a].min, wait[a].max, wait[a].standardDeviation(),
+                wait[a].above_threshold, tat[a].mean(), tat[a].max, tat[a].standardDeviation(),
+                best_waiting[a]);
+        }
+        System.out.println("----------------------------------------------------------------------------------------------------");
+        System.out.println("Best Wait = how many processes waited the least (or tied) under that algorithm.");
+    }
+
+
+    /**
+     * Prints how well the deadlines were met after a real-time (EDF / RM) run:
+     * the deadline-miss ratio and the lateness percentiles.
+     * Lateness = completion time - deadline, so a negative number means "finished early".
+     */
+    public static void printDeadlineResults(List<Process> completed_processes) {
+        System.out.println("\n--- Deadline Results ---");
+
+        // We only look at the processes that actually had a deadline
+        List<Integer> lateness = new ArrayList<>();
+        int misses = 0;
+        for (Process p : completed_processes) {
+            int deadline = Schedulers.absoluteDeadline(p);
+            if (deadline == Integer.MAX_VALUE) {
+                continue;
+            }
+            lateness.add(p.completion_time - deadline);
+            if (p.completion_time > deadline) {
+                misses++;
+            }
+        }
+
+        if (lateness.isEmpty()) {
+            System.out.println("No process had a deadline.");
+            return;
+        }
+
+        Collections.sort(lateness);
+        System.out.printf("Deadline Misses: %d of %d (%.2f%%)\n",
+            misses, lateness.size(), 100.0 * misses / lateness.size());
+        System.out.printf("Lateness p50: %d  p90: %d  p99: %d  max: %d\n",
+            percentile(lateness, 50), percentile(lateness, 90),
+            percentile(lateness, 99), lateness.get(lateness.size() - 1));
+    }
+
+    // Returns the value that 'percent' % of the (sorted) list is less than or equal to
+    private static int percentile(List<Integer> sorted, int percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.size());
+        return sorted.get(Math.max(rank, 1) - 1);
+    }
+
+
+    /**
+     * Checks BEFORE a run whether the periodic tasks can meet all their deadlines.
+     * - EDF: the tasks fit if the CPU utilization (sum of burst / period) is at most 1.
+     * - RM: the tasks surely fit under the Liu & Layland bound n * (2^(1/n) - 1).
+     *   Above that bound we work out each task's worst-case response time instead.
+     */
+    public static void printSchedulability(List<Process> processes, boolean rate_monotonic) {
+        System.out.println("\n--- Schedulability Check ---");
+
+        // Only periodic tasks take part in the check
+        List<Process> tasks = new ArrayList<>();
+        double utilization = 0;
+        double density = 0;
+        boolean implicit_deadlines = true;
+        for (Process p : processes) {
+            if (p.period > 0) {
+                tasks.add(p);
+                utilization += (double) p.burst_time / p.period;
+                int deadline = p.deadline > 0 ? Math.min(p.deadline, p.period) : p.period;
+                density += (double) p.burst_time / deadline;
+                if (deadline < p.period) {
+                    implicit_deadlines = false;
+                }
+            }
+        }
+
+        if (tasks.isEmpty()) {
+            System.out.println("No periodic tasks, so there is nothing to check.");
+            return;
+        }
+        int n = tasks.size();
+        System.out.printf("Periodic Tasks: %d   CPU Utilization: %.3f\n", n, utilization);
+
+        if (utilization > 1) {
+            System.out.println("NOT schedulable: the tasks need more than 100% of the CPU.");
+            return;
+        }
+
+        if (!rate_monotonic) {
+            // EDF is optimal: with deadline = period, U <= 1 is all we need
+            if (implicit_deadlines || density <= 1) {
+                System.out.println("Schedulable under EDF.");
+            } else {
+                System.out.printf("Density %.3f is above 1, so EDF may miss deadlines.\n", density);
+            }
+            return;
+        }
+
+        double bound = n * (Math.pow(2, 1.0 / n) - 1);
+        System.out.printf("Liu & Layland Bound: %.3f\n", bound);
+        if (implicit_deadlines && utilization <= bound) {
+            System.out.println("Schedulable under RM (below the utilization bound).");
+            return;
+        }
+
+        // Response time analysis: a task's worst response time R is its own burst
+        // plus every higher-priority job that can be released while it waits:
+        //   R = C + sum over higher-priority tasks j of ceil(R / Tj) * Cj
+        // We repeat that until R stops changing (or passes the deadline).
+        // When a deadline is longer than the period, one job isn't enough to look at
+        // (see worstResponseTime), so those tasks get the "busy period" version.
+        tasks.sort(Comparator.comparingInt(p -> p.period));
+        boolean schedulable = true;
+        for (int i = 0; i < n; i++) {
+            Process task = tasks.get(i);
+            int deadline = task.deadline > 0 ? task.deadline : task.period;
+            long response = worstResponseTime(tasks, i, deadline);
+            System.out.printf("%s\tWorst-Case Response: %s\tDeadline: %d\n", task.pid(),
+                response <= deadline ? String.valueOf(response) : "> " + deadline, deadline);
+            if (response > deadline) {
+                schedulable = false;
+            }
+        }
+        System.out.println(schedulable ? "Schedulable under RM (response time analysis)."
+                                       : "NOT schedulable under RM.");
+    }
+
+    // The worst-case response time of tasks[i] under RM, where 'tasks' is sorted by
+    // period (so tasks 0 .. i-1 are the higher-priority ones). It stops early and
+    // returns something above 'deadline' as soon as one job is found to miss it.
+    //
+    // If the deadline is longer than the period, a job may still be running when the
+    // task's next job is released, and then that next job has to wait for it too. So
+    // the worst case isn't always the first job. Instead we look at every job in the
+    // "level-i busy period": the time, starting with all tasks released together, that
+    // the CPU stays busy with task i and the higher-priority tasks. Job q (0, 1, ...)
+    // of it finishes at the smallest w with
+    //   w = (q + 1) * Ci + sum over higher-priority tasks j of ceil(w / Tj) * Cj
+    // and its response time is w - q * Ti. (With deadline <= period, the busy period
+    // only has one job, so this is the same as the simple formula.)
+    static long worstResponseTime(List<Process> tasks, int i, int deadline) {
+        Process task = tasks.get(i);
+
+        // 1. How long the busy period is: the same kind of sum, but it counts
+        //    every job of task i released in it too
+        long busy = 0;
+        for (int j = 0; j <= i; j++) {
+            busy += tasks.get(j).burst_time;
+        }
+        long previous = -1;
+        while (busy != previous) {
+            previous = busy;
+            busy = 0;
+            for (int j = 0; j <= i; j++) {
+                Process t = tasks.get(j);
+                busy += (previous + t.period - 1) / t.period * t.burst_time;
+            }
+        }
+
+        // 2. The worst response time of the jobs released in it
+        long jobs = (busy + task.period - 1) / task.period;
+        long worst = 0;
+        for (long q = 0; q < jobs; q++) {
+            long finish = (q + 1) * task.burst_time;
+            previous = -1;
+            while (finish != previous) {
+                previous = finish;
+                finish = (q + 1) * task.burst_time;
+                for (int j = 0; j < i; j++) {
+                    Process higher = tasks.get(j);
+                    finish += (previous + higher.period - 1) / higher.period * higher.burst_time;
+                }
+                if (finish - q * task.period > deadline) {
+                    return finish - q * task.period;   // this job misses its deadline
+                }
+            }
+            worst = Math.max(worst, finish - q * task.period);
+        }
+        return worst;
+    }
+
 }
\ No newline at end of file
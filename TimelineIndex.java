@@ -0,0 +1,228 @@
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Scanner;
+
+// An index over a finished run's Gantt log, for questions like
+//   "who was on the CPU at t=120?"
+//   "how busy was the CPU between t=100 and t=200?"
+//   "how long did P42 run between t=100 and t=200?"
+// without walking the log tick by tick every time.
+//
+// The log is cut into segments (runs of the same process), and we keep:
+//   - the start time of every segment, so a binary search finds the segment at any time
+//   - how many busy ticks came before every segment ("prefix sums"), so the busy
+//     time up to any t is one lookup, and a range is the difference of two lookups
+//   - the same two things per process, for that process's own segments
+// Building it is one pass over the log; every query is O(log n).
+public class TimelineIndex {
+
+    private final int total_time;
+
+    // segment k covers ticks [segment_start[k], segment_start[k + 1]) and runs segment_pid[k]
+    private final int[] segment_start;
+    private final int[] segment_pid;
+    // busy_before[k] = how many busy (non-IDLE) ticks there were before segment k
+    private final long[] busy_before;
+
+    // Each process's segments, all in one array and grouped by process:
+    // process 'id' owns entries process_offset[id] .. process_offset[id + 1] - 1.
+    private final int[] process_offset;
+    private final int[] process_start;     // start of each of its segments
+    private final int[] process_end;       // end of each of its segments
+    private final long[] process_before;   // how long it ran before each of its segments
+
+
+    /**
+     * Builds the index for a run's Gantt log.
+     */
+    public TimelineIndex(GanttLog gantt_chart_log) {
+        total_time = gantt_chart_log.size();
+
+        // --- 1. Cut the log into segments ---
+        int segments = 0;
+        for (int t = 0; t < total_time; t++) {
+            if (t == 0 || gantt_chart_log.get(t) != gantt_chart_log.get(t - 1)) {
+                segments++;
+            }
+        }
+        segment_start = new int[segments];
+        segment_pid = new int[segments];
+        busy_before = new long[segments + 1];
+        int k = -1;
+        for (int t = 0; t < total_time; t++) {
+            int id = gantt_chart_log.get(t);
+            if (t == 0 || id != gantt_chart_log.get(t - 1)) {
+                k++;
+                segment_start[k] = t;
+                segment_pid[k] = id;
+            }
+        }
+        for (k = 0; k < segments; k++) {
+            long length = segmentEnd(k) - segment_start[k];
+            busy_before[k + 1] = busy_before[k] + (segment_pid[k] == PidTable.IDLE ? 0 : length);
+        }
+
+        // --- 2. Group the segments by process (a counting sort keeps them in time order) ---
+        int ids = PidTable.size();
+        process_offset = new int[ids + 1];
+        for (k = 0; k < segments; k++) {
+            process_offset[segment_pid[k] + 1]++;
+        }
+        for (int id = 0; id < ids; id++) {
+            process_offset[id + 1] += process_offset[id];
+        }
+        process_start = new int[segments];
+        process_end = new int[segments];
+        process_before = new long[segments];
+        int[] next = Arrays.copyOf(process_offset, ids);
+        for (k = 0; k < segments; k++) {
+            int id = segment_pid[k];
+            int position = next[id]++;
+            process_start[position] = segment_start[k];
+            process_end[position] = segmentEnd(k);
+            // the previous entry of the same process is right before this one
+            process_before[position] = position == process_offset[id] ? 0
+                : process_before[position - 1] + process_end[position - 1] - process_start[position - 1];
+        }
+    }
+
+    private int segmentEnd(int k) {
+        return k + 1 < segment_start.length ? segment_start[k + 1] : total_time;
+    }
+
+    public int totalTime() {
+        return total_time;
+    }
+
+
+    // --- Queries ---
+
+    /**
+     * Returns the id of the process on the CPU during tick 't'
+     * (PidTable.IDLE if it was free, or if 't' is outside the run).
+     */
+    public int whoAt(int t) {
+        if (t < 0 || t >= total_time) {
+            return PidTable.IDLE;
+        }
+        return segment_pid[segmentAt(t)];
+    }
+
+    /**
+     * Returns how busy the CPU was during ticks [from, to), between 0 and 1.
+     */
+    public double utilization(int from, int to) {
+        from = clamp(from);
+        to = clamp(to);
+        if (to <= from) {
+            return 0;
+        }
+        return (double) (busyBefore(to) - busyBefore(from)) / (to - from);
+    }
+
+    /**
+     * Returns how many ticks process 'id' ran during ticks [from, to).
+     */
+    public long cpuTime(int id, int from, int to) {
+        if (id <= PidTable.IDLE || id + 1 >= process_offset.length) {
+            return 0;   // not a process, or one that didn't exist when the index was built
+        }
+        from = clamp(from);
+        to = clamp(to);
+        if (to <= from) {
+            return 0;
+        }
+        return ranBefore(id, to) - ranBefore(id, from);
+    }
+
+
+    // The index of the segment that contains tick 't' (the last one starting at or before it)
+    private int segmentAt(int t) {
+        int k = Arrays.binarySearch(segment_start, t);
+        return k >= 0 ? k : -k - 2;
+    }
+
+    // How many busy ticks there were before time 't'
+    private long busyBefore(int t) {
+        if (t >= total_time) {
+            return busy_before[segment_start.length];
+        }
+        int k = segmentAt(t);
+        long inside = segment_pid[k] == PidTable.IDLE ? 0 : t - segment_start[k];
+        return busy_before[k] + inside;
+    }
+
+    // How many ticks process 'id' ran before time 't'
+    private long ranBefore(int id, int t) {
+        int first = process_offset[id];
+        int last = process_offset[id + 1];   // one past its last segment
+        // find its last segment starting before 't'
+        int j = Arrays.binarySearch(process_start, first, last, t);
+        j = j >= 0 ? j - 1 : -j - 2;
+        if (j < first) {
+            return 0;
+        }
+        return process_before[j] + Math.min(t, process_end[j]) - process_start[j];
+    }
+
+    private int clamp(int t) {
+        return Math.max(0, Math.min(t, total_time));
+    }
+
+
+    /**
+     * Lets the user ask questions about the last run's timeline from the menu.
+     */
+    public static void runInteractive(GanttLog gantt_chart_log, Scanner scanner) {
+        if (gantt_chart_log == null) {
+            System.out.println("\nRun an algorithm first, then ask about its timeline.");
+            return;
+        }
+        TimelineIndex index = new TimelineIndex(gantt_chart_log);
+        System.out.println("\nTimeline of the last run: " + index.totalTime() + " ticks, "
+            + index.segment_start.length + " segments.");
+
+        while (true) {
+            System.out.println("\nAsk about the timeline:");
+            System.out.println("  at <time>              (who was on the CPU)");
+            System.out.println("  util <from> <to>       (CPU utilization)");
+            System.out.println("  cpu <pid> <from> <to>  (how long a process ran)");
+            System.out.println("  chart <from> <to>      (draw just that part, tick by tick, in " + Statistics.GANTT_HTML_FILE + ")");
+            System.out.println("  done");
+            System.out.print("> ");
+            String command = scanner.next();
+
+            if (command.equals("at")) {
+                int t = scanner.nextInt();
+                System.out.println("t=" + t + ": " + PidTable.name(index.whoAt(t)));
+            } else if (command.equals("util")) {
+                int from = scanner.nextInt();
+                int to = scanner.nextInt();
+                System.out.printf("Utilization %d-%d: %.2f%%\n", from, to, 100 * index.utilization(from, to));
+            } else if (command.equals("cpu")) {
+                String pid = scanner.next();
+                int from = scanner.nextInt();
+                int to = scanner.nextInt();
+                System.out.println(pid + " ran " + index.cpuTime(PidTable.find(pid), from, to)
+                    + " ticks during " + from + "-" + to);
+            } else if (command.equals("chart")) {
+                int from = Math.max(scanner.nextInt(), 0);
+                int to = Math.min(scanner.nextInt(), index.totalTime());
+                if (from >= to) {
+                    System.out.println("Error: The range must be inside 0-" + index.totalTime() + ".");
+                    continue;
+                }
+                try {
+                    GanttRenderer.exportHtml(gantt_chart_log, Statistics.GANTT_HTML_FILE, from, to);
+                    System.out.println("Ticks " + from + "-" + to + " were written to " + Statistics.GANTT_HTML_FILE);
+                } catch (IOException e) {
+                    System.out.println("Error: Could not write " + Statistics.GANTT_HTML_FILE + ": " + e.getMessage());
+                }
+            } else if (command.equals("done")) {
+                return;
+            } else {
+                System.out.println("Unknown command: " + command);
+            }
+        }
+    }
+}
@@ -0,0 +1,373 @@
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+// This class turns a real Linux scheduler trace into an input file for the simulator.
+//
+// It understands the text output of "perf sched script" and of ftrace
+// (the sched_switch / sched_wakeup events in /sys/kernel/tracing/trace), e.g.
+//
+//   bash-1234  [001] d..3  5061.332110: sched_switch: prev_comm=bash prev_pid=1234 prev_prio=120 prev_state=S ==> next_comm=swapper/1 next_pid=0 next_prio=120
+//   bash  1234 [001]  5061.332110: sched:sched_switch: bash:1234 [120] S ==> swapper/1:0 [120]
+//
+// Every CPU burst becomes one process: it "arrives" when the task wakes up and its
+// burst time is how long it was on a CPU until it went to sleep again.
+// A task that woke up 3 times becomes "bash-1234#1", "bash-1234#2" and "bash-1234#3".
+//
+// A comm (the kernel's name for a task) can have spaces and colons in it, like
+// "Web Content" or "kworker/0:1", so it is always found by reading from the right.
+// Both files are UTF-8, so comms with non-ASCII characters survive the trip.
+//
+// The trace is read one line at a time and each burst is written out as soon as it
+// ends. All we remember is a few numbers per kernel PID (and there can only ever be
+// pid_max of those), so even a multi-GB trace needs very little memory.
+public class TraceImporter {
+
+    // Everything we need to know about one task
+    private static class TaskState {
+        String name;             // "comm-pid", e.g. "bash-1234"
+        int priority;            // the kernel priority (lower number = higher priority)
+        long burst_start = -1;   // when this burst started (microseconds), -1 = asleep
+        long on_cpu_since = -1;  // when it was last switched onto a CPU, -1 = not on a CPU
+        long cpu_time;           // how long it has been on a CPU during this burst
+        int burst_count;         // how many bursts we have written for this task so far
+    }
+
+    // Every task we have seen, by kernel PID. Sleeping tasks stay in here
+    // (with burst_start = -1) so their burst numbers keep counting up.
+    private final Map<Integer, TaskState> tasks = new HashMap<>();
+
+    private final PrintWriter out;
+    private final long tick_us;   // how many microseconds one simulator tick is
+    private long first_timestamp = -1;
+    private long last_timestamp = -1;
+
+    // What the kernel actually did, so it can be compared with the simulator
+    long bursts_written = 0;
+    long kernel_total_wait_us = 0;
+    long kernel_total_turnaround_us = 0;
+    long lines_skipped = 0;
+
+
+    private TraceImporter(PrintWriter out, long tick_us) {
+        this.out = out;
+        this.tick_us = tick_us;
+    }
+
+
+    /**
+     * Reads 'trace_file' and writes one "PID, ArrivalTime, BurstTime, Priority" line
+     * per CPU burst to 'output_file'. 'tick_us' is the length of one tick in microseconds.
+     */
+    public static TraceImporter importTrace(String trace_file, String output_file, long tick_us) throws IOException {
+        // (a byte that isn't valid UTF-8 becomes a replacement character instead of an error)
+        try (BufferedReader in = new BufferedReader(
+                 new InputStreamReader(new FileInputStream(trace_file), StandardCharsets.UTF_8), 1 << 16);
+             PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(output_file), StandardCharsets.UTF_8))) {
+
+            out.println("# Imported from " + trace_file + " (1 tick = " + tick_us + " us)");
+            out.println("# PID, ArrivalTime, BurstTime, Priority");
+
+            TraceImporter importer = new TraceImporter(out, tick_us);
+            String line;
+            while ((line = in.readLine()) != null) {
+                importer.parseLine(line);
+            }
+            importer.finish();
+
+            // Write down what the kernel did, as comments, so the two can be compared later
+            if (importer.bursts_written > 0) {
+                out.printf("# Kernel Average Waiting Time: %.2f ticks\n",
+                    (double) importer.kernel_total_wait_us / tick_us / importer.bursts_written);
+                out.printf("# Kernel Average Turnaround Time: %.2f ticks\n",
+                    (double) importer.kernel_total_turnaround_us / tick_us / importer.bursts_written);
+            }
+            return importer;
+        }
+    }
+
+
+    // Works out which event a line is and hands it to the right function
+    private void parseLine(String line) {
+        String event;
+        int event_index;
+        if ((event_index = line.indexOf("sched_switch:")) >= 0) {
+            event = "sched_switch";
+        } else if ((event_index = line.indexOf("sched_wakeup_new:")) >= 0) {
+            event = "sched_wakeup_new";
+        } else if ((event_index = line.indexOf("sched_wakeup:")) >= 0) {
+            event = "sched_wakeup";
+        } else {
+            // any other line (headers, other events) is ignored
+            return;
+        }
+
+        long timestamp = parseTimestamp(line, event_index);
+        if (timestamp < 0) {
+            lines_skipped++;
+            return;
+        }
+        if (first_timestamp < 0) {
+            first_timestamp = timestamp;
+        }
+        last_timestamp = Math.max(last_timestamp, timestamp);
+
+        String payload = line.substring(event_index + event.length() + 1).trim();
+        try {
+            if (event.equals("sched_switch")) {
+                parseSwitch(payload, timestamp);
+            } else {
+                parseWakeup(payload, timestamp);
+            }
+        } catch (RuntimeException e) {
+            // a line we can't understand shouldn't stop the whole import
+            lines_skipped++;
+        }
+    }
+
+    // The timestamp is the "seconds.fraction:" token just before the event name.
+    // We turn it into whole microseconds without going through a double,
+    // so long traces don't lose precision.
+    private static long parseTimestamp(String line, int event_index) {
+        int end = line.lastIndexOf(':', event_index - 1);
+        // perf writes "sched:sched_switch", so skip over the "sched:" part
+        if (end >= 0 && line.startsWith("sched", end - 5) && end + 1 == event_index) {
+            end = line.lastIndexOf(':', end - 1);
+        }
+        if (end < 0) {
+            return -1;
+        }
+        int start = line.lastIndexOf(' ', end - 1) + 1;
+        String token = line.substring(start, end);
+        int dot = token.indexOf('.');
+        try {
+            if (dot < 0) {
+                return Long.parseLong(token) * 1_000_000;
+            }
+            long seconds = Long.parseLong(token.substring(0, dot));
+            String fraction = (token.substring(dot + 1) + "000000").substring(0, 6);
+            return seconds * 1_000_000 + Long.parseLong(fraction);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+
+    // sched_switch: one task leaves a CPU and another one gets it
+    private void parseSwitch(String payload, long timestamp) {
+        int arrow = payload.indexOf("==>");
+        String prev = payload.substring(0, arrow).trim();
+        String next = payload.substring(arrow + 3).trim();
+
+        int prev_pid, next_pid, prev_prio, next_prio;
+        String prev_comm, next_comm, prev_state;
+        if (prev.contains("prev_pid=")) {
+            // ftrace style: key=value pairs
+            prev_comm = field(prev, "prev_comm=", "prev_pid=");
+            prev_pid = Integer.parseInt(field(prev, "prev_pid="));
+            prev_prio = Integer.parseInt(field(prev, "prev_prio="));
+            prev_state = field(prev, "prev_state=");
+            next_comm = field(next, "next_comm=", "next_pid=");
+            next_pid = Integer.parseInt(field(next, "next_pid="));
+            next_prio = Integer.parseInt(field(next, "next_prio="));
+        } else {
+            // perf style: "comm:pid [prio] state ==> comm:pid [prio]"
+            String[] p = perfTask(prev);
+            String[] n = perfTask(next);
+            prev_comm = p[0];
+            prev_pid = Integer.parseInt(p[1]);
+            prev_prio = Integer.parseInt(p[2]);
+            prev_state = p[3];
+            next_comm = n[0];
+            next_pid = Integer.parseInt(n[1]);
+            next_prio = Integer.parseInt(n[2]);
+        }
+
+        // --- The previous task leaves the CPU ---
+        // (PID 0 is the idle task, which isn't a real process)
+        if (prev_pid != 0) {
+            TaskState task = taskFor(prev_pid, prev_comm, prev_prio);
+            if (task.on_cpu_since >= 0) {
+                task.cpu_time += timestamp - task.on_cpu_since;
+                task.on_cpu_since = -1;
+            }
+            // "R" means it was preempted and still wants the CPU, so the burst goes on.
+            // Anything else (sleeping, waiting for I/O, exiting) ends the burst.
+            if (!prev_state.startsWith("R")) {
+                endBurst(task, timestamp);
+            }
+        }
+
+        // --- The next task gets the CPU ---
+        if (next_pid != 0) {
+            TaskState task = taskFor(next_pid, next_comm, next_prio);
+            if (task.burst_start < 0) {
+                // we never saw it wake up (e.g. the trace started while it was waiting),
+                // so its burst starts now
+                startBurst(task, timestamp);
+            }
+            task.on_cpu_since = timestamp;
+        }
+    }
+
+    // sched_wakeup: a sleeping task becomes ready to run, so a new burst "arrives"
+    private void parseWakeup(String payload, long timestamp) {
+        int pid, prio;
+        String comm;
+        if (payload.contains("pid=")) {
+            comm = field(payload, "comm=", "pid=");
+            pid = Integer.parseInt(field(payload, "pid="));
+            prio = Integer.parseInt(field(payload, "prio="));
+        } else {
+            // perf style: "comm:pid [prio] ..."
+            String[] p = perfTask(payload);
+            comm = p[0];
+            pid = Integer.parseInt(p[1]);
+            prio = Integer.parseInt(p[2]);
+        }
+        if (pid == 0) {
+            return;
+        }
+        TaskState task = taskFor(pid, comm, prio);
+        if (task.burst_start < 0) {
+            startBurst(task, timestamp);
+        }
+    }
+
+
+    // Finds (or creates) the state of a task
+    private TaskState taskFor(int pid, String comm, int priority) {
+        TaskState task = tasks.get(pid);
+        if (task == null) {
+            task = new TaskState();
+            tasks.put(pid, task);
+        }
+        // the name can change when the task calls exec(), and commas would break the output file
+        task.name = comm.replace(',', '_') + "-" + pid;
+        task.priority = priority;
+        return task;
+    }
+
+    private void startBurst(TaskState task, long timestamp) {
+        task.burst_start = timestamp;
+        task.cpu_time = 0;
+    }
+
+    // Writes out the burst that just finished
+    private void endBurst(TaskState task, long timestamp) {
+        if (task.burst_start < 0) {
+            return;
+        }
+        task.burst_count++;
+        long arrival = (task.burst_start - first_timestamp) / tick_us;
+        // every burst needs at least 1 tick, or the simulator would never finish it
+        long burst = Math.max(1, Math.round((double) task.cpu_time / tick_us));
+        out.println(task.name + "#" + task.burst_count + ", " + arrival + ", " + burst + ", " + task.priority);
+
+        bursts_written++;
+        kernel_total_turnaround_us += timestamp - task.burst_start;
+        kernel_total_wait_us += timestamp - task.burst_start - task.cpu_time;
+
+        task.burst_start = -1;
+        task.cpu_time = 0;
+    }
+
+    // At the end of the trace, tasks that are still awake get their bursts written too
+    // (as long as they got some CPU time, otherwise we know nothing about the burst)
+    private void finish() {
+        for (TaskState task : tasks.values()) {
+            if (task.on_cpu_since >= 0) {
+                task.cpu_time += last_timestamp - task.on_cpu_since;
+                task.on_cpu_since = -1;
+            }
+            if (task.cpu_time > 0) {
+                endBurst(task, last_timestamp);
+            }
+        }
+        tasks.clear();
+    }
+
+    // Reads the value after "key=" up to the next space, e.g. field("a=1 b=2", "b=") is "2"
+    private static String field(String text, String key) {
+        // the key has to start a word, so "pid=" doesn't match the end of "prev_pid="
+        int start = text.startsWith(key) ? 0 : text.indexOf(" " + key) + 1;
+        if (start == 0 && !text.startsWith(key)) {
+            throw new IllegalArgumentException("Missing " + key);
+        }
+        start += key.length();
+        int end = text.indexOf(' ', start);
+        return end < 0 ? text.substring(start) : text.substring(start, end);
+    }
+
+    // Reads the value after "key=" up to the LAST " next_key=", for a comm that can
+    // have spaces in it: field("prev_comm=Web Content prev_pid=7", "prev_comm=", "prev_pid=")
+    // is "Web Content"
+    private static String field(String text, String key, String next_key) {
+        int start = text.startsWith(key) ? 0 : text.indexOf(" " + key) + 1;
+        if (start == 0 && !text.startsWith(key)) {
+            throw new IllegalArgumentException("Missing " + key);
+        }
+        start += key.length();
+        int end = text.lastIndexOf(" " + next_key);
+        if (end < start) {
+            throw new IllegalArgumentException("Missing " + next_key);
+        }
+        return text.substring(start, end);
+    }
+
+    // Splits a perf task like "Web Content:1234 [120] S" into its comm, pid, priority
+    // and whatever follows the priority (the state, or "" if there's nothing).
+    // We read from the right: the last "[prio]", then the last ":pid" before it, and
+    // everything before that is the comm, spaces and colons included.
+    private static String[] perfTask(String text) {
+        int open = text.lastIndexOf('[');
+        int close = text.indexOf(']', open);
+        if (open < 0 || close < 0) {
+            throw new IllegalArgumentException("Missing [prio] in " + text);
+        }
+        String task = text.substring(0, open).trim();
+        int colon = task.lastIndexOf(':');
+        return new String[] {
+            task.substring(0, colon),
+            task.substring(colon + 1),
+            text.substring(open + 1, close).trim(),
+            text.substring(close + 1).trim()
+        };
+    }
+
+
+    /**
+     * Usage: java TraceImporter trace.txt workload.txt [microseconds per tick]
+     * Then simulate it with: java Main workload.txt
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: java TraceImporter <trace file> <output file> [microseconds per tick, default 1000]");
+            return;
+        }
+        long tick_us = args.length > 2 ? Long.parseLong(args[2]) : 1000;
+
+        try {
+            TraceImporter importer = importTrace(args[0], args[1], tick_us);
+            System.out.println("Wrote " + importer.bursts_written + " CPU bursts to " + args[1]);
+            if (importer.lines_skipped > 0) {
+                System.out.println("Skipped " + importer.lines_skipped + " lines that could not be read.");
+            }
+            if (importer.bursts_written > 0) {
+                System.out.printf("Kernel Average Waiting Time: %.2f ticks\n",
+                    (double) importer.kernel_total_wait_us / tick_us / importer.bursts_written);
+                System.out.printf("Kernel Average Turnaround Time: %.2f ticks\n",
+                    (double) importer.kernel_total_turnaround_us / tick_us / importer.bursts_written);
+            }
+        } catch (IOException e) {
+            System.err.println("ERROR: Could not import trace: " + e.getMessage());
+        }
+    }
+}
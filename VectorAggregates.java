@@ -0,0 +1,182 @@
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+// The Vector API side of ResultAggregates: the same min / max / count loops, but
+// written with jdk.incubator.vector so they work on a whole SIMD register of
+// ints at a time, instead of hoping the JIT compiler vectorizes the plain loops.
+//
+// The Vector API is still an "incubator" module, so it's only there when Java is
+// started with it:
+//   java --add-modules jdk.incubator.vector -cp out Main
+// To keep the project compiling with a plain "javac *.java", nothing here names
+// a Vector API class. They are looked up by reflection once, when this class is
+// loaded, and called through MethodHandles (kept in static final fields, so the
+// JIT compiler can inline them as if they were normal calls). If the module isn't
+// there, available() is false and ResultAggregates uses its plain loops.
+//
+// Every method only does whole vectors and returns the index it got to; the
+// caller finishes the last few values with its plain loop.
+class VectorAggregates {
+
+    private static final Object[] LOADED = load();
+
+    // the preferred species (how many ints fit in the widest SIMD register), and
+    // the lane operations we use
+    private static final Object SPECIES = loaded(0);
+    private static final Object GT = loaded(1);
+    private static final Object EQ = loaded(2);
+    private static final Object MIN_LANES = loaded(3);
+    private static final Object MAX_LANES = loaded(4);
+    private static final MethodHandle FROM_ARRAY = (MethodHandle) loaded(5);
+    private static final MethodHandle INTO_ARRAY = (MethodHandle) loaded(6);
+    private static final MethodHandle BROADCAST = (MethodHandle) loaded(7);
+    private static final MethodHandle MIN = (MethodHandle) loaded(8);
+    private static final MethodHandle MAX = (MethodHandle) loaded(9);
+    private static final MethodHandle COMPARE_TO_INT = (MethodHandle) loaded(10);
+    private static final MethodHandle COMPARE = (MethodHandle) loaded(11);
+    private static final MethodHandle TRUE_COUNT = (MethodHandle) loaded(12);
+    private static final MethodHandle REDUCE = (MethodHandle) loaded(13);
+    private static final int LANES = LOADED == null ? 0 : (Integer) LOADED[14];
+
+    /**
+     * True if Java was started with --add-modules jdk.incubator.vector.
+     */
+    static boolean available() {
+        return LOADED != null;
+    }
+
+    static int lanes() {
+        return LANES;
+    }
+
+    private static Object loaded(int i) {
+        return LOADED == null ? null : LOADED[i];
+    }
+
+    // Finds every class and method we need, or returns null if the module isn't there
+    private static Object[] load() {
+        try {
+            Class<?> int_vector = Class.forName("jdk.incubator.vector.IntVector");
+            Class<?> vector = Class.forName("jdk.incubator.vector.Vector");
+            Class<?> species = Class.forName("jdk.incubator.vector.VectorSpecies");
+            Class<?> mask = Class.forName("jdk.incubator.vector.VectorMask");
+            Class<?> operators = Class.forName("jdk.incubator.vector.VectorOperators");
+            Class<?> comparison = Class.forName("jdk.incubator.vector.VectorOperators$Comparison");
+            Class<?> associative = Class.forName("jdk.incubator.vector.VectorOperators$Associative");
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+            Object preferred = int_vector.getField("SPECIES_PREFERRED").get(null);
+            return new Object[] {
+                preferred,
+                operators.getField("GT").get(null),
+                operators.getField("EQ").get(null),
+                operators.getField("MIN").get(null),
+                operators.getField("MAX").get(null),
+                erased(lookup.findStatic(int_vector, "fromArray",
+                    MethodType.methodType(int_vector, species, int[].class, int.class))),
+                erased(lookup.findVirtual(int_vector, "intoArray",
+                    MethodType.methodType(void.class, int[].class, int.class))),
+                erased(lookup.findStatic(int_vector, "broadcast", MethodType.methodType(int_vector, species, int.class))),
+                erased(lookup.findVirtual(int_vector, "min", MethodType.methodType(int_vector, vector))),
+                erased(lookup.findVirtual(int_vector, "max", MethodType.methodType(int_vector, vector))),
+                erased(lookup.findVirtual(int_vector, "compare", MethodType.methodType(mask, comparison, int.class))),
+                erased(lookup.findVirtual(int_vector, "compare", MethodType.methodType(mask, comparison, vector))),
+                erased(lookup.findVirtual(mask, "trueCount", MethodType.methodType(int.class))),
+                erased(lookup.findVirtual(int_vector, "reduceLanes", MethodType.methodType(int.class, associative))),
+                (Integer) species.getMethod("length").invoke(preferred),
+            };
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    // Changes every Vector API type in the handle's signature to Object, so we can
+    // call it with invokeExact without naming those classes
+    private static MethodHandle erased(MethodHandle handle) {
+        MethodType type = handle.type();
+        for (int p = 0; p < type.parameterCount(); p++) {
+            if (!type.parameterType(p).isPrimitive() && type.parameterType(p) != int[].class) {
+                type = type.changeParameterType(p, Object.class);
+            }
+        }
+        if (!type.returnType().isPrimitive()) {
+            type = type.changeReturnType(Object.class);
+        }
+        return handle.asType(type);
+    }
+
+
+    /**
+     * The min, max and how many are over 'threshold' of the whole vectors in
+     * column[start..end), into result[0], result[1] and result[2].
+     * Returns the index the vectors got to.
+     */
+    static int minMaxAbove(int[] column, int start, int end, int threshold, int[] result) {
+        int upper = start + (end - start) / LANES * LANES;
+        result[0] = Integer.MAX_VALUE;
+        result[1] = Integer.MIN_VALUE;
+        result[2] = 0;
+        if (upper == start) {
+            return start;
+        }
+        try {
+            Object mins = BROADCAST.invokeExact(SPECIES, Integer.MAX_VALUE);
+            Object maxs = BROADCAST.invokeExact(SPECIES, Integer.MIN_VALUE);
+            int above = 0;
+            for (int i = start; i < upper; i += LANES) {
+                Object values = FROM_ARRAY.invokeExact(SPECIES, column, i);
+                mins = MIN.invokeExact(mins, values);
+                maxs = MAX.invokeExact(maxs, values);
+                Object over = COMPARE_TO_INT.invokeExact(values, GT, threshold);
+                above += (int) TRUE_COUNT.invokeExact(over);
+            }
+            result[0] = (int) REDUCE.invokeExact(mins, MIN_LANES);
+            result[1] = (int) REDUCE.invokeExact(maxs, MAX_LANES);
+            result[2] = above;
+        } catch (Throwable e) {
+            throw new IllegalStateException("The Vector API call failed", e);
+        }
+        return upper;
+    }
+
+    /**
+     * best[i - start] = min(best[i - start], column[i]) for the whole vectors in
+     * [start, end). Returns the index the vectors got to.
+     */
+    static int minInto(int[] best, int[] column, int start, int end) {
+        int upper = start + (end - start) / LANES * LANES;
+        try {
+            for (int i = start; i < upper; i += LANES) {
+                Object current = FROM_ARRAY.invokeExact(SPECIES, best, i - start);
+                Object values = FROM_ARRAY.invokeExact(SPECIES, column, i);
+                Object smaller = MIN.invokeExact(current, values);
+                INTO_ARRAY.invokeExact(smaller, best, i - start);
+            }
+        } catch (Throwable e) {
+            throw new IllegalStateException("The Vector API call failed", e);
+        }
+        return upper;
+    }
+
+    /**
+     * How many of the whole vectors in column[start..end) equal best[i - start],
+     * into result[0]. Returns the index the vectors got to.
+     */
+    static int countEqual(int[] column, int[] best, int start, int end, long[] result) {
+        int upper = start + (end - start) / LANES * LANES;
+        long equal = 0;
+        try {
+            for (int i = start; i < upper; i += LANES) {
+                Object values = FROM_ARRAY.invokeExact(SPECIES, column, i);
+                Object lowest = FROM_ARRAY.invokeExact(SPECIES, best, i - start);
+                Object same = COMPARE.invokeExact(values, EQ, lowest);
+                equal += (int) TRUE_COUNT.invokeExact(same);
+            }
+        } catch (Throwable e) {
+            throw new IllegalStateException("The Vector API call failed", e);
+        }
+        result[0] = equal;
+        return upper;
+    }
+}
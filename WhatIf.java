@@ -0,0 +1,242 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Scanner;
+
+// This class answers "what if" questions about a Round Robin run,
+// like "what if one more job arrives at t=X?".
+//
+// The trick is that nothing before the first changed arrival can be different,
+// so we keep checkpoints from the last run and only re-simulate from the
+// latest checkpoint before that time. A change near the end of a long run
+// only costs the few ticks after it, not the whole simulation again: the schedule
+// before the checkpoint is shared rather than copied, and the workload is kept in
+// arrival order so it never has to be sorted or reset as a whole again.
+public class WhatIf {
+
+    // Our own copy of the workload, so editing it doesn't change the processes in Main.
+    // It's kept sorted by arrival time; processes that arrive at the same time stay
+    // in the order they were added (the same order a full re-sort would give).
+    private final List<Process> workload = new ArrayList<>();
+    // The processes by their PidTable id, and when each one was added (for ties)
+    private Process[] by_id = new Process[16];
+    private int[] added_order = new int[16];
+    private int next_order = 0;
+
+    private final int time_quantum;
+    private final int checkpoint_interval;
+
+    // The checkpoints of the current schedule, oldest first
+    private final List<Checkpoint> checkpoints = new ArrayList<>();
+
+    // The results of the last run, and the tick we had to re-simulate it from
+    SimulationResult last_result;
+    int last_restart_time;
+
+
+    /**
+     * Runs the baseline simulation and remembers a checkpoint every 'checkpoint_interval' ticks.
+     */
+    public WhatIf(List<Process> processes, int time_quantum, int checkpoint_interval) {
+        if (checkpoint_interval <= 0) {
+            throw new IllegalArgumentException("The checkpoint interval must be at least 1 tick");
+        }
+        for (Process p : processes) {
+            Process copy = new Process(p.pid(), p.arrival_time, p.burst_time, p.priority, p.deadline, p.period);
+            if (find(copy.pid()) == null) {
+                remember(copy);
+            }
+            workload.add(copy);
+        }
+        // the only full sort; after this every change keeps the order itself
+        Collections.sort(workload);
+        this.time_quantum = time_quantum;
+        this.checkpoint_interval = checkpoint_interval;
+        rerunFrom(0);
+    }
+
+    /**
+     * What if this process also arrived? Returns null if its PID is already taken.
+     */
+    public SimulationResult addProcess(Process p) {
+        if (find(p.pid()) != null) {
+            return null;
+        }
+        Process copy = new Process(p.pid(), p.arrival_time, p.burst_time, p.priority, p.deadline, p.period);
+        remember(copy);
+        insert(copy);
+        return rerunFrom(p.arrival_time);
+    }
+
+    /**
+     * What if this process never arrived? Returns null if there's no such PID.
+     */
+    public SimulationResult removeProcess(String pid) {
+        Process p = find(pid);
+        if (p == null) {
+            return null;
+        }
+        workload.remove(indexOf(p));
+        by_id[p.id] = null;
+        return rerunFrom(p.arrival_time);
+    }
+
+    /**
+     * What if this process had different values? Returns null if there's no such PID.
+     */
+    public SimulationResult editProcess(String pid, int arrival_time, int burst_time, int priority) {
+        Process p = find(pid);
+        if (p == null) {
+            return null;
+        }
+        // The schedule can change from whichever arrival is earlier, the old one or the new one
+        int affected_time = Math.min(p.arrival_time, arrival_time);
+        // take it out and put it back, in case its place in the arrival order changed
+        workload.remove(indexOf(p));
+        p.arrival_time = arrival_time;
+        p.burst_time = burst_time;
+        p.priority = priority;
+        insert(p);
+        return rerunFrom(affected_time);
+    }
+
+
+    // --- Looking processes up ---
+
+    private Process find(String pid) {
+        int id = PidTable.find(pid);
+        return id < 0 || id >= by_id.length ? null : by_id[id];
+    }
+
+    private void remember(Process p) {
+        if (p.id >= by_id.length) {
+            int length = Math.max(p.id + 1, by_id.length * 2);
+            by_id = Arrays.copyOf(by_id, length);
+            added_order = Arrays.copyOf(added_order, length);
+        }
+        by_id[p.id] = p;
+        added_order[p.id] = next_order++;
+    }
+
+    // Does 'a' come before 'b' in the workload? (by arrival time, then by when it was added)
+    private boolean before(Process a, Process b) {
+        if (a.arrival_time != b.arrival_time) {
+            return a.arrival_time < b.arrival_time;
+        }
+        return added_order[a.id] < added_order[b.id];
+    }
+
+    // Where 'p' goes in the workload: after everything that comes before it (binary search)
+    private int position(Process p) {
+        int low = 0;
+        int high = workload.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (before(workload.get(middle), p)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void insert(Process p) {
+        workload.add(position(p), p);
+    }
+
+    private int indexOf(Process p) {
+        int index = position(p);
+        // 'p' itself is the first process that doesn't come before it
+        while (workload.get(index) != p) {
+            index++;
+        }
+        return index;
+    }
+
+
+    // Re-simulates everything from the latest checkpoint at or before 'affected_time'.
+    // (A checkpoint at time T is taken before the arrivals at T are added,
+    // so it's still valid for a change that happens exactly at T.)
+    private SimulationResult rerunFrom(int affected_time) {
+
+        // find the latest checkpoint we can keep
+        Checkpoint start = null;
+        int keep = 0;
+        while (keep < checkpoints.size() && checkpoints.get(keep).current_time <= affected_time) {
+            start = checkpoints.get(keep);
+            keep++;
+        }
+
+        // everything after it belongs to the old schedule, so throw it away
+        checkpoints.subList(keep, checkpoints.size()).clear();
+
+        last_restart_time = start == null ? 0 : start.current_time;
+        last_result = Schedulers.simulateRRInOrder(workload, time_quantum, start, checkpoint_interval, null, checkpoints);
+        return last_result;
+    }
+
+
+    /**
+     * Lets the user ask "what if" questions from the menu.
+     */
+    public static void runInteractive(List<Process> processes, Scanner scanner) {
+        System.out.print("\nEnter the Time Quantum for Round Robin: ");
+        int time_quantum = scanner.nextInt();
+        System.out.print("Enter the checkpoint interval in ticks: ");
+        int checkpoint_interval = scanner.nextInt();
+        while (checkpoint_interval <= 0) {
+            // without checkpoints every change would re-run the whole simulation
+            System.out.print("The interval must be at least 1 tick. Enter the checkpoint interval in ticks: ");
+            checkpoint_interval = scanner.nextInt();
+        }
+
+        System.out.println("Running baseline Round Robin (RR) with Time Quantum = " + time_quantum + "...");
+        WhatIf what_if = new WhatIf(processes, time_quantum, checkpoint_interval);
+        printSummary(what_if);
+
+        while (true) {
+            System.out.println("\nWhat if...");
+            System.out.println("  add PID ArrivalTime BurstTime Priority");
+            System.out.println("  remove PID");
+            System.out.println("  edit PID ArrivalTime BurstTime Priority");
+            System.out.println("  done");
+            System.out.print("> ");
+            String command = scanner.next();
+
+            SimulationResult result;
+            if (command.equals("add")) {
+                String pid = scanner.next();
+                result = what_if.addProcess(new Process(pid, scanner.nextInt(), scanner.nextInt(), scanner.nextInt()));
+                if (result == null) {
+                    System.out.println("There is already a process called " + pid + ".");
+                    continue;
+                }
+            } else if (command.equals("remove")) {
+                result = what_if.removeProcess(scanner.next());
+            } else if (command.equals("edit")) {
+                String pid = scanner.next();
+                result = what_if.editProcess(pid, scanner.nextInt(), scanner.nextInt(), scanner.nextInt());
+            } else if (command.equals("done")) {
+                return;
+            } else {
+                System.out.println("Unknown command: " + command);
+                continue;
+            }
+
+            if (result == null) {
+                System.out.println("No such process.");
+            } else {
+                printSummary(what_if);
+            }
+        }
+    }
+
+    private static void printSummary(WhatIf what_if) {
+        SimulationResult result = what_if.last_result;
+        Statistics.printResults(result.completed_processes, result.total_time, result.gantt_chart_log);
+        System.out.println("Re-simulated from t=" + what_if.last_restart_time + " ("
+            + (result.total_time - what_if.last_restart_time) + " of " + result.total_time + " ticks)");
+    }
+}
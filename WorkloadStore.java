@@ -0,0 +1,439 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// This class holds a workload OUTSIDE the Java heap.
+//
+// A List<Process> needs an object (and a String for the PID) per process, so a trace
+// with hundreds of millions of processes doesn't fit in the heap, and the garbage
+// collector spends ages scanning it even when it does. Here every process is just
+// 32 bytes in a "direct" buffer (memory the garbage collector never looks at), and the
+// PIDs are kept as raw bytes in a second buffer. If a backing file is given, both are
+// memory-mapped files, so the operating system can page them in and out as needed.
+//
+// The heap only holds the list of buffers, one per 64 MB "chunk", so the heap
+// footprint doesn't grow with the size of the trace. The same goes for the arrival
+// order and the ready queue of SJF / Priority (see below): they are chunks of
+// 4-byte positions, in direct buffers or in 'backing_file.order' / '.heap'.
+//
+// Layout of one process (32 bytes):
+//   0: arrival time (long)   8: burst time (int)   12: priority (int)
+//  16: completion time (long, filled in by the scheduler)
+//  24: where its PID is in the name buffer (long: offset << 8 | length)
+public class WorkloadStore implements AutoCloseable {
+
+    private static final int RECORD_BYTES = 32;
+    private static final int ARRIVAL = 0;
+    private static final int BURST = 8;
+    private static final int PRIORITY = 12;
+    private static final int COMPLETION = 16;
+    private static final int NAME = 24;
+
+    // Each chunk is 64 MB, and a record never crosses from one chunk into the next
+    static final int CHUNK_BYTES = 1 << 26;
+    private static final int RECORDS_PER_CHUNK = CHUNK_BYTES / RECORD_BYTES;
+
+    // PIDs longer than this are cut short (the length has to fit in 8 bits)
+    private static final int MAX_PID_BYTES = 255;
+
+    private final List<ByteBuffer> record_chunks = new ArrayList<>();
+    private final List<ByteBuffer> name_chunks = new ArrayList<>();
+    private final FileChannel record_file;
+    private final FileChannel name_file;
+    private final FileChannel order_file;
+    private final FileChannel heap_file;
+
+    private long size = 0;            // how many processes are stored
+    private long name_bytes = 0;      // how many bytes of the name buffer are used
+    private boolean sorted_by_arrival = true;
+
+
+    /**
+     * Creates an empty store. If 'backing_file' is null, the memory comes from
+     * direct buffers; otherwise it is mapped from 'backing_file', 'backing_file.names'
+     * and 'backing_file.order' / 'backing_file.heap' (which stay empty unless needed).
+     */
+    public WorkloadStore(String backing_file) throws IOException {
+        if (backing_file == null) {
+            record_file = null;
+            name_file = null;
+            order_file = null;
+            heap_file = null;
+        } else {
+            record_file = openEmpty(backing_file);
+            name_file = openEmpty(backing_file + ".names");
+            order_file = openEmpty(backing_file + ".order");
+            heap_file = openEmpty(backing_file + ".heap");
+        }
+    }
+
+    // Opens (or creates) a file and starts it from empty
+    private static FileChannel openEmpty(String filename) throws IOException {
+        FileChannel file = new RandomAccessFile(filename, "rw").getChannel();
+        file.truncate(0);
+        return file;
+    }
+
+
+    /**
+     * Reads an input file (same format as InputParser) straight into a new store,
+     * without creating a Process object for each line.
+     */
+    public static WorkloadStore load(String filename, String backing_file) throws IOException {
+        WorkloadStore store = new WorkloadStore(backing_file);
+        try (BufferedReader in = new BufferedReader(new FileReader(filename, StandardCharsets.UTF_8), 1 << 16)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.trim().isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split(",");
+                if (parts.length < 4) {
+                    System.err.println("Skipping malformed line: " + line);
+                    continue;
+                }
+                try {
+                    store.add(parts[0].trim(), Long.parseLong(parts[1].trim()),
+                        Integer.parseInt(parts[2].trim()), Integer.parseInt(parts[3].trim()));
+                } catch (NumberFormatException e) {
+                    System.err.println("Skipping line with invalid number: " + line);
+                }
+            }
+        } catch (IOException e) {
+            store.close();
+            throw e;
+        }
+        System.out.println("Successfully loaded " + store.size() + " processes (off-heap).");
+        return store;
+    }
+
+
+    /**
+     * Adds one process to the end of the store.
+     */
+    public void add(String pid, long arrival_time, int burst_time, int priority) throws IOException {
+        if (size > 0 && arrival_time < arrivalTime(size - 1)) {
+            sorted_by_arrival = false;
+        }
+
+        // put the PID's bytes into the name buffer (never across two chunks)
+        byte[] pid_bytes = pid.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(pid_bytes.length, MAX_PID_BYTES);
+        // a long PID is cut at the start of a character, not in the middle of one
+        // (the 2nd, 3rd and 4th bytes of a UTF-8 character all look like 10xxxxxx)
+        while (length < pid_bytes.length && length > 0 && (pid_bytes[length] & 0xC0) == 0x80) {
+            length--;
+        }
+        long chunk_start = name_bytes / CHUNK_BYTES * CHUNK_BYTES;
+        if (name_bytes + length > chunk_start + CHUNK_BYTES) {
+            name_bytes = chunk_start + CHUNK_BYTES;
+        }
+        ByteBuffer names = chunk(name_chunks, name_file, (int) (name_bytes / CHUNK_BYTES));
+        names.put((int) (name_bytes % CHUNK_BYTES), pid_bytes, 0, length);
+        long name_ref = name_bytes << 8 | length;
+        name_bytes += length;
+
+        ByteBuffer records = chunk(record_chunks, record_file, (int) (size / RECORDS_PER_CHUNK));
+        int offset = (int) (size % RECORDS_PER_CHUNK) * RECORD_BYTES;
+        records.putLong(offset + ARRIVAL, arrival_time);
+        records.putInt(offset + BURST, burst_time);
+        records.putInt(offset + PRIORITY, priority);
+        records.putLong(offset + COMPLETION, 0);
+        records.putLong(offset + NAME, name_ref);
+        size++;
+    }
+
+    // Returns chunk number 'index', creating it (and any before it) if needed
+    private static ByteBuffer chunk(List<ByteBuffer> chunks, FileChannel file, int index) throws IOException {
+        while (chunks.size() <= index) {
+            ByteBuffer buffer;
+            if (file == null) {
+                buffer = ByteBuffer.allocateDirect(CHUNK_BYTES);
+            } else {
+                // mapping past the end of the file makes the file grow
+                buffer = file.map(FileChannel.MapMode.READ_WRITE, (long) chunks.size() * CHUNK_BYTES, CHUNK_BYTES);
+            }
+            chunks.add(buffer.order(ByteOrder.nativeOrder()));
+        }
+        return chunks.get(index);
+    }
+
+
+    // --- Reading and writing one process ---
+
+    public long size() {
+        return size;
+    }
+
+    // true if the processes were added in order of arrival time
+    public boolean isSortedByArrival() {
+        return sorted_by_arrival;
+    }
+
+    private ByteBuffer recordChunk(long i) {
+        return record_chunks.get((int) (i / RECORDS_PER_CHUNK));
+    }
+
+    private static int recordOffset(long i) {
+        return (int) (i % RECORDS_PER_CHUNK) * RECORD_BYTES;
+    }
+
+    public long arrivalTime(long i) {
+        return recordChunk(i).getLong(recordOffset(i) + ARRIVAL);
+    }
+
+    public int burstTime(long i) {
+        return recordChunk(i).getInt(recordOffset(i) + BURST);
+    }
+
+    public int priority(long i) {
+        return recordChunk(i).getInt(recordOffset(i) + PRIORITY);
+    }
+
+    public long completionTime(long i) {
+        return recordChunk(i).getLong(recordOffset(i) + COMPLETION);
+    }
+
+    public void setCompletionTime(long i, long completion_time) {
+        recordChunk(i).putLong(recordOffset(i) + COMPLETION, completion_time);
+    }
+
+    // Turnaround and waiting time aren't stored, because they follow from the others
+    public long turnaroundTime(long i) {
+        return completionTime(i) - arrivalTime(i);
+    }
+
+    public long waitingTime(long i) {
+        return turnaroundTime(i) - burstTime(i);
+    }
+
+    // Only turns the PID back into a String when someone actually asks for it
+    public String pid(long i) {
+        long name_ref = recordChunk(i).getLong(recordOffset(i) + NAME);
+        long start = name_ref >>> 8;
+        int length = (int) (name_ref & 0xFF);
+        byte[] bytes = new byte[length];
+        ByteBuffer names = name_chunks.get((int) (start / CHUNK_BYTES)).duplicate();
+        names.position((int) (start % CHUNK_BYTES));
+        names.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+
+    // --- Arrival order ---
+    // Schedulers need the processes in order of arrival. If they were added in that
+    // order we just use their positions; otherwise we sort a list of positions
+    // (4 bytes per process, off-heap or in the backing file's '.order' file)
+    // instead of moving the records around.
+
+    private final List<ByteBuffer> order_chunks = new ArrayList<>();
+    private static final int INDEXES_PER_CHUNK = CHUNK_BYTES / 4;
+
+    /**
+     * Returns the position of the k-th process to arrive.
+     * (Ties keep the order the processes were added in, just like Collections.sort.)
+     */
+    public long arrivalOrder(long k) {
+        if (sorted_by_arrival) {
+            return k;
+        }
+        if (order_chunks.isEmpty() && size > 0) {
+            sortByArrival();
+        }
+        return getIndex(k);
+    }
+
+    private int getIndex(long k) {
+        return getInt(order_chunks, k);
+    }
+
+    private void setIndex(long k, int value) {
+        setInt(order_chunks, k, value);
+    }
+
+    // The k-th int of a list of index chunks (the arrival order or the ready queue)
+    private static int getInt(List<ByteBuffer> chunks, long k) {
+        return chunks.get((int) (k / INDEXES_PER_CHUNK)).getInt((int) (k % INDEXES_PER_CHUNK) * 4);
+    }
+
+    private static void setInt(List<ByteBuffer> chunks, long k, int value) {
+        chunks.get((int) (k / INDEXES_PER_CHUNK)).putInt((int) (k % INDEXES_PER_CHUNK) * 4, value);
+    }
+
+    // Is process a "before" process b? (earlier arrival first, then the order they were added)
+    private boolean before(int a, int b) {
+        long arrival_a = arrivalTime(a);
+        long arrival_b = arrivalTime(b);
+        return arrival_a < arrival_b || (arrival_a == arrival_b && a < b);
+    }
+
+    // Heap sort: it sorts the list of positions in place, so the only memory it
+    // needs is that list itself (a merge sort would need a second one as big)
+    private void sortByArrival() {
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Too many processes to sort: " + size);
+        }
+        try {
+            chunk(order_chunks, order_file, (int) ((size - 1) / INDEXES_PER_CHUNK));
+        } catch (IOException e) {
+            // (only possible with a backing file, e.g. when the disk is full)
+            throw new UncheckedIOException(e);
+        }
+        for (long k = 0; k < size; k++) {
+            setIndex(k, (int) k);
+        }
+
+        // 1. turn the list into a "max heap" (the latest arrival at the top)
+        for (long k = size / 2 - 1; k >= 0; k--) {
+            siftDown(k, size);
+        }
+        // 2. keep moving the top to the end of the list and fixing the heap
+        for (long end = size - 1; end > 0; end--) {
+            int top = getIndex(0);
+            setIndex(0, getIndex(end));
+            setIndex(end, top);
+            siftDown(0, end);
+        }
+    }
+
+    private void siftDown(long k, long end) {
+        int value = getIndex(k);
+        while (2 * k + 1 < end) {
+            long child = 2 * k + 1;
+            if (child + 1 < end && before(getIndex(child), getIndex(child + 1))) {
+                child++;
+            }
+            if (!before(value, getIndex(child))) {
+                break;
+            }
+            setIndex(k, getIndex(child));
+            k = child;
+        }
+        setIndex(k, value);
+    }
+
+
+    // --- Ready queue (for SJF and Priority) ---
+    // A binary min-heap of positions, 4 bytes each and stored like the arrival order,
+    // so it puts nothing on the Java heap however many processes are waiting. It
+    // hands out the shortest burst (or the best priority) first; ties go to the
+    // earlier arrival, then to the process that was added first.
+    // Every process is in it at most once, so it never needs more than 'size' entries.
+
+    private final List<ByteBuffer> heap_chunks = new ArrayList<>();
+    private long ready_count = 0;
+    private boolean ready_by_priority;
+
+    /**
+     * Empties the ready queue and sets what it sorts by: the burst time, or the
+     * priority if 'by_priority' (lower number = higher priority, as everywhere).
+     */
+    public void clearReadyQueue(boolean by_priority) {
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Too many processes for the ready queue: " + size);
+        }
+        ready_count = 0;
+        ready_by_priority = by_priority;
+    }
+
+    public long readyCount() {
+        return ready_count;
+    }
+
+    /**
+     * Adds the process at position 'i' to the ready queue.
+     */
+    public void offerReady(long i) {
+        try {
+            chunk(heap_chunks, heap_file, (int) (ready_count / INDEXES_PER_CHUNK));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // "sift up": move it towards the top while it beats its parent
+        long k = ready_count++;
+        while (k > 0) {
+            long parent = (k - 1) / 2;
+            int above = getInt(heap_chunks, parent);
+            if (!readyBefore((int) i, above)) {
+                break;
+            }
+            setInt(heap_chunks, k, above);
+            k = parent;
+        }
+        setInt(heap_chunks, k, (int) i);
+    }
+
+    /**
+     * Removes the best process from the ready queue and returns its position.
+     */
+    public long pollReady() {
+        int top = getInt(heap_chunks, 0);
+        ready_count--;
+        if (ready_count > 0) {
+            // move the last entry to the top and "sift it down" to where it belongs
+            int value = getInt(heap_chunks, ready_count);
+            long k = 0;
+            while (2 * k + 1 < ready_count) {
+                long child = 2 * k + 1;
+                if (child + 1 < ready_count && readyBefore(getInt(heap_chunks, child + 1), getInt(heap_chunks, child))) {
+                    child++;
+                }
+                if (!readyBefore(getInt(heap_chunks, child), value)) {
+                    break;
+                }
+                setInt(heap_chunks, k, getInt(heap_chunks, child));
+                k = child;
+            }
+            setInt(heap_chunks, k, value);
+        }
+        return top;
+    }
+
+    // Should process a leave the ready queue before process b?
+    private boolean readyBefore(int a, int b) {
+        int key_a = ready_by_priority ? priority(a) : burstTime(a);
+        int key_b = ready_by_priority ? priority(b) : burstTime(b);
+        return key_a < key_b || (key_a == key_b && before(a, b));
+    }
+
+
+    /**
+     * Writes any changes to the backing file (does nothing for direct buffers).
+     */
+    public void flush() {
+        for (ByteBuffer chunk : record_chunks) {
+            if (chunk instanceof MappedByteBuffer) {
+                ((MappedByteBuffer) chunk).force();
+            }
+        }
+        for (ByteBuffer chunk : name_chunks) {
+            if (chunk instanceof MappedByteBuffer) {
+                ((MappedByteBuffer) chunk).force();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        if (record_file != null) {
+            record_file.close();
+            name_file.close();
+            order_file.close();
+            heap_file.close();
+        }
+        record_chunks.clear();
+        name_chunks.clear();
+        order_chunks.clear();
+        heap_chunks.clear();
+    }
+}
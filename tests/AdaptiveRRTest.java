@@ -0,0 +1,57 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Adaptive Round Robin only uses what it has seen: the quantum starts at the given
+// value, then follows the bursts that have finished, and doesn't change when a
+// waiting process's (still unknown) burst does.
+public class AdaptiveRRTest {
+
+    static void run() {
+        // ten jobs of 5 ticks, then a mixed batch later on
+        List<Process> workload = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            workload.add(new Process("AR" + i, 0, 5, 0));
+        }
+        workload.add(new Process("AR_LATE1", 100, 2, 0));
+        workload.add(new Process("AR_LATE2", 100, 40, 0));
+        workload.add(new Process("AR_LATE3", 101, 9, 0));
+
+        List<int[]> history = new ArrayList<>();
+        SimulationResult result = Schedulers.simulateAdaptiveRR(TestSupport.copy(workload), 50, 3, history);
+        TestSupport.checkEquals(13, result.completed_processes.size(), "every process finishes");
+        TestSupport.checkEquals("[0, 3]", Arrays.toString(history.get(0)), "the starting quantum at t=0");
+        int[] at_late_batch = null;
+        for (int[] change : history) {
+            if (change[0] <= 100) {
+                at_late_batch = change;
+            }
+        }
+        TestSupport.checkEquals(5, at_late_batch[1], "by t=100 the quantum is the median finished burst");
+
+        // The same run, but AR_LATE2 really needs 400 ticks instead of 40. Until it
+        // finishes (nothing can know its burst before that), the quantum can't differ.
+        List<Process> longer = TestSupport.copy(workload);
+        longer.get(11).burst_time = 400;
+        List<int[]> longer_history = new ArrayList<>();
+        Schedulers.simulateAdaptiveRR(longer, 50, 3, longer_history);
+        int late2_done = 0;
+        for (Process p : result.completed_processes) {
+            if (p.pid().equals("AR_LATE2")) {
+                late2_done = p.completion_time;
+            }
+        }
+        TestSupport.checkEquals(describe(history, late2_done), describe(longer_history, late2_done),
+            "quantum changes before AR_LATE2 finishes");
+    }
+
+    private static String describe(List<int[]> history, int before) {
+        StringBuilder text = new StringBuilder();
+        for (int[] change : history) {
+            if (change[0] < before) {
+                text.append(change[0]).append('=').append(change[1]).append(' ');
+            }
+        }
+        return text.toString();
+    }
+}
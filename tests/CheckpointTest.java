@@ -0,0 +1,97 @@
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Checkpoint / resume (Round Robin): resuming from any snapshot, after it has been
+// written to disk and read back, must give exactly the same run as never stopping.
+// A run that checkpoints to a file only appends what's new on each save, and a
+// save that didn't finish doesn't spoil the snapshot before it.
+public class CheckpointTest {
+
+    static void run() throws Exception {
+        everySnapshotResumes();
+        savesOnlyAddWhatChanged();
+    }
+
+    private static void everySnapshotResumes() throws Exception {
+        List<Process> processes = TestSupport.randomWorkload(26, 40, "C", 120, 15);
+        Path directory = TestSupport.tempDirectory("checkpoint-test");
+        String file = directory.resolve("checkpoint.bin").toString();
+        List<Process> arrival_order = new ArrayList<>(processes);
+        Collections.sort(arrival_order);
+
+        for (int time_quantum : new int[] {1, 3, 8}) {
+            SimulationResult uninterrupted = Schedulers.simulateRR(processes, time_quantum, null, 0, null, null);
+            String expected = TestSupport.describe(uninterrupted);
+
+            List<Checkpoint> checkpoints = new ArrayList<>();
+            SimulationResult with_checkpoints =
+                Schedulers.simulateRR(processes, time_quantum, null, 17, null, checkpoints);
+            TestSupport.checkEquals(expected, TestSupport.describe(with_checkpoints),
+                "taking checkpoints doesn't change the run (q=" + time_quantum + ")");
+            TestSupport.check(!checkpoints.isEmpty(), "some checkpoints were taken");
+
+            for (Checkpoint checkpoint : checkpoints) {
+                checkpoint.save(file, arrival_order);
+                Checkpoint loaded = Checkpoint.load(file);
+                SimulationResult resumed = Schedulers.simulateRR(processes, time_quantum, loaded, 0, null, null);
+                TestSupport.checkEquals(expected, TestSupport.describe(resumed),
+                    "resumed from t=" + checkpoint.current_time + " (q=" + time_quantum + ")");
+            }
+        }
+
+        // save() goes through a temporary file, and must not leave it behind
+        TestSupport.check(Files.exists(directory.resolve("checkpoint.bin")), "checkpoint file written");
+        TestSupport.check(!Files.exists(directory.resolve("checkpoint.bin.tmp")), "no temporary file left over");
+    }
+
+    private static void savesOnlyAddWhatChanged() throws Exception {
+        List<Process> processes = TestSupport.randomWorkload(126, 400, "CI", 3000, 15);
+        Path directory = TestSupport.tempDirectory("checkpoint-log-test");
+        String file = directory.resolve("run.bin").toString();
+        Path log = directory.resolve("run.bin" + Checkpoint.LOG_SUFFIX);
+        String expected = TestSupport.describe(Schedulers.simulateRR(processes, 4, null, 0, null, null));
+
+        // a run that saves every 10 ticks to the file
+        List<Checkpoint> checkpoints = new ArrayList<>();
+        SimulationResult result = Schedulers.simulateRR(processes, 4, null, 10, file, checkpoints);
+        TestSupport.checkEquals(expected, TestSupport.describe(result), "checkpointing to a file doesn't change the run");
+        long incremental = Files.size(log);
+
+        // All those saves together wrote about as much log as one save of the last
+        // snapshot (plus a little per save), not the whole run every time
+        Path full_file = directory.resolve("full.bin");
+        List<Process> arrival_order = new ArrayList<>(processes);
+        Collections.sort(arrival_order);
+        Checkpoint last = checkpoints.get(checkpoints.size() - 1);
+        last.save(full_file.toString(), arrival_order);
+        long full = Files.size(directory.resolve("full.bin" + Checkpoint.LOG_SUFFIX));
+        TestSupport.check(incremental <= full + 40L * checkpoints.size(),
+            "log written in pieces: " + incremental + " bytes vs " + full + " for one full save, "
+            + checkpoints.size() + " saves");
+        TestSupport.check(Files.size(directory.resolve("run.bin")) < 4096, "the head file only holds the live state");
+
+        // A save that died after adding to the log but before replacing the head:
+        // the snapshot is still the last good one, and resuming from it (and saving
+        // to the same file again) gives the uninterrupted run
+        Files.write(log, new byte[] {1, 2, 3, 4, 5, 6, 7}, StandardOpenOption.APPEND);
+        Checkpoint loaded = Checkpoint.load(file);
+        TestSupport.checkEquals(last.current_time, loaded.current_time, "the last good snapshot is loaded");
+        SimulationResult resumed = Schedulers.simulateRR(processes, 4, loaded, 0, null, null);
+        TestSupport.checkEquals(expected, TestSupport.describe(resumed), "resumed past the unfinished save");
+
+        // resume from an early snapshot, keep checkpointing into the same file,
+        // then resume again from what that run saved last
+        checkpoints.get(2).save(file, arrival_order);
+        Checkpoint early = Checkpoint.load(file);
+        List<Checkpoint> later = new ArrayList<>();
+        Schedulers.simulateRR(processes, 4, early, 25, file, later);
+        Checkpoint latest = Checkpoint.load(file);
+        TestSupport.checkEquals(later.get(later.size() - 1).current_time, latest.current_time, "the resumed run saved again");
+        TestSupport.checkEquals(expected, TestSupport.describe(Schedulers.simulateRR(processes, 4, latest, 0, null, null)),
+            "resumed from a snapshot saved by a resumed run");
+    }
+}
@@ -0,0 +1,45 @@
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// The HTML Gantt chart: a window of a long run is drawn tick by tick, and the
+// page is UTF-8 whatever the platform's default charset is.
+public class GanttRendererTest {
+
+    static void run() throws Exception {
+        Path folder = TestSupport.tempDirectory("gantt");
+
+        // 10000 ticks where the CPU switches between two processes every tick
+        int a = PidTable.intern("GR_A");
+        int b = PidTable.intern("GR_\u00e9");
+        GanttLog log = new GanttLog();
+        for (int t = 0; t < 10_000; t++) {
+            log.add(t % 2 == 0 ? a : b);
+        }
+
+        // The whole run: ~5 ticks per column, so single ticks can't be seen
+        Path whole = folder.resolve("whole.html");
+        GanttRenderer.exportHtml(log, whole.toString());
+        String whole_page = new String(Files.readAllBytes(whole), StandardCharsets.UTF_8);
+        TestSupport.check(whole_page.contains("(10000 ticks)"), "the whole chart says how long it is");
+        TestSupport.check(!whole_page.contains("(5001-5002)"), "the whole chart has no one-tick columns");
+
+        // A window of 100 ticks: one column per tick
+        Path window = folder.resolve("window.html");
+        GanttRenderer.exportHtml(log, window.toString(), 5000, 5100);
+        String window_page = new String(Files.readAllBytes(window), StandardCharsets.UTF_8);
+        TestSupport.check(window_page.contains("ticks 5000-5100 of 10000"), "the window's heading");
+        TestSupport.check(window_page.contains("viewBox=\"0 0 100 90\""), "one column per tick");
+        TestSupport.check(window_page.contains("<title>GR_A (5000-5001)</title>"), "tick 5000 is drawn on its own");
+        TestSupport.check(window_page.contains("<title>GR_\u00e9 (5099-5100)</title>"), "and so is the last tick, as UTF-8");
+        TestSupport.check(!window_page.contains("(4999-5000)"), "nothing before the window");
+
+        boolean refused = false;
+        try {
+            GanttRenderer.exportHtml(log, window.toString(), 9000, 10_001);
+        } catch (IllegalArgumentException e) {
+            refused = true;
+        }
+        TestSupport.check(refused, "a window past the end is refused");
+    }
+}
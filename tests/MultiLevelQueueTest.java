@@ -0,0 +1,218 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+
+// The configurable Multi-Level Queue: its two-level setup schedules exactly like
+// the original hard-coded MLQ, a single level behaves like that level's policy on
+// its own, and WEIGHTED sharing gives every busy level its weight in ticks per round.
+public class MultiLevelQueueTest {
+
+    static void run() {
+        twoLevelIsTheOriginalMlq();
+        oneLevelIsItsPolicy();
+        weightedSharesPerRound(new int[] { 3, 1 });
+        weightedSharesPerRound(new int[] { 3, 2, 1 });
+        weightedRoundRobinLevels();
+    }
+
+    private static void twoLevelIsTheOriginalMlq() {
+        for (int seed = 0; seed < 20; seed++) {
+            List<Process> workload = TestSupport.randomWorkload(42 + seed, 80, "MQ", 150, 12);
+            for (int quantum : new int[] { 1, 2, 5 }) {
+                List<Process> original = TestSupport.copy(workload);
+                String expected = TestSupport.describe(originalMlq(original, quantum));
+                String configured = TestSupport.describe(
+                    Schedulers.simulateMultiLevelQueue(TestSupport.copy(workload), MultiLevelQueue.twoLevel(quantum)));
+                TestSupport.checkEquals(expected, configured, "seed " + seed + ", quantum " + quantum);
+            }
+        }
+    }
+
+    // One level that takes every priority
+    private static void oneLevelIsItsPolicy() {
+        // all bursts different, so SJF never has to break a tie
+        Random random = new Random(142);
+        List<Integer> bursts = new ArrayList<>();
+        for (int i = 1; i <= 120; i++) {
+            bursts.add(i);
+        }
+        Collections.shuffle(bursts, random);
+        List<Process> workload = new ArrayList<>();
+        for (int i = 0; i < bursts.size(); i++) {
+            workload.add(new Process("ML" + i, random.nextInt(3000), bursts.get(i), random.nextInt(6)));
+        }
+
+        for (MultiLevelQueue.Policy policy : MultiLevelQueue.Policy.values()) {
+            List<Process> expected = TestSupport.copy(workload);
+            switch (policy) {
+                case FCFS: Schedulers.runFCFS(expected); break;
+                case SJF:  Schedulers.runSJF_NP(expected); break;
+                case SRTF: Schedulers.runSRTF(expected); break;
+                default:   Schedulers.simulateRR(expected, 4, null, 0, null, null); break;
+            }
+            List<MultiLevelQueue.Level> levels = new ArrayList<>();
+            levels.add(new MultiLevelQueue.Level(Integer.MIN_VALUE, Integer.MAX_VALUE, policy, 4, 1));
+            List<Process> configured = TestSupport.copy(workload);
+            Schedulers.simulateMultiLevelQueue(configured, new MultiLevelQueue(levels, MultiLevelQueue.Dispatch.STRICT));
+
+            int mismatches = 0;
+            for (int i = 0; i < workload.size(); i++) {
+                mismatches += expected.get(i).completion_time == configured.get(i).completion_time ? 0 : 1;
+            }
+            TestSupport.checkEquals(0, mismatches, "one " + policy + " level: completion times that differ");
+        }
+    }
+
+    // Every level always busy (two long FCFS jobs each, so nothing finishes or
+    // expires while we look, and every tick in the Gantt log is a real one):
+    // each round of sum(weights) ticks gives level l exactly weights[l] ticks,
+    // and the last level never waits longer than the others' share of two rounds
+    // (the level running when a round ends keeps the CPU into the next one, so
+    // its turn can come last in one round and first in the next).
+    // Under STRICT, the same workload starves everything below level 0.
+    private static void weightedSharesPerRound(int[] weights) {
+        List<MultiLevelQueue.Level> levels = new ArrayList<>();
+        List<Process> workload = new ArrayList<>();
+        int round = 0;
+        for (int l = 0; l < weights.length; l++) {
+            levels.add(new MultiLevelQueue.Level(l, l, MultiLevelQueue.Policy.FCFS, 0, weights[l]));
+            workload.add(new Process("MW" + weights.length + "_" + l + "a", 0, 1000, l));
+            workload.add(new Process("MW" + weights.length + "_" + l + "b", 0, 1000, l));
+            round += weights[l];
+        }
+        String name = "weights " + Arrays.toString(weights);
+
+        int rounds = 50;
+        GanttLog gantt = Schedulers.simulateMultiLevelQueue(TestSupport.copy(workload),
+            new MultiLevelQueue(levels, MultiLevelQueue.Dispatch.WEIGHTED)).gantt_chart_log;
+        int wrong_shares = 0;
+        int last = weights.length - 1;
+        int longest_wait = 0;
+        int since_last_level = 0;
+        for (int r = 0; r < rounds; r++) {
+            int[] ticks = new int[weights.length];
+            for (int t = r * round; t < (r + 1) * round; t++) {
+                int level = levelOf(workload, gantt.get(t));
+                if (level >= 0) {
+                    ticks[level]++;
+                }
+                since_last_level = level == last ? 0 : since_last_level + 1;
+                longest_wait = Math.max(longest_wait, since_last_level);
+            }
+            for (int l = 0; l < weights.length; l++) {
+                wrong_shares += ticks[l] == weights[l] ? 0 : 1;
+            }
+        }
+        TestSupport.checkEquals(0, wrong_shares, name + ": rounds where a level didn't get its weight");
+        TestSupport.check(longest_wait <= 2 * (round - weights[last]),
+            name + ": the longest the last level waits is " + longest_wait + " ticks");
+
+        GanttLog strict = Schedulers.simulateMultiLevelQueue(TestSupport.copy(workload),
+            new MultiLevelQueue(levels, MultiLevelQueue.Dispatch.STRICT)).gantt_chart_log;
+        int others = 0;
+        for (int t = 0; t < rounds * round; t++) {
+            others += levelOf(workload, strict.get(t)) == 0 ? 0 : 1;
+        }
+        TestSupport.checkEquals(0, others, name + ": under STRICT only level 0 runs");
+    }
+
+    // The level (= priority here) of the process with this id, or -1 for IDLE
+    private static int levelOf(List<Process> workload, int id) {
+        for (Process p : workload) {
+            if (p.id == id) {
+                return p.priority;
+            }
+        }
+        return -1;
+    }
+
+    // Round Robin levels with weights 3:1, each with three jobs of 60 ticks: the
+    // top level gets 3 of every 4 ticks, so its 180 ticks of work are done after
+    // about 240, and by then the bottom level has had about 60 ticks, so it has
+    // made progress but none of its jobs (needing 180 ticks in all) can be done yet.
+    private static void weightedRoundRobinLevels() {
+        List<MultiLevelQueue.Level> levels = new ArrayList<>();
+        levels.add(new MultiLevelQueue.Level(0, 0, MultiLevelQueue.Policy.RR, 2, 3));
+        levels.add(new MultiLevelQueue.Level(1, 1, MultiLevelQueue.Policy.RR, 2, 1));
+        List<Process> workload = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            workload.add(new Process("MWR" + i, 0, 60, i % 2));
+        }
+        SimulationResult result = Schedulers.simulateMultiLevelQueue(workload,
+            new MultiLevelQueue(levels, MultiLevelQueue.Dispatch.WEIGHTED));
+        int top_done = 0;
+        int bottom_first = Integer.MAX_VALUE;
+        for (Process p : workload) {
+            if (p.priority == 0) {
+                top_done = Math.max(top_done, p.completion_time);
+            } else {
+                bottom_first = Math.min(bottom_first, p.completion_time);
+            }
+        }
+        TestSupport.check(top_done >= 236 && top_done <= 244, "the top level finishes after about 240 ticks: " + top_done);
+        TestSupport.check(bottom_first > top_done, "the bottom level's jobs finish after that");
+        TestSupport.checkEquals(360, result.total_time, "no tick is left idle");
+    }
+
+    // The MLQ as it was before the levels could be configured: priority < 3 goes
+    // to a Round Robin queue, the rest to an FCFS queue, and a high priority arrival
+    // sends a running low priority process to the back of its queue.
+    private static SimulationResult originalMlq(List<Process> processes, int time_quantum) {
+        Queue<Process> high = new LinkedList<>();
+        Queue<Process> low = new LinkedList<>();
+        List<Process> to_arrive = new ArrayList<>();
+        for (Process p : processes) {
+            p.remaining_burst_time = p.burst_time;
+            p.current_quantum = 0;
+            to_arrive.add(p);
+        }
+        Collections.sort(to_arrive);
+        List<Process> completed = new ArrayList<>();
+        GanttLog gantt = new GanttLog();
+        Process running = null;
+        int current_time = 0;
+        while (completed.size() < processes.size()) {
+            boolean high_arrived = false;
+            while (!to_arrive.isEmpty() && to_arrive.get(0).arrival_time <= current_time) {
+                Process p = to_arrive.remove(0);
+                if (p.priority < 3) {
+                    high.add(p);
+                    high_arrived = true;
+                } else {
+                    low.add(p);
+                }
+            }
+            if (high_arrived && running != null && running.priority >= 3) {
+                low.add(running);
+                running = null;
+            }
+            if (running == null && !high.isEmpty()) {
+                running = high.poll();
+                running.current_quantum = 0;
+            } else if (running == null && !low.isEmpty()) {
+                running = low.poll();
+            }
+            if (running != null) {
+                running.remaining_burst_time--;
+                running.current_quantum++;
+                if (running.remaining_burst_time == 0) {
+                    running.completion_time = current_time + 1;
+                    running.turnaround_time = running.completion_time - running.arrival_time;
+                    running.waiting_time = running.turnaround_time - running.burst_time;
+                    completed.add(running);
+                    running = null;
+                } else if (running.priority < 3 && running.current_quantum == time_quantum) {
+                    high.add(running);
+                    running = null;
+                }
+            }
+            gantt.add(running != null ? running.id : PidTable.IDLE);
+            current_time++;
+        }
+        return new SimulationResult(completed, current_time, gantt);
+    }
+}
@@ -0,0 +1,64 @@
+import java.util.ArrayList;
+import java.util.List;
+
+// The multi-CPU simulation: on one CPU it is plain Round Robin, and on many CPUs
+// the answer is the same however many host threads simulate them.
+public class ParallelSimulationTest {
+
+    static void run() throws Exception {
+        oneCpuIsRoundRobin();
+        sameResultOnAnyNumberOfThreads();
+    }
+
+    // One CPU never migrates anything, so any window gives simulateRR's times
+    private static void oneCpuIsRoundRobin() throws Exception {
+        List<Process> workload = TestSupport.randomWorkload(41, 300, "PA", 2000, 20);
+        List<Process> rr = TestSupport.copy(workload);
+        SimulationResult expected = Schedulers.simulateRR(rr, 3, null, 0, null, null);
+        for (int window : new int[] { 1, 7, 1000 }) {
+            List<Process> parallel = TestSupport.copy(workload);
+            ParallelSimulation.Result result = ParallelSimulation.simulate(parallel, 1, 3, window, 4);
+            TestSupport.checkEquals(expected.total_time, result.total_time, "total time, window " + window);
+            int mismatches = 0;
+            for (int i = 0; i < rr.size(); i++) {
+                mismatches += rr.get(i).completion_time == parallel.get(i).completion_time ? 0 : 1;
+            }
+            TestSupport.checkEquals(0, mismatches, "completion times that differ from RR, window " + window);
+        }
+    }
+
+    // Every other process is long, so CPUs fill up unevenly and the balancer has work to do
+    private static void sameResultOnAnyNumberOfThreads() throws Exception {
+        List<Process> workload = new ArrayList<>();
+        for (Process p : TestSupport.randomWorkload(141, 600, "PB", 500, 10)) {
+            int burst = workload.size() % 3 == 0 ? p.burst_time * 15 : p.burst_time;
+            workload.add(new Process(p.pid(), p.arrival_time, burst, p.priority));
+        }
+        int cpus = 8;
+        for (int window : new int[] { 1, 5, 50 }) {
+            String expected = null;
+            for (int threads : new int[] { 1, 2, 3, 8, 16 }) {
+                List<Process> copy = TestSupport.copy(workload);
+                ParallelSimulation.Result result = ParallelSimulation.simulate(copy, cpus, 4, window, threads);
+                StringBuilder text = new StringBuilder();
+                long moved_in = 0;
+                long moved_out = 0;
+                for (int c = 0; c < cpus; c++) {
+                    moved_in += result.migrations_in[c];
+                    moved_out += result.migrations_out[c];
+                    text.append(result.migrations_in[c]).append('/').append(result.busy_ticks[c]).append(' ');
+                }
+                for (Process p : copy) {
+                    text.append(p.completion_time).append(' ');
+                }
+                TestSupport.checkEquals(moved_in, moved_out, "every process sent arrives");
+                TestSupport.check(moved_in > 0, "the balancer moved something, window " + window);
+                if (expected == null) {
+                    expected = text.toString();
+                } else {
+                    TestSupport.checkEquals(expected, text.toString(), threads + " threads vs 1, window " + window);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// PidTable's natural order: numbers inside PIDs compare as numbers, it is a
+// proper ordering (so sorting with it is safe), and the results table follows it.
+public class PidTableTest {
+
+    static void run() throws Exception {
+        numbersCompareAsNumbers();
+        leadingZeros();
+        otherCharacters();
+        itIsAnOrdering();
+        resultsTableFollowsTheRanks();
+    }
+
+    private static void numbersCompareAsNumbers() {
+        before("P2", "P10");
+        before("P9", "P10");
+        before("T1#2", "T1#10");
+        before("T2#10", "T10#2");
+        before("P1_9", "P1_10");
+        // more digits than fit in a long
+        before("P99999999999999999999", "P100000000000000000000");
+    }
+
+    // "P01" and "P1" are the same number, but not the same PID, so they still
+    // get a fixed order (and neither comes after "P2")
+    private static void leadingZeros() {
+        before("P01", "P1");
+        before("P01", "P2");
+        before("P007", "P10");
+        before("P0", "P00");
+        TestSupport.checkEquals(0, PidTable.compareNatural("P01", "P01"), "a PID equals itself");
+    }
+
+    private static void otherCharacters() {
+        before("abc", "abd");
+        before("IDLE", "idle");
+        before("Web Content", "Web-Content");
+        before("P", "P1");
+        before("P1", "P1a");
+        before("P1a", "P1b");
+        before("", "P");
+        // a digit sorts like a character against a letter
+        before("P1", "PA");
+        before("cafe", "caf\u00e9");
+    }
+
+    // On random PIDs made of a few letters and numbers: sgn(a, b) = -sgn(b, a),
+    // 0 only for equal strings, and a sorted list is in order pair by pair
+    private static void itIsAnOrdering() {
+        Random random = new Random(36);
+        String[] pieces = { "P", "T", "#", "0", "00", "1", "01", "2", "10", "007", "a" };
+        List<String> pids = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            StringBuilder pid = new StringBuilder();
+            int length = 1 + random.nextInt(4);
+            for (int k = 0; k < length; k++) {
+                pid.append(pieces[random.nextInt(pieces.length)]);
+            }
+            pids.add(pid.toString());
+        }
+        int bad_signs = 0;
+        for (String a : pids) {
+            for (String b : pids) {
+                int ab = Integer.signum(PidTable.compareNatural(a, b));
+                int ba = Integer.signum(PidTable.compareNatural(b, a));
+                if (ab != -ba || (ab == 0) != a.equals(b)) {
+                    bad_signs++;
+                }
+            }
+        }
+        TestSupport.checkEquals(0, bad_signs, "pairs that compare inconsistently");
+
+        Collections.sort(pids, PidTable::compareNatural);
+        int out_of_order = 0;
+        for (int i = 0; i < pids.size(); i++) {
+            for (int j = i + 1; j < pids.size(); j++) {
+                if (PidTable.compareNatural(pids.get(i), pids.get(j)) > 0) {
+                    out_of_order++;
+                }
+            }
+        }
+        TestSupport.checkEquals(0, out_of_order, "pairs out of order after sorting");
+    }
+
+    // Statistics.printResults lists the processes in rank order, whatever order
+    // they finished (or were added to PidTable) in, with a task's jobs in job order
+    private static void resultsTableFollowsTheRanks() throws Exception {
+        List<Process> completed = new ArrayList<>();
+        for (String pid : new String[] { "PT10", "PT2", "PT1", "PT01", "PTx", "PT1a" }) {
+            completed.add(new Process(pid, 0, 1, 0));
+        }
+        Process task = new Process("PT_T1", 0, 1, 0, 0, 5);
+        completed.add(new Process(task, 10, 45));
+        completed.add(new Process(task, 2, 5));
+        completed.add(new Process(task, 1, 0));
+
+        PrintStream console = System.out;
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        boolean printing = Statistics.print_results;
+        try {
+            System.setOut(new PrintStream(printed, true, "UTF-8"));
+            Statistics.print_results = true;
+            Statistics.printResults(completed, 1, new GanttLog());
+        } finally {
+            Statistics.print_results = printing;
+            System.setOut(console);
+        }
+
+        List<String> order = new ArrayList<>();
+        Matcher matcher = Pattern.compile("(?m)^(PT\\S*)\t").matcher(printed.toString("UTF-8"));
+        while (matcher.find()) {
+            order.add(matcher.group(1));
+        }
+        TestSupport.checkEquals("[PT01, PT1, PT1a, PT2, PT10, PT_T1#1, PT_T1#2, PT_T1#10, PTx]", order.toString(),
+            "the order of the results table");
+
+        int[] rank = PidTable.ranks();
+        boolean in_rank_order = true;
+        for (int i = 1; i < completed.size(); i++) {
+            in_rank_order &= rank[completed.get(i - 1).id] <= rank[completed.get(i).id];
+        }
+        TestSupport.check(in_rank_order, "the completed list is sorted by rank");
+    }
+
+    // checks that 'a' comes before 'b', both ways round
+    private static void before(String a, String b) {
+        TestSupport.check(PidTable.compareNatural(a, b) < 0, a + " < " + b);
+        TestSupport.check(PidTable.compareNatural(b, a) > 0, b + " > " + a);
+    }
+}
@@ -0,0 +1,77 @@
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Scanner;
+
+// Predictive SJF / SRTF: with perfect guesses it schedules exactly like its oracle
+// (same tie-breaking), the oracle is plain SJF when there are no ties, and the
+// menu option only prints the predictive run's header.
+public class PredictiveSchedulingTest {
+
+    static void run() {
+        perfectGuessesCostNothing();
+        oracleIsSjf();
+        oracleRunIsQuiet();
+    }
+
+    // Every burst is 4 and so is tau0, so every guess is right; lots of ties
+    private static void perfectGuessesCostNothing() {
+        Random random = new Random(39);
+        List<Process> workload = new ArrayList<>();
+        for (int i = 1; i <= 60; i++) {
+            workload.add(new Process("PS" + i, random.nextInt(100), 4, 0));
+        }
+        for (boolean preemptive : new boolean[] { false, true }) {
+            String predicted = TestSupport.describe(
+                Schedulers.simulatePredictive(TestSupport.copy(workload), preemptive, 0.5, 4, false));
+            String oracle = TestSupport.describe(
+                Schedulers.simulatePredictive(TestSupport.copy(workload), preemptive, 0.5, 4, true));
+            TestSupport.checkEquals(oracle, predicted, "right guesses, preemptive = " + preemptive);
+        }
+    }
+
+    // With all bursts different there are no ties, so the oracle is just SJF
+    private static void oracleIsSjf() {
+        Random random = new Random(139);
+        List<Integer> bursts = new ArrayList<>();
+        for (int i = 1; i <= 80; i++) {
+            bursts.add(i);
+        }
+        Collections.shuffle(bursts, random);
+        List<Process> workload = new ArrayList<>();
+        for (int i = 0; i < bursts.size(); i++) {
+            workload.add(new Process("PO" + i, random.nextInt(500), bursts.get(i), 0));
+        }
+        List<Process> sjf = TestSupport.copy(workload);
+        Schedulers.runSJF_NP(sjf);
+        List<Process> oracle = TestSupport.copy(workload);
+        Schedulers.simulatePredictive(oracle, false, 0.5, 1, true);
+        int mismatches = 0;
+        for (int i = 0; i < sjf.size(); i++) {
+            mismatches += sjf.get(i).completion_time == oracle.get(i).completion_time ? 0 : 1;
+        }
+        TestSupport.checkEquals(0, mismatches, "oracle completions that differ from SJF");
+    }
+
+    private static void oracleRunIsQuiet() {
+        List<Process> workload = TestSupport.randomWorkload(239, 20, "PQ", 30, 8);
+        boolean was_printing = Statistics.print_results;
+        Statistics.print_results = true;
+        PrintStream console = System.out;
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(printed, true));
+        try {
+            Schedulers.runPredictiveSJF(workload, new Scanner("y\n0.5\n5\n"));
+        } finally {
+            System.setOut(console);
+            Statistics.print_results = was_printing;
+        }
+        String output = printed.toString();
+        TestSupport.check(output.contains("Running Predictive SRTF"), "the predictive run's header");
+        TestSupport.check(!output.contains("Running SRTF"), "no header for the oracle run");
+        TestSupport.check(output.contains("--- Cost of Predicting ---"), "the comparison is printed");
+    }
+}
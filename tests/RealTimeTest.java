@@ -0,0 +1,143 @@
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// EDF / RM: the horizon, the jobs a periodic task releases, and the response
+// time analysis (checked against what the simulation actually does).
+public class RealTimeTest {
+
+    static void run() throws Exception {
+        negativeDeadlineOrPeriodIsSkipped();
+        horizon();
+        jobsKeepTheirTasksPid();
+        responseTimeAnalysisMatchesSimulation();
+    }
+
+    // A negative period used to make simulateRealTime release jobs forever, so
+    // InputParser skips those lines (with a warning), like lines with bad numbers
+    private static void negativeDeadlineOrPeriodIsSkipped() throws Exception {
+        Path folder = TestSupport.tempDirectory("real-time-input");
+        Path input = folder.resolve("tasks.txt");
+        Files.write(input, ("RT_J, 0, 1, 1, 4, 4\n"
+            + "RT_K, 0, 1, 1, 4, -4\n"
+            + "RT_L, 0, 1, 1, -1, 5\n"
+            + "RT_M, 0, 2, 1, 0, 6\n").getBytes(StandardCharsets.UTF_8));
+
+        PrintStream err = System.err;
+        PrintStream out = System.out;
+        ByteArrayOutputStream warnings = new ByteArrayOutputStream();
+        List<Process> tasks;
+        try {
+            System.setErr(new PrintStream(warnings, true, "UTF-8"));
+            System.setOut(new PrintStream(new ByteArrayOutputStream(), true, "UTF-8"));
+            tasks = InputParser.loadProcesses(input.toString());
+        } finally {
+            System.setErr(err);
+            System.setOut(out);
+        }
+        TestSupport.checkEquals(2, tasks.size(), "the two good tasks are loaded");
+        TestSupport.checkEquals("RT_J", tasks.get(0).pid(), "first good task");
+        TestSupport.checkEquals("RT_M", tasks.get(1).pid(), "second good task");
+        String printed = warnings.toString("UTF-8");
+        TestSupport.check(printed.contains("RT_K, 0, 1, 1, 4, -4"), "a warning for the negative period");
+        TestSupport.check(printed.contains("RT_L, 0, 1, 1, -1, 5"), "a warning for the negative deadline");
+
+        // and what's left simulates (and stops)
+        SimulationResult result = Schedulers.simulateRealTime("EDF", tasks, 12, Schedulers.earliestDeadlineQueue());
+        TestSupport.checkEquals(3 + 2, result.completed_processes.size(), "jobs released in 12 ticks");
+    }
+
+    // One hyperperiod is the default, and one too long to simulate is refused
+    // (instead of being cut short without a word)
+    private static void horizon() {
+        List<Process> tasks = new ArrayList<>();
+        tasks.add(new Process("RT_A", 0, 1, 0, 0, 4));
+        tasks.add(new Process("RT_B", 2, 1, 0, 0, 6));
+        tasks.add(new Process("RT_C", 0, 2, 0, 0, 10));
+        TestSupport.checkEquals(60L, Schedulers.hyperperiod(tasks), "hyperperiod of 4, 6 and 10");
+        TestSupport.checkEquals(62, Schedulers.realTimeHorizon(tasks, 0), "default horizon");
+        TestSupport.checkEquals(25, Schedulers.realTimeHorizon(tasks, 25), "a horizon that was asked for");
+
+        List<Process> long_tasks = new ArrayList<>();
+        long_tasks.add(new Process("RT_D", 0, 1, 0, 0, 999_983));
+        long_tasks.add(new Process("RT_E", 0, 1, 0, 0, 999_979));
+        TestSupport.checkEquals(999_983L * 999_979L, Schedulers.hyperperiod(long_tasks), "exact long hyperperiod");
+        TestSupport.checkEquals(-1, Schedulers.realTimeHorizon(long_tasks, 0), "too long a hyperperiod is refused");
+        TestSupport.checkEquals(5000, Schedulers.realTimeHorizon(long_tasks, 5000), "unless a horizon is given");
+    }
+
+    // Releasing jobs mustn't add a PID per job to PidTable
+    private static void jobsKeepTheirTasksPid() {
+        List<Process> tasks = new ArrayList<>();
+        Process a = new Process("RT_F", 0, 1, 0, 0, 3);
+        Process b = new Process("RT_G", 0, 2, 0, 5, 7);
+        tasks.add(a);
+        tasks.add(b);
+        int pids_before = PidTable.size();
+        SimulationResult result = Schedulers.simulateRealTime("EDF", tasks, 210, Schedulers.earliestDeadlineQueue());
+        TestSupport.checkEquals(pids_before, PidTable.size(), "no new PIDs for the jobs");
+        TestSupport.checkEquals(70 + 30, result.completed_processes.size(), "one job per period");
+
+        int a_jobs = 0;
+        for (Process job : result.completed_processes) {
+            TestSupport.check(job.id == a.id || job.id == b.id, "a job has its task's id");
+            if (job.id == a.id) {
+                a_jobs++;
+                TestSupport.checkEquals((job.job - 1) * 3, job.arrival_time, "job " + job.job + " of RT_F is released on time");
+            }
+        }
+        TestSupport.checkEquals(70, a_jobs, "jobs of RT_F");
+        TestSupport.checkEquals("RT_G#2", new Process(b, 2, 7).label(), "a job's label");
+        TestSupport.checkEquals("RT_G", b.label(), "a task's label");
+    }
+
+    // With every task released at 0 (the worst case for fixed priorities), the
+    // slowest job of each task in the simulation takes exactly as long as the
+    // analysis says, also when deadlines are longer than the periods.
+    private static void responseTimeAnalysisMatchesSimulation() {
+        Random random = new Random(29);
+        int sets = 0;
+        while (sets < 200) {
+            int n = 2 + random.nextInt(3);
+            List<Process> tasks = new ArrayList<>();
+            double utilization = 0;
+            for (int i = 0; i < n; i++) {
+                // different periods, so RM never has to break a tie
+                int period = 4 + i * 3 + random.nextInt(3);
+                int burst = 1 + random.nextInt(period / 2);
+                tasks.add(new Process("RT_S" + sets + "_" + i, 0, burst, 0, period * 3, period));
+                utilization += (double) burst / period;
+            }
+            if (utilization > 1) {
+                continue;
+            }
+            sets++;
+
+            int horizon = (int) Schedulers.hyperperiod(tasks);
+            SimulationResult result = Schedulers.simulateRealTime("RM", tasks, horizon, Schedulers.rateMonotonicQueue());
+            for (int i = 0; i < n; i++) {
+                Process task = tasks.get(i);
+                int slowest = 0;
+                for (Process job : result.completed_processes) {
+                    if (job.id == task.id) {
+                        slowest = Math.max(slowest, job.turnaround_time);
+                    }
+                }
+                TestSupport.checkEquals((long) slowest, Statistics.worstResponseTime(tasks, i, Integer.MAX_VALUE),
+                    "worst response of task " + i + " in set " + sets);
+            }
+        }
+
+        // The analysis stops (with something above the deadline) once a job misses it
+        List<Process> tight = new ArrayList<>();
+        tight.add(new Process("RT_H", 0, 2, 0, 0, 4));
+        tight.add(new Process("RT_I", 0, 1, 0, 5, 6));
+        TestSupport.check(Statistics.worstResponseTime(tight, 1, 5) == 3, "RT_I takes 3 ticks");
+        TestSupport.check(Statistics.worstResponseTime(tight, 1, 2) > 2, "so it misses a deadline of 2");
+    }
+}
@@ -0,0 +1,188 @@
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.Scanner;
+
+// The comparison table's numbers: the block-at-a-time totals (plain loops, and
+// the Vector API ones when the module is there) against a simple one-value-at-a-time
+// version, the variance against an exact BigInteger one (also for values whose
+// squares don't fit in a long), and the comparison run itself being quiet and
+// using the result cache.
+public class ResultAggregatesTest {
+
+    static void run() throws Exception {
+        aggregatesMatchBruteForce();
+        varianceOfLargeValues();
+        comparisonIsQuietAndCached();
+    }
+
+    private static void aggregatesMatchBruteForce() {
+        Random random = new Random(37);
+        boolean vector_api = ResultAggregates.use_vector_api;
+        try {
+            // lengths around the block size and the vector width, and values at the int limits
+            for (int n : new int[] { 0, 1, 7, 8, 9, 63, ResultAggregates.BLOCK - 1, ResultAggregates.BLOCK + 5, 3 * ResultAggregates.BLOCK + 13 }) {
+                int[][] columns = new int[4][n];
+                for (int a = 0; a < columns.length; a++) {
+                    for (int i = 0; i < n; i++) {
+                        columns[a][i] = a == 3 ? (random.nextBoolean() ? Integer.MAX_VALUE : Integer.MIN_VALUE)
+                            : random.nextInt(50) - (a == 2 ? 25 : 0);
+                    }
+                }
+                int threshold = 20;
+                String expected = bruteForce(columns, threshold);
+
+                ResultAggregates.use_vector_api = false;
+                TestSupport.checkEquals(expected, describe(columns, threshold), "plain loops, n = " + n);
+                if (VectorAggregates.available()) {
+                    ResultAggregates.use_vector_api = true;
+                    TestSupport.checkEquals(expected, describe(columns, threshold), "Vector API, n = " + n);
+                }
+                ResultAggregates[] results = ResultAggregates.compare(columns, threshold, new long[columns.length]);
+                for (int a = 0; a < columns.length; a++) {
+                    checkVariance(exactVariance(columns[a]), results[a].variance(), "column " + a + ", n = " + n);
+                }
+            }
+        } finally {
+            ResultAggregates.use_vector_api = vector_api;
+        }
+    }
+
+    // Values whose squares add up to more than a long holds: the variance has
+    // to come out right anyway (a long sum of squares gave 0 here)
+    private static void varianceOfLargeValues() {
+        int[] alternating = new int[5_000_000];
+        for (int i = 1; i < alternating.length; i += 2) {
+            alternating[i] = 2_000_000;
+        }
+        Random random = new Random(370);
+        int[] spread = new int[3 * ResultAggregates.BLOCK + 7];
+        for (int i = 0; i < spread.length; i++) {
+            spread[i] = random.nextInt();
+        }
+        // a big mean and a small spread, which "mean of the squares minus the
+        // square of the mean" can't get right even in double
+        int[] offset = new int[2 * ResultAggregates.BLOCK + 1];
+        for (int i = 0; i < offset.length; i++) {
+            offset[i] = 2_000_000_000 + random.nextInt(10);
+        }
+
+        boolean vector_api = ResultAggregates.use_vector_api;
+        try {
+            for (boolean use_vector : new boolean[] { false, true }) {
+                if (use_vector && !VectorAggregates.available()) {
+                    continue;
+                }
+                ResultAggregates.use_vector_api = use_vector;
+                String how = use_vector ? " (Vector API)" : " (plain loops)";
+                ResultAggregates r = ResultAggregates.of(alternating, 0);
+                TestSupport.check(Math.abs(r.standardDeviation() - 1_000_000) < 1e-6,
+                    "sd of 0 and 2,000,000 alternating is 1,000,000" + how + ": " + r.standardDeviation());
+                TestSupport.checkEquals(1_000_000.0, r.mean(), "their mean" + how);
+                checkVariance(exactVariance(spread), ResultAggregates.of(spread, 0).variance(), "random ints" + how);
+                checkVariance(exactVariance(offset), ResultAggregates.of(offset, 0).variance(), "big mean, small spread" + how);
+            }
+        } finally {
+            ResultAggregates.use_vector_api = vector_api;
+        }
+    }
+
+    // The population variance worked out exactly: (n * sum(x^2) - sum(x)^2) / n^2
+    private static double exactVariance(int[] column) {
+        if (column.length == 0) {
+            return 0;
+        }
+        BigInteger sum = BigInteger.ZERO;
+        BigInteger squares = BigInteger.ZERO;
+        for (int value : column) {
+            BigInteger x = BigInteger.valueOf(value);
+            sum = sum.add(x);
+            squares = squares.add(x.multiply(x));
+        }
+        BigInteger n = BigInteger.valueOf(column.length);
+        BigInteger numerator = squares.multiply(n).subtract(sum.multiply(sum));
+        return new BigDecimal(numerator).divide(new BigDecimal(n.multiply(n)), MathContext.DECIMAL64).doubleValue();
+    }
+
+    // Equal to a few parts in 10^9 (doubles that were added up in a different order)
+    private static void checkVariance(double expected, double actual, String what) {
+        TestSupport.check(Math.abs(expected - actual) <= 1e-9 * Math.max(1, expected),
+            "variance of " + what + ": expected " + expected + ", got " + actual);
+    }
+
+    private static String describe(int[][] columns, int threshold) {
+        long[] best = new long[columns.length];
+        ResultAggregates[] results = ResultAggregates.compare(columns, threshold, best);
+        StringBuilder text = new StringBuilder();
+        for (int a = 0; a < columns.length; a++) {
+            ResultAggregates r = results[a];
+            text.append(r.count).append(' ').append(r.sum).append(' ')
+                .append(r.min).append(' ').append(r.max).append(' ').append(r.above_threshold).append(' ')
+                .append(best[a]).append('\n');
+        }
+        return text.toString();
+    }
+
+    // The same numbers, one value at a time
+    private static String bruteForce(int[][] columns, int threshold) {
+        StringBuilder text = new StringBuilder();
+        int n = columns[0].length;
+        for (int[] column : columns) {
+            long sum = 0;
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            long above = 0;
+            long best = 0;
+            for (int i = 0; i < n; i++) {
+                sum += column[i];
+                min = Math.min(min, column[i]);
+                max = Math.max(max, column[i]);
+                above += column[i] > threshold ? 1 : 0;
+                boolean lowest = true;
+                for (int[] other : columns) {
+                    lowest &= column[i] <= other[i];
+                }
+                best += lowest ? 1 : 0;
+            }
+            text.append(n).append(' ').append(sum).append(' ')
+                .append(min).append(' ').append(max).append(' ').append(above).append(' ')
+                .append(best).append('\n');
+        }
+        return text.toString();
+    }
+
+    // No "Running ..." lines, just the table, and RR goes through the cache like the rest
+    private static void comparisonIsQuietAndCached() throws Exception {
+        Path directory = TestSupport.tempDirectory("comparison-cache");
+        String old_directory = ResultCache.cache_directory;
+        boolean old_enabled = ResultCache.enabled;
+        ResultCache.cache_directory = directory.toString();
+        ResultCache.enabled = true;
+        boolean was_printing = Statistics.print_results;
+        Statistics.print_results = true;
+        PrintStream console = System.out;
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        try {
+            List<Process> workload = TestSupport.randomWorkload(37, 40, "RA", 60, 9);
+            System.setOut(new PrintStream(printed, true));
+            ResultAggregates.runComparison(workload, new Scanner("3\n5\n"));
+            System.setOut(console);
+
+            String output = printed.toString();
+            TestSupport.check(output.contains("--- Algorithm Comparison ---"), "the table is printed");
+            TestSupport.check(!output.contains("Running"), "no scheduler headers: " + output);
+            TestSupport.check(ResultCache.lookup(TestSupport.copy(workload), "RR", 3) != null, "RR's result was cached");
+            TestSupport.check(Statistics.print_results, "printing is switched back on afterwards");
+        } finally {
+            System.setOut(console);
+            Statistics.print_results = was_printing;
+            ResultCache.cache_directory = old_directory;
+            ResultCache.enabled = old_enabled;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+// Result cache: a hit must give back exactly what the simulation gave (times, finish
+// order, Gantt log), a different workload or parameter must miss, nothing is read
+// or written while the cache is off, and a hit prints nothing in quiet mode.
+public class ResultCacheTest {
+
+    static void run() throws Exception {
+        Path directory = TestSupport.tempDirectory("cache-test");
+        String old_directory = ResultCache.cache_directory;
+        boolean old_enabled = ResultCache.enabled;
+        ResultCache.cache_directory = directory.toString();
+        try {
+            List<Process> workload = TestSupport.randomWorkload(28, 50, "R", 100, 10);
+
+            // switched off: nothing is written
+            ResultCache.enabled = false;
+            List<Process> rr_workload = TestSupport.copy(workload);
+            SimulationResult rr = Schedulers.simulateRR(rr_workload, 3, null, 0, null, null);
+            ResultCache.store(rr_workload, "RR", rr, 3);
+            TestSupport.checkEquals(0, directory.toFile().list().length, "a disabled cache writes no files");
+            TestSupport.check(ResultCache.lookup(workload, "RR", 3) == null, "a disabled cache never hits");
+
+            ResultCache.enabled = true;
+            checkRoundTrip(rr_workload, "RR", rr, 3);
+
+            List<Process> mlq_workload = TestSupport.copy(workload);
+            SimulationResult mlq = Schedulers.simulateMultiLevelQueue(mlq_workload, MultiLevelQueue.twoLevel(2));
+            checkRoundTrip(mlq_workload, "MLQ", mlq, 2);
+
+            // a different parameter or a different workload is a miss
+            TestSupport.check(ResultCache.lookup(TestSupport.copy(workload), "RR", 4) == null, "other quantum misses");
+            List<Process> changed = TestSupport.copy(workload);
+            changed.get(7).burst_time++;
+            TestSupport.check(ResultCache.lookup(changed, "RR", 3) == null, "changed workload misses");
+
+            // quiet mode: a hit doesn't print anything
+            PrintStream old_out = System.out;
+            ByteArrayOutputStream printed = new ByteArrayOutputStream();
+            System.setOut(new PrintStream(printed));
+            try {
+                ResultCache.lookup(TestSupport.copy(workload), "RR", 3);
+            } finally {
+                System.setOut(old_out);
+            }
+            TestSupport.checkEquals("", printed.toString(), "quiet mode prints nothing on a hit");
+
+            // a file written by another engine version is thrown away
+            for (File file : directory.toFile().listFiles()) {
+                try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(new FileOutputStream(file)))) {
+                    out.writeInt(0);
+                    out.writeInt(0);
+                }
+            }
+            TestSupport.check(ResultCache.lookup(TestSupport.copy(workload), "RR", 3) == null, "outdated file misses");
+            TestSupport.checkEquals(1, directory.toFile().list().length, "outdated file deleted");
+
+        } finally {
+            ResultCache.cache_directory = old_directory;
+            ResultCache.enabled = old_enabled;
+        }
+    }
+
+    private static void checkRoundTrip(List<Process> workload, String algorithm, SimulationResult result, int parameter) {
+        String expected = TestSupport.describe(result);
+        ResultCache.store(workload, algorithm, result, parameter);
+        // a fresh copy of the same workload, as after restarting the program
+        SimulationResult cached = ResultCache.lookup(TestSupport.copy(workload), algorithm, parameter);
+        TestSupport.check(cached != null, algorithm + " is cached");
+        if (cached != null) {
+            TestSupport.checkEquals(expected, TestSupport.describe(cached), algorithm + " hit matches the miss");
+        }
+    }
+}
@@ -0,0 +1,51 @@
+// Runs every test in this folder. From the project folder:
+//   javac -d out *.java tests/*.java && java -cp out RunAllTests
+public class RunAllTests {
+
+    public static void main(String[] args) throws Exception {
+        // the schedulers print their results by default; the tests only need the numbers
+        Statistics.print_results = false;
+
+        run("CheckpointTest", CheckpointTest::run);
+        run("WhatIfTest", WhatIfTest::run);
+        run("ResultCacheTest", ResultCacheTest::run);
+        run("RealTimeTest", RealTimeTest::run);
+        run("TraceImporterTest", TraceImporterTest::run);
+        run("GanttRendererTest", GanttRendererTest::run);
+        run("SimulationMonitorTest", SimulationMonitorTest::run);
+        run("SchedulerEventsTest", SchedulerEventsTest::run);
+        run("WorkloadStoreTest", WorkloadStoreTest::run);
+        run("SchedulingExecutorTest", SchedulingExecutorTest::run);
+        run("PidTableTest", PidTableTest::run);
+        run("ResultAggregatesTest", ResultAggregatesTest::run);
+        run("TimelineIndexTest", TimelineIndexTest::run);
+        run("PredictiveSchedulingTest", PredictiveSchedulingTest::run);
+        run("AdaptiveRRTest", AdaptiveRRTest::run);
+        run("ParallelSimulationTest", ParallelSimulationTest::run);
+        run("MultiLevelQueueTest", MultiLevelQueueTest::run);
+
+        System.out.println("\n" + TestSupport.checks + " checks, " + TestSupport.failures + " failed.");
+        if (TestSupport.failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    interface Test {
+        void run() throws Exception;
+    }
+
+    private static void run(String name, Test test) {
+        System.out.println("Running " + name + "...");
+        int failures_before = TestSupport.failures;
+        try {
+            test.run();
+        } catch (Exception | AssertionError e) {
+            TestSupport.failures++;
+            System.out.println("  FAILED: " + name + " threw " + e);
+            e.printStackTrace(System.out);
+        }
+        if (TestSupport.failures == failures_before) {
+            System.out.println("  ok");
+        }
+    }
+}
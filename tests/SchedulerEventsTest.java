@@ -0,0 +1,95 @@
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+// The JFR events: with a recording that turns them on, a run records a dispatch
+// and a completion for each process, and exactly one summary.
+public class SchedulerEventsTest {
+
+    static void run() throws Exception {
+        Path folder = TestSupport.tempDirectory("scheduler-events");
+
+        List<Process> workload = new ArrayList<>();
+        workload.add(new Process("JFR_A", 0, 5, 0));
+        workload.add(new Process("JFR_B", 1, 3, 0));
+        workload.add(new Process("JFR_C", 2, 1, 0));
+
+        // FCFS never takes the CPU away, so each process is dispatched once
+        List<RecordedEvent> fcfs = record(folder.resolve("fcfs.jfr"),
+            () -> Schedulers.runFCFS(TestSupport.copy(workload)));
+        for (Process p : workload) {
+            TestSupport.checkEquals(1, count(fcfs, "cpu.scheduling.Dispatch", p.pid()), "FCFS dispatches " + p.pid() + " once");
+            TestSupport.checkEquals(1, count(fcfs, "cpu.scheduling.Completion", p.pid()), "FCFS completes " + p.pid() + " once");
+            TestSupport.checkEquals(0, count(fcfs, "cpu.scheduling.QuantumExpiry", p.pid()), "FCFS has no quantum expiries");
+        }
+        checkSummary(fcfs, "FCFS", workload.size());
+
+        // Round Robin with a quantum of 2: 5 ticks take 3 turns, 3 take 2 and 1 takes 1,
+        // and every turn but the last ends with the quantum running out
+        List<RecordedEvent> rr = record(folder.resolve("rr.jfr"),
+            () -> Schedulers.simulateRR(TestSupport.copy(workload), 2, null, 0, null, null));
+        int[] turns = { 3, 2, 1 };
+        for (int i = 0; i < workload.size(); i++) {
+            String pid = workload.get(i).pid();
+            TestSupport.checkEquals(turns[i], count(rr, "cpu.scheduling.Dispatch", pid), "RR dispatches of " + pid);
+            TestSupport.checkEquals(turns[i] - 1, count(rr, "cpu.scheduling.QuantumExpiry", pid), "RR quantum expiries of " + pid);
+            TestSupport.checkEquals(1, count(rr, "cpu.scheduling.Completion", pid), "RR completes " + pid + " once");
+        }
+        checkSummary(rr, "RR", workload.size());
+    }
+
+    // Runs 'run' with all our events turned on, and returns what was recorded
+    private static List<RecordedEvent> record(Path file, Runnable run) throws Exception {
+        try (Recording recording = new Recording()) {
+            for (String name : new String[] { "Arrival", "Dispatch", "Preemption", "QuantumExpiry", "Completion", "RunSummary" }) {
+                recording.enable("cpu.scheduling." + name);
+            }
+            recording.start();
+            run.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file);
+    }
+
+    // How many events of type 'name' were recorded for 'pid'
+    private static int count(List<RecordedEvent> events, String name, String pid) {
+        int n = 0;
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals(name) && pid.equals(event.getString("pid"))) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    private static void checkSummary(List<RecordedEvent> events, String algorithm, int processes) {
+        Map<String, Integer> decisions = new HashMap<>();
+        List<RecordedEvent> summaries = new ArrayList<>();
+        for (RecordedEvent event : events) {
+            String name = event.getEventType().getName();
+            if (name.equals("cpu.scheduling.RunSummary")) {
+                summaries.add(event);
+            } else {
+                decisions.merge(name, 1, Integer::sum);
+            }
+        }
+        TestSupport.checkEquals(1, summaries.size(), algorithm + ": exactly one run summary");
+        if (summaries.size() != 1) {
+            return;
+        }
+        RecordedEvent summary = summaries.get(0);
+        TestSupport.checkEquals(algorithm, summary.getString("algorithm"), "the summary's algorithm");
+        TestSupport.checkEquals(processes, summary.getInt("processes"), algorithm + ": processes in the summary");
+        long recorded = 0;
+        for (int n : decisions.values()) {
+            recorded += n;
+        }
+        TestSupport.checkEquals(recorded, summary.getLong("simulatedEvents"), algorithm + ": the summary counts every decision");
+    }
+}
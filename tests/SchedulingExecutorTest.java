@@ -0,0 +1,202 @@
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// The thread-backed executor: a fixed number of worker threads however many tasks
+// are preempted, never more tasks running than CPUs (also after shutdownNow()),
+// a name for every execute()d task, MLQ levels from MultiLevelQueue, and the
+// results table in natural order.
+public class SchedulingExecutorTest {
+
+    static void run() throws Exception {
+        workersAreReused();
+        shutdownNowKeepsToTheCpus();
+        executeNamesAreUnique();
+        configuredLevelsPreempt();
+        resultsAreInNaturalOrder();
+    }
+
+    // Counts how many tasks are running their own code at the same time
+    private static class Concurrency {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger most = new AtomicInteger();
+
+        // Spins for about 'micros', counted as running, then lets the executor preempt
+        void slice(long micros) {
+            most.accumulateAndGet(running.incrementAndGet(), Math::max);
+            long end = System.nanoTime() + micros * 1000;
+            while (System.nanoTime() < end) {
+                Thread.onSpinWait();
+            }
+            running.decrementAndGet();
+            SchedulingExecutor.yieldPoint();
+        }
+    }
+
+    // Round Robin with a tiny slice preempts all the time, but the 12 tasks
+    // still only ever run on the 3 workers
+    private static void workersAreReused() throws Exception {
+        SchedulingExecutor executor = new SchedulingExecutor(SchedulingExecutor.Policy.RR, 2, 3, 1, false);
+        Concurrency concurrency = new Concurrency();
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 12; i++) {
+            executor.submit(() -> {
+                threads.add(Thread.currentThread());
+                for (int s = 0; s < 30; s++) {
+                    concurrency.slice(200);
+                }
+            }, "SE" + i, 6, 0);
+        }
+        executor.shutdown();
+        TestSupport.check(executor.awaitTermination(60, TimeUnit.SECONDS), "all 12 tasks finish");
+        TestSupport.check(threads.size() <= 3, "at most 3 threads ran them: " + threads.size());
+        TestSupport.checkEquals(3, executor.workersStarted(), "3 workers were started");
+        TestSupport.check(concurrency.most.get() <= 2, "never more than 2 running: " + concurrency.most.get());
+        TestSupport.checkEquals(2, executor.freeCpus(), "both CPUs are free at the end");
+    }
+
+    // After shutdownNow(), the preempted tasks finish one at a time on the one
+    // CPU instead of all being woken at once, and the ones that never started
+    // are handed back
+    private static void shutdownNowKeepsToTheCpus() throws Exception {
+        SchedulingExecutor executor = new SchedulingExecutor(SchedulingExecutor.Policy.RR, 1, 4, 1, false);
+        Concurrency concurrency = new Concurrency();
+        AtomicInteger started = new AtomicInteger();
+        for (int i = 0; i < 6; i++) {
+            executor.submit(() -> {
+                started.incrementAndGet();
+                while (!Thread.currentThread().isInterrupted()) {
+                    concurrency.slice(100);
+                }
+                // a little more work after the interrupt, still on one CPU
+                for (int s = 0; s < 5; s++) {
+                    concurrency.slice(100);
+                }
+            }, "SD" + i, 1000, 0);
+        }
+        long give_up = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (started.get() < 4 && System.nanoTime() < give_up) {
+            Thread.sleep(1);
+        }
+        TestSupport.checkEquals(4, started.get(), "one task started per worker");
+
+        List<Runnable> never_started = executor.shutdownNow();
+        TestSupport.check(executor.awaitTermination(60, TimeUnit.SECONDS), "the started tasks finish");
+        TestSupport.checkEquals(2, never_started.size(), "the other 2 are handed back");
+        TestSupport.checkEquals(1, concurrency.most.get(), "only ever one running");
+        TestSupport.checkEquals(1, executor.freeCpus(), "the CPU is free at the end");
+    }
+
+    // execute() from many threads at once still names every task differently
+    private static void executeNamesAreUnique() throws Exception {
+        SchedulingExecutor executor = new SchedulingExecutor(SchedulingExecutor.Policy.FCFS, 4, 4, 1, false);
+        int callers = 8;
+        int per_caller = 200;
+        CountDownLatch go = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < callers; c++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < per_caller; i++) {
+                    executor.execute(() -> { });
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        go.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        executor.shutdown();
+        TestSupport.check(executor.awaitTermination(60, TimeUnit.SECONDS), "the executed tasks finish");
+
+        Set<String> names = new HashSet<>();
+        Matcher matcher = Pattern.compile("(?m)^(T\\d+)\t").matcher(printedResults(executor));
+        while (matcher.find()) {
+            names.add(matcher.group(1));
+        }
+        TestSupport.checkEquals(callers * per_caller, names.size(), "different names");
+    }
+
+    // Levels from MultiLevelQueue, not a fixed "priority < 3": with priority 3
+    // in the top level, it takes the CPU from a running priority 4 task
+    private static void configuredLevelsPreempt() throws Exception {
+        List<MultiLevelQueue.Level> levels = new ArrayList<>();
+        levels.add(new MultiLevelQueue.Level(0, 3, MultiLevelQueue.Policy.FCFS, 0, 1));
+        levels.add(new MultiLevelQueue.Level(4, 9, MultiLevelQueue.Policy.FCFS, 0, 1));
+        SchedulingExecutor executor = new SchedulingExecutor(
+            new MultiLevelQueue(levels, MultiLevelQueue.Dispatch.STRICT), 1, 2, 1, false);
+
+        AtomicBoolean low_running = new AtomicBoolean();
+        AtomicBoolean high_done = new AtomicBoolean();
+        AtomicBoolean high_ran_first = new AtomicBoolean();
+        executor.submit(() -> {
+            low_running.set(true);
+            long give_up = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (!high_done.get() && System.nanoTime() < give_up) {
+                SchedulingExecutor.yieldPoint();
+            }
+            high_ran_first.set(high_done.get());
+        }, "LOW", 10, 4);
+        while (!low_running.get()) {
+            Thread.sleep(1);
+        }
+        executor.submit(() -> high_done.set(true), "HIGH", 1, 3);
+        executor.shutdown();
+        TestSupport.check(executor.awaitTermination(60, TimeUnit.SECONDS), "both tasks finish");
+        TestSupport.check(high_ran_first.get(), "priority 3 preempted priority 4");
+
+        boolean refused = false;
+        try {
+            new SchedulingExecutor(new MultiLevelQueue(levels, MultiLevelQueue.Dispatch.WEIGHTED), 1, 1, 1, false);
+        } catch (IllegalArgumentException e) {
+            refused = true;
+        }
+        TestSupport.check(refused, "WEIGHTED levels are refused");
+    }
+
+    // P2 comes before P10 in the results table, as in the simulator's
+    private static void resultsAreInNaturalOrder() throws Exception {
+        SchedulingExecutor executor = new SchedulingExecutor(SchedulingExecutor.Policy.FCFS, 1, 1, 1, false);
+        for (String name : new String[] { "P10", "P2", "P1", "P11" }) {
+            executor.submit(() -> { }, name, 1, 0);
+        }
+        executor.shutdown();
+        TestSupport.check(executor.awaitTermination(60, TimeUnit.SECONDS), "the tasks finish");
+        List<String> order = new ArrayList<>();
+        Matcher matcher = Pattern.compile("(?m)^(P\\d+)\t").matcher(printedResults(executor));
+        while (matcher.find()) {
+            order.add(matcher.group(1));
+        }
+        TestSupport.checkEquals("[P1, P2, P10, P11]", order.toString(), "the order of the results table");
+    }
+
+    // What printResults() prints
+    static String printedResults(SchedulingExecutor executor) {
+        PrintStream console = System.out;
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(printed, true));
+        try {
+            executor.printResults(0);
+        } finally {
+            System.setOut(console);
+        }
+        return new String(printed.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,59 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// The JMX side of SimulationMonitor: per-queue depths, and a run being taken out
+// of JMX again whether it finishes or fails.
+public class SimulationMonitorTest {
+
+    static void run() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName all_runs = new ObjectName("cpu.scheduling:type=Simulation,*");
+        int registered_before = server.queryNames(all_runs, null).size();
+
+        // Per-queue depths, read the way JConsole would
+        SimulationMonitor monitor = SimulationMonitor.start("TEST", 10, 3);
+        monitor.queueDepth(0, 2);
+        monitor.queueDepth(2, 5);
+        ObjectName name = server.queryNames(new ObjectName("cpu.scheduling:type=Simulation,algorithm=\"TEST\",*"), null)
+            .iterator().next();
+        TestSupport.checkEquals("[2, 0, 5]", Arrays.toString((long[]) server.getAttribute(name, "QueueDepths")),
+            "each queue's depth");
+        TestSupport.check((Long) server.getAttribute(name, "JvmHeapUsedBytes") > 0, "the JVM's used heap");
+        monitor.finish(100);
+        TestSupport.check(!server.isRegistered(name), "finish() takes the run out of JMX");
+        monitor.close();   // a second time does nothing
+
+        // A single-queue scheduler shows its one queue
+        SimulationMonitor single = SimulationMonitor.start("TEST", 10);
+        single.arrival(new Process("MON_A", 0, 1, 0), 0, 4);
+        TestSupport.checkEquals("[4]", Arrays.toString(single.getQueueDepths()), "the single queue's depth");
+        single.finish(1);
+
+        // Normal runs, including the MLQ, leave nothing behind
+        List<Process> workload = TestSupport.randomWorkload(33, 50, "MON", 100, 10);
+        Schedulers.simulateRR(workload, 3, null, 0, null, null);
+        Schedulers.simulateMultiLevelQueue(workload, MultiLevelQueue.twoLevel(3));
+        TestSupport.checkEquals(registered_before, server.queryNames(all_runs, null).size(), "finished runs are unregistered");
+
+        // A run that throws part way (here: its ready queue can't compare two jobs)
+        List<Process> tasks = new ArrayList<>();
+        tasks.add(new Process("MON_T1", 0, 1, 0, 0, 4));
+        tasks.add(new Process("MON_T2", 0, 1, 0, 0, 4));
+        PriorityQueue<Process> broken = new PriorityQueue<>((x, y) -> {
+            throw new IllegalStateException("broken comparator");
+        });
+        boolean threw = false;
+        try {
+            Schedulers.simulateRealTime("EDF", tasks, 8, broken);
+        } catch (IllegalStateException e) {
+            threw = true;
+        }
+        TestSupport.check(threw, "the broken run threw");
+        TestSupport.checkEquals(registered_before, server.queryNames(all_runs, null).size(), "a failed run is unregistered too");
+    }
+}
@@ -0,0 +1,89 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Small helpers shared by the tests in this folder.
+//
+// The project has no build tool or test library, so every test is a plain class
+// with a static run() method, and RunAllTests calls them one after the other.
+// A failed check is counted and printed, and the run carries on, so one broken
+// test doesn't hide the others.
+public class TestSupport {
+
+    static int checks = 0;
+    static int failures = 0;
+
+    static void check(boolean condition, String what) {
+        checks++;
+        if (!condition) {
+            failures++;
+            System.out.println("  FAILED: " + what);
+        }
+    }
+
+    static void checkEquals(Object expected, Object actual, String what) {
+        checks++;
+        if (expected == null ? actual != null : !expected.equals(actual)) {
+            failures++;
+            System.out.println("  FAILED: " + what + "\n    expected: " + shorten(expected)
+                + "\n    actual:   " + shorten(actual));
+        }
+    }
+
+    private static String shorten(Object value) {
+        String text = String.valueOf(value);
+        return text.length() > 300 ? text.substring(0, 300) + "..." : text;
+    }
+
+
+    /**
+     * A random workload: 'n' processes named prefix1..prefixN with arrivals in
+     * [0, max_arrival), bursts in [1, max_burst] and priorities in [0, 5].
+     */
+    static List<Process> randomWorkload(long seed, int n, String prefix, int max_arrival, int max_burst) {
+        Random random = new Random(seed);
+        List<Process> processes = new ArrayList<>();
+        for (int i = 1; i <= n; i++) {
+            processes.add(new Process(prefix + i, random.nextInt(max_arrival),
+                1 + random.nextInt(max_burst), random.nextInt(6)));
+        }
+        return processes;
+    }
+
+    /**
+     * Everything a run decided, as one string, so two runs (even on different
+     * Process objects) can be compared with equals(): every process's times in
+     * the order they finished, the total time and the Gantt log.
+     */
+    static String describe(SimulationResult result) {
+        StringBuilder text = new StringBuilder();
+        for (Process p : result.completed_processes) {
+            text.append(p.pid()).append(':').append(p.completion_time).append('/')
+                .append(p.waiting_time).append('/').append(p.turnaround_time).append(' ');
+        }
+        text.append("| total=").append(result.total_time).append(" | gantt:");
+        for (int t = 0; t < result.gantt_chart_log.size(); t++) {
+            text.append(' ').append(result.gantt_chart_log.get(t));
+        }
+        return text.toString();
+    }
+
+    // Copies of the processes, so two runs don't share any state
+    static List<Process> copy(List<Process> processes) {
+        List<Process> copies = new ArrayList<>();
+        for (Process p : processes) {
+            copies.add(new Process(p.pid(), p.arrival_time, p.burst_time, p.priority, p.deadline, p.period));
+        }
+        return copies;
+    }
+
+    // A fresh, empty temporary folder for a test's files
+    static Path tempDirectory(String name) throws IOException {
+        Path directory = Files.createTempDirectory(name);
+        directory.toFile().deleteOnExit();
+        return directory;
+    }
+}
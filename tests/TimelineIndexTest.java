@@ -0,0 +1,71 @@
+import java.util.Random;
+
+// The timeline index gives the same answers as walking the Gantt log tick by tick,
+// for random logs with idle gaps, and for ranges partly or wholly outside the run.
+public class TimelineIndexTest {
+
+    static void run() {
+        int[] ids = new int[6];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = PidTable.intern("TI_" + i);
+        }
+
+        Random random = new Random(38);
+        for (int round = 0; round < 40; round++) {
+            // runs of random length, some of them idle, some processes coming back later
+            GanttLog log = new GanttLog();
+            int length = round == 0 ? 0 : 1 + random.nextInt(300);
+            while (log.size() < length) {
+                int id = random.nextInt(4) == 0 ? PidTable.IDLE : ids[random.nextInt(ids.length)];
+                int run = 1 + random.nextInt(12);
+                for (int t = 0; t < run && log.size() < length; t++) {
+                    log.add(id);
+                }
+            }
+            TimelineIndex index = new TimelineIndex(log);
+            TestSupport.checkEquals(length, index.totalTime(), "total time, round " + round);
+
+            int mismatches = 0;
+            for (int t = -2; t < length + 2; t++) {
+                int expected = t < 0 || t >= length ? PidTable.IDLE : log.get(t);
+                mismatches += index.whoAt(t) == expected ? 0 : 1;
+            }
+            for (int q = 0; q < 300; q++) {
+                int from = random.nextInt(length + 10) - 5;
+                int to = random.nextInt(length + 10) - 5;
+                mismatches += index.utilization(from, to) == utilization(log, from, to) ? 0 : 1;
+                int id = random.nextInt(5) == 0 ? PidTable.IDLE : ids[random.nextInt(ids.length)];
+                mismatches += index.cpuTime(id, from, to) == cpuTime(log, id, from, to) ? 0 : 1;
+            }
+            TestSupport.checkEquals(0, mismatches, "answers that differ from the tick-by-tick ones, round " + round);
+        }
+
+        // a process interned after the index was built never ran in it
+        TimelineIndex index = new TimelineIndex(new GanttLog());
+        TestSupport.checkEquals(0L, index.cpuTime(PidTable.intern("TI_LATE"), 0, 10), "a process that came later");
+    }
+
+    private static double utilization(GanttLog log, int from, int to) {
+        from = Math.max(0, from);
+        to = Math.min(to, log.size());
+        if (to <= from) {
+            return 0;
+        }
+        long busy = 0;
+        for (int t = from; t < to; t++) {
+            busy += log.get(t) == PidTable.IDLE ? 0 : 1;
+        }
+        return (double) busy / (to - from);
+    }
+
+    private static long cpuTime(GanttLog log, int id, int from, int to) {
+        if (id == PidTable.IDLE) {
+            return 0;
+        }
+        long ran = 0;
+        for (int t = Math.max(0, from); t < Math.min(to, log.size()); t++) {
+            ran += log.get(t) == id ? 1 : 0;
+        }
+        return ran;
+    }
+}
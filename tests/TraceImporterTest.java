@@ -0,0 +1,76 @@
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+// Importing perf and ftrace traces, with comms that have spaces, colons and
+// non-ASCII characters in them.
+public class TraceImporterTest {
+
+    static void run() throws Exception {
+        Path folder = TestSupport.tempDirectory("trace-import");
+
+        // perf sched script
+        List<String> perf = importLines(folder, "perf.txt",
+            "Web Content  1234 [001]  100.000000: sched:sched_wakeup: Web Content:1234 [120] success=1 CPU:001\n"
+            + "swapper  0 [001]  100.000000: sched:sched_switch: swapper/1:0 [120] R ==> Web Content:1234 [120]\n"
+            + "Web Content  1234 [001]  100.003000: sched:sched_switch: Web Content:1234 [120] S ==> kworker/0:1:77 [100]\n"
+            + "kworker/0:1  77 [001]  100.005000: sched:sched_switch: kworker/0:1:77 [100] D ==> swapper/1:0 [120]\n");
+        TestSupport.check(perf.contains("Web Content-1234#1, 0, 3, 120"), "perf: a comm with a space " + perf);
+        TestSupport.check(perf.contains("kworker/0:1-77#1, 3, 2, 100"), "perf: a comm with a colon " + perf);
+
+        // ftrace
+        List<String> ftrace = importLines(folder, "ftrace.txt",
+            " Web Content-1234  [001] d..3   200.000000: sched_wakeup: comm=Web Content pid=1234 prio=120 target_cpu=001\n"
+            + "          <idle>-0     [001] d..3   200.000000: sched_switch: prev_comm=swapper/1 prev_pid=0 prev_prio=120 prev_state=R ==> next_comm=Web Content next_pid=1234 next_prio=120\n"
+            + " Web Content-1234  [001] d..3   200.004000: sched_switch: prev_comm=Web Content prev_pid=1234 prev_prio=120 prev_state=S ==> next_comm=caf\u00e9 bar next_pid=88 next_prio=110\n"
+            + " caf\u00e9 bar-88  [001] d..3   200.006000: sched_switch: prev_comm=caf\u00e9 bar prev_pid=88 prev_prio=110 prev_state=S ==> next_comm=swapper/1 next_pid=0 next_prio=120\n");
+        TestSupport.check(ftrace.contains("Web Content-1234#1, 0, 4, 120"), "ftrace: a comm with a space " + ftrace);
+        TestSupport.check(ftrace.contains("caf\u00e9 bar-88#1, 4, 2, 110"), "ftrace: a non-ASCII comm " + ftrace);
+
+        // and the output really is UTF-8, whatever the platform's default is
+        byte[] bytes = Files.readAllBytes(folder.resolve("ftrace.txt.out"));
+        TestSupport.check(new String(bytes, StandardCharsets.UTF_8).contains("caf\u00e9 bar-88#1"), "the output is UTF-8");
+
+        // and both readers read it back as UTF-8 too, so the comm survives the round trip
+        String imported = folder.resolve("ftrace.txt.out").toString();
+        int bursts = 0;
+        for (String line : ftrace) {
+            bursts += line.startsWith("#") ? 0 : 1;
+        }
+        PrintStream out = System.out;
+        List<Process> loaded;
+        try {
+            System.setOut(new PrintStream(new ByteArrayOutputStream(), true, "UTF-8"));
+            loaded = InputParser.loadProcesses(imported);
+        } finally {
+            System.setOut(out);
+        }
+        TestSupport.checkEquals(bursts, loaded.size(), "InputParser loads every imported line");
+        boolean found = false;
+        for (Process p : loaded) {
+            found |= p.pid().equals("caf\u00e9 bar-88#1");
+        }
+        TestSupport.check(found, "InputParser reads the non-ASCII comm");
+        try (WorkloadStore store = WorkloadStore.load(imported, null)) {
+            TestSupport.checkEquals((long) bursts, store.size(), "WorkloadStore loads every imported line");
+            found = false;
+            for (long i = 0; i < store.size(); i++) {
+                found |= store.pid(i).equals("caf\u00e9 bar-88#1");
+            }
+            TestSupport.check(found, "WorkloadStore reads the non-ASCII comm");
+        }
+    }
+
+    // Writes 'trace' to a file, imports it (1 tick = 1 ms) and returns the lines written
+    private static List<String> importLines(Path folder, String name, String trace) throws Exception {
+        Path trace_file = folder.resolve(name);
+        Path output_file = folder.resolve(name + ".out");
+        Files.write(trace_file, trace.getBytes(StandardCharsets.UTF_8));
+        TraceImporter importer = TraceImporter.importTrace(trace_file.toString(), output_file.toString(), 1000);
+        TestSupport.checkEquals(0L, importer.lines_skipped, name + ": no lines skipped");
+        return Files.readAllLines(output_file, StandardCharsets.UTF_8);
+    }
+}
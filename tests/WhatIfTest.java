@@ -0,0 +1,64 @@
+import java.util.List;
+import java.util.Random;
+
+// What-if analysis: after every add / remove / edit, the incremental result must
+// be exactly what a full Round Robin run on the changed workload gives, and a
+// change late in the run must only re-simulate from a late checkpoint.
+public class WhatIfTest {
+
+    static void run() {
+        Random random = new Random(27);
+        List<Process> model = TestSupport.randomWorkload(27, 30, "W", 200, 12);
+        int time_quantum = 4;
+        WhatIf what_if = new WhatIf(model, time_quantum, 10);
+        compareWithFullRun(what_if, model, "baseline");
+
+        int next_pid = 1000;
+        for (int step = 0; step < 60; step++) {
+            int choice = random.nextInt(3);
+            if (choice == 0 || model.size() < 5) {
+                Process p = new Process("W" + next_pid++, random.nextInt(250), 1 + random.nextInt(12), random.nextInt(6));
+                TestSupport.check(what_if.addProcess(p) != null, "add " + p.pid());
+                model.add(new Process(p.pid(), p.arrival_time, p.burst_time, p.priority));
+            } else if (choice == 1) {
+                Process p = model.remove(random.nextInt(model.size()));
+                TestSupport.check(what_if.removeProcess(p.pid()) != null, "remove " + p.pid());
+            } else {
+                Process p = model.get(random.nextInt(model.size()));
+                p.arrival_time = random.nextInt(250);
+                p.burst_time = 1 + random.nextInt(12);
+                TestSupport.check(what_if.editProcess(p.pid(), p.arrival_time, p.burst_time, p.priority) != null,
+                    "edit " + p.pid());
+            }
+            compareWithFullRun(what_if, model, "step " + step);
+        }
+
+        // a PID that's taken or missing is refused
+        TestSupport.check(what_if.addProcess(new Process(model.get(0).pid(), 5, 5, 1)) == null, "duplicate PID refused");
+        TestSupport.check(what_if.removeProcess("no-such-pid") == null, "unknown PID refused");
+
+        // a change near the end only re-runs the end
+        int end = what_if.last_result.total_time;
+        what_if.addProcess(new Process("W-late", end - 3, 2, 1));
+        model.add(new Process("W-late", end - 3, 2, 1));
+        compareWithFullRun(what_if, model, "late arrival");
+        TestSupport.check(what_if.last_restart_time > end - 3 - 10,
+            "late change re-simulated from t=" + what_if.last_restart_time + " (end " + end + ")");
+
+        // an interval of 0 would mean a snapshot every tick (or none at all), so it's refused
+        boolean refused = false;
+        try {
+            new WhatIf(model, time_quantum, 0);
+        } catch (IllegalArgumentException e) {
+            refused = true;
+        }
+        TestSupport.check(refused, "checkpoint interval 0 refused");
+    }
+
+    private static void compareWithFullRun(WhatIf what_if, List<Process> model, String what) {
+        List<Process> fresh = TestSupport.copy(model);
+        SimulationResult full = Schedulers.simulateRR(fresh, 4, null, 0, null, null);
+        TestSupport.checkEquals(TestSupport.describe(full), TestSupport.describe(what_if.last_result),
+            "what-if matches a full run after " + what);
+    }
+}
@@ -0,0 +1,75 @@
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+// The off-heap store: SJF and Priority over its own ready heap give the same
+// completion times as the usual schedulers, the arrival order goes into the
+// backing file when there is one, and long PIDs are cut between characters.
+public class WorkloadStoreTest {
+
+    static void run() throws Exception {
+        Path folder = TestSupport.tempDirectory("store");
+
+        // Unique bursts and priorities, so every scheduler has only one right answer,
+        // and arrivals out of order, so the store has to sort them
+        Random random = new Random(34);
+        int n = 2000;
+        List<Integer> bursts = new ArrayList<>();
+        List<Integer> priorities = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            bursts.add(1 + i);
+            priorities.add(i);
+        }
+        Collections.shuffle(bursts, random);
+        Collections.shuffle(priorities, random);
+        List<Process> workload = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            workload.add(new Process("WS" + i, random.nextInt(500_000), bursts.get(i), priorities.get(i)));
+        }
+
+        String backing_file = folder.resolve("store.bin").toString();
+        for (String backing : new String[] { null, backing_file }) {
+            try (WorkloadStore store = new WorkloadStore(backing)) {
+                for (Process p : workload) {
+                    store.add(p.pid(), p.arrival_time, p.burst_time, p.priority);
+                }
+                TestSupport.check(!store.isSortedByArrival(), "the workload isn't in arrival order");
+
+                Schedulers.runSJF_OffHeap(store);
+                Schedulers.runSJF_NP(workload);
+                checkSameCompletions(store, workload, "SJF, backing file " + backing);
+
+                Schedulers.runPriority_OffHeap(store);
+                Schedulers.runPriority_NP(workload);
+                checkSameCompletions(store, workload, "Priority, backing file " + backing);
+            }
+        }
+        TestSupport.check(Files.size(folder.resolve("store.bin.order")) > 0, "the arrival order is in the backing file");
+        TestSupport.check(Files.size(folder.resolve("store.bin.heap")) > 0, "and so is the ready queue");
+
+        // A PID longer than 255 bytes is cut before a character, not inside one
+        StringBuilder long_pid = new StringBuilder();
+        for (int i = 0; i < 254; i++) {
+            long_pid.append('a');
+        }
+        try (WorkloadStore store = new WorkloadStore(null)) {
+            store.add(long_pid + "\u00e9\u00e9", 0, 1, 0);   // 254 + 2 + 2 bytes
+            TestSupport.checkEquals(long_pid.toString(), store.pid(0), "a long PID is cut before the first accented letter");
+            store.add("\u00e9", 0, 1, 0);
+            TestSupport.checkEquals("\u00e9", store.pid(1), "a short PID is kept whole");
+        }
+    }
+
+    private static void checkSameCompletions(WorkloadStore store, List<Process> workload, String what) {
+        int mismatches = 0;
+        for (int i = 0; i < workload.size(); i++) {
+            if (store.completionTime(i) != workload.get(i).completion_time) {
+                mismatches++;
+            }
+        }
+        TestSupport.checkEquals(0, mismatches, what + ": completion times that differ");
+    }
+}